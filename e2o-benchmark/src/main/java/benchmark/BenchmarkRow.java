@@ -0,0 +1,55 @@
+package benchmark;
+
+import annotation.Excel;
+import common.ExcelConstant;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * 基准测试使用的实体，覆盖字符串、整数、BigDecimal、日期和两种下拉框
+ */
+public class BenchmarkRow {
+
+    @Excel(excelColumnName = "名称")
+    private String name;
+
+    @Excel(excelColumnName = "数量")
+    private int quantity;
+
+    @Excel(excelColumnName = "金额", notNull = false)
+    private BigDecimal amount;
+
+    @Excel(excelColumnName = "日期", notNull = false)
+    private Date date;
+
+    @Excel(excelColumnName = "颜色", optionName = WorkbookGenerator.COLOR_OPTION, optionSchema = ExcelConstant.SWITCH)
+    private String color;
+
+    @Excel(excelColumnName = "地区", optionName = WorkbookGenerator.REGION_OPTION, optionSchema = ExcelConstant.CHECK)
+    private String region;
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+}
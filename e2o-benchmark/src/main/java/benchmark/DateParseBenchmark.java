@@ -0,0 +1,61 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import util.DateParser;
+import util.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日期字符串的解析，每次调用解析 INPUTS 中的全部字符串
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParseBenchmark {
+
+    private static final String[] INPUTS = {"2012-3-21", "2012-03-21 18:11:43", "2012/03/21 18:11:43.567",
+            "2012.3.21", "21/03/2012", "20120321", "2012-03", "2012", "1332324703000",
+            "Wed Mar 21 18:11:43 CST 2012"};
+
+    private static final String[] PATTERN_INPUTS = {"2012/03/21 18:11", "2013/12/01 08:00", "2020/02/29 23:59"};
+
+    private final DateParser patternParser = DateParser.ofPatterns("yyyy/MM/dd HH:mm");
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void autoDetect(Blackhole blackhole) {
+        for (String input : INPUTS) {
+            blackhole.consume(DateParser.AUTO.parse(input));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void autoDate(Blackhole blackhole) {
+        for (String input : INPUTS) {
+            blackhole.consume(utils.autoDate(input));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(3)
+    public void configuredPattern(Blackhole blackhole) {
+        for (String input : PATTERN_INPUTS) {
+            blackhole.consume(patternParser.parse(input));
+        }
+    }
+}
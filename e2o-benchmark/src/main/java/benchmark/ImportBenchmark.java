@@ -0,0 +1,76 @@
+package benchmark;
+
+import core.ExcelToObject;
+import entity.ExcelToObjectResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端的导入：从文件流到 ExcelToObjectResult
+ * 1M 行只适用于 xlsx，xls 文件的行数会被截断到 65535，可以通过 -p rows=1000000 -p format=xlsx 运行
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportBenchmark {
+
+    @Param({"xls", "xlsx"})
+    public String format;
+
+    @Param({"1000", "50000"})
+    public int rows;
+
+    @Param({"0"})
+    public int extraColumns;
+
+    @Param({"0", "0.05"})
+    public double errorRate;
+
+    @Param({"100"})
+    public int regionCount;
+
+    private byte[] workbook;
+
+    private ExcelToObject excelToObject;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        WorkbookGenerator generator = new WorkbookGenerator(format, rows, extraColumns, errorRate, 0.5,
+                regionCount, 42);
+        workbook = generator.generate();
+        excelToObject = ExcelToObject.builder().optionMap(generator.optionMap()).bind(BenchmarkRow.class).build();
+    }
+
+    @Benchmark
+    public ExcelToObjectResult<BenchmarkRow> usermodel() throws Exception {
+        return excelToObject.getExcelToObjectResult(new ByteArrayInputStream(workbook), BenchmarkRow.class, 0, 1);
+    }
+
+    @Benchmark
+    public ExcelToObjectResult<BenchmarkRow> streaming() throws Exception {
+        return excelToObject.getExcelToObjectResultByStreaming(new ByteArrayInputStream(workbook),
+                BenchmarkRow.class, 0, 1);
+    }
+
+    @Benchmark
+    public ExcelToObjectResult<BenchmarkRow> parallel() throws Exception {
+        return excelToObject.getExcelToObjectResultInParallel(new ByteArrayInputStream(workbook),
+                BenchmarkRow.class, 0, 1);
+    }
+}
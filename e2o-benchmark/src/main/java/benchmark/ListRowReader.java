@@ -0,0 +1,29 @@
+package benchmark;
+
+import reader.ExcelRow;
+import reader.RowReader;
+
+import java.util.List;
+
+/**
+ * 遍历已经读取到内存中的行，用于单独测量转换阶段
+ */
+final class ListRowReader implements RowReader {
+
+    private final List<ExcelRow> rows;
+
+    private int next;
+
+    ListRowReader(List<ExcelRow> rows) {
+        this.rows = rows;
+    }
+
+    @Override
+    public ExcelRow nextRow() {
+        return next < rows.size() ? rows.get(next++) : null;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import binding.OptionDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 下拉框的校验和转换，linearContainsValue 是改为索引之前 Map.containsValue 的做法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OptionBenchmark {
+
+    @Param({"100", "10000", "300000"})
+    public int size;
+
+    private Map<String, String> option;
+
+    private OptionDictionary dictionary;
+
+    private String[] names;
+
+    private String[] values;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        option = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            option.put("名称" + i, "V" + i);
+        }
+        dictionary = OptionDictionary.of(option);
+        Random random = new Random(42);
+        names = new String[1024];
+        values = new String[1024];
+        for (int i = 0; i < names.length; i++) {
+            // 约十分之一不存在
+            int key = random.nextInt(size + size / 10);
+            names[i] = "名称" + key;
+            values[i] = "V" + key;
+        }
+    }
+
+    @Benchmark
+    public boolean containsValue() {
+        return dictionary.containsValue(values[next++ & 1023]);
+    }
+
+    @Benchmark
+    public String getValue() {
+        return dictionary.getValue(names[next++ & 1023]);
+    }
+
+    @Benchmark
+    public boolean linearContainsValue() {
+        return option.containsValue(values[next++ & 1023]);
+    }
+}
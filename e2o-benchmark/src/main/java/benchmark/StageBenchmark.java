@@ -0,0 +1,138 @@
+package benchmark;
+
+import core.ExcelToObject;
+import entity.ExcelToObjectResult;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reader.ExcelRow;
+import reader.HSSFEventRowReader;
+import reader.RowReader;
+import reader.XSSFStreamingRowReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导入的各个阶段：读取文件、匹配列名、转换数据行
+ * 读取的结果按行保存在内存中，转换阶段不包含任何 IO
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StageBenchmark {
+
+    @Param({"xls", "xlsx"})
+    public String format;
+
+    @Param({"50000"})
+    public int rows;
+
+    @Param({"0", "20"})
+    public int extraColumns;
+
+    @Param({"0.05"})
+    public double errorRate;
+
+    @Param({"100"})
+    public int regionCount;
+
+    private byte[] workbook;
+
+    private ExcelToObject excelToObject;
+
+    /**
+     * 读取到内存中的全部行，包括列名所在的行
+     */
+    private List<ExcelRow> allRows;
+
+    private List<ExcelRow> headerRow;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        WorkbookGenerator generator = new WorkbookGenerator(format, rows, extraColumns, errorRate, 0.5,
+                regionCount, 42);
+        workbook = generator.generate();
+        excelToObject = ExcelToObject.builder().optionMap(generator.optionMap()).bind(BenchmarkRow.class).build();
+        allRows = new ArrayList<>();
+        try (RowReader rowReader = openStreaming()) {
+            ExcelRow row;
+            while ((row = rowReader.nextRow()) != null) {
+                allRows.add(row);
+            }
+        }
+        headerRow = Collections.singletonList(allRows.get(0));
+    }
+
+    private RowReader openStreaming() throws IOException {
+        ByteArrayInputStream in = new ByteArrayInputStream(workbook);
+        return "xls".equals(format) ? new HSSFEventRowReader(in) : new XSSFStreamingRowReader(in);
+    }
+
+    /**
+     * 整表加载 xls 文件，xlsx 总是流式读取，与 readRows 相同
+     */
+    @Benchmark
+    public Object loadWorkbook() throws IOException {
+        if ("xls".equals(format)) {
+            try (HSSFWorkbook hssfWorkbook = new HSSFWorkbook(new ByteArrayInputStream(workbook))) {
+                return hssfWorkbook.getSheetAt(0).getLastRowNum();
+            }
+        }
+        return readRows(null);
+    }
+
+    /**
+     * 流式读取全部的行，不做转换
+     */
+    @Benchmark
+    public int readRows(Blackhole blackhole) throws IOException {
+        int count = 0;
+        try (RowReader rowReader = openStreaming()) {
+            ExcelRow row;
+            while ((row = rowReader.nextRow()) != null) {
+                if (blackhole != null) {
+                    blackhole.consume(row);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 读取列名所在的行并生成绑定计划
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ExcelToObjectResult<BenchmarkRow> resolveHeader() throws Exception {
+        return excelToObject.getExcelToObjectResult(new ListRowReader(headerRow), BenchmarkRow.class, 0, 1);
+    }
+
+    /**
+     * 转换和校验已经读取到内存中的行
+     */
+    @Benchmark
+    public ExcelToObjectResult<BenchmarkRow> convertRows() throws Exception {
+        return excelToObject.getExcelToObjectResult(new ListRowReader(allRows), BenchmarkRow.class, 0, 1);
+    }
+}
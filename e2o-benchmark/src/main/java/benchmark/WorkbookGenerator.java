@@ -0,0 +1,153 @@
+package benchmark;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 生成基准测试使用的 excel 文件
+ * 第0行为列名，之后每行一条数据，列依次为 BenchmarkRow 的属性和若干个不绑定属性的字符串列
+ */
+public final class WorkbookGenerator {
+
+    public static final String COLOR_OPTION = "color";
+
+    public static final String REGION_OPTION = "region";
+
+    /**
+     * xls 文件的最大行数
+     */
+    public static final int XLS_MAX_ROWS = 65536;
+
+    private static final String[] COLORS = {"红", "绿", "蓝", "黄", "黑", "白"};
+
+    private static final String[] TEXT_DATES = {"2012-3-21", "2012/03/21 18:11:43", "2012.3.21 8:01:03.567",
+            "21/3/2012", "20120321"};
+
+    private final String format;
+
+    private final int rows;
+
+    private final int extraColumns;
+
+    private final double errorRate;
+
+    private final double textDateRate;
+
+    private final int regionCount;
+
+    private final long seed;
+
+    /**
+     * @param format       xls 或 xlsx
+     * @param rows         数据行数，xls 文件最多 XLS_MAX_ROWS - 1 行
+     * @param extraColumns 不绑定属性的字符串列的数量，用于模拟较宽的表
+     * @param errorRate    包含错误的行的比例，错误在类型错误、下拉框不合法、必填项为空之间轮换
+     * @param textDateRate 日期以文本形式保存的比例，其余为日期格式的数值单元格
+     * @param regionCount  地区下拉框的项数
+     * @param seed         随机数种子，相同的参数生成相同的文件
+     */
+    public WorkbookGenerator(String format, int rows, int extraColumns, double errorRate, double textDateRate,
+                             int regionCount, long seed) {
+        this.format = format;
+        this.rows = "xls".equals(format) ? Math.min(rows, XLS_MAX_ROWS - 1) : rows;
+        this.extraColumns = extraColumns;
+        this.errorRate = errorRate;
+        this.textDateRate = textDateRate;
+        this.regionCount = regionCount;
+        this.seed = seed;
+    }
+
+    /**
+     * 实际生成的数据行数
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * 与生成的文件对应的下拉框
+     */
+    public Map<String, Map<String, String>> optionMap() {
+        Map<String, Map<String, String>> optionMap = new HashMap<>();
+        Map<String, String> colors = new HashMap<>();
+        for (int i = 0; i < COLORS.length; i++) {
+            colors.put(COLORS[i], String.valueOf(i));
+        }
+        optionMap.put(COLOR_OPTION, colors);
+        Map<String, String> regions = new HashMap<>(regionCount * 4 / 3 + 1);
+        for (int i = 0; i < regionCount; i++) {
+            regions.put("地区" + i, region(i));
+        }
+        optionMap.put(REGION_OPTION, regions);
+        return optionMap;
+    }
+
+    public byte[] generate() throws IOException {
+        Workbook workbook = "xls".equals(format) ? new HSSFWorkbook() : new SXSSFWorkbook(1000);
+        try {
+            Sheet sheet = workbook.createSheet("data");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+            Row header = sheet.createRow(0);
+            String[] columns = {"名称", "数量", "金额", "日期", "颜色", "地区"};
+            for (int i = 0; i < columns.length; i++) {
+                header.createCell(i).setCellValue(columns[i]);
+            }
+            for (int i = 0; i < extraColumns; i++) {
+                header.createCell(columns.length + i).setCellValue("备注" + i);
+            }
+
+            Random random = new Random(seed);
+            for (int r = 1; r <= rows; r++) {
+                Row row = sheet.createRow(r);
+                int error = random.nextDouble() < errorRate ? random.nextInt(3) + 1 : 0;
+                if (error != 3) {
+                    row.createCell(0).setCellValue("名称" + random.nextInt(100000));
+                }
+                if (error == 1) {
+                    row.createCell(1).setCellValue("abc");
+                } else {
+                    row.createCell(1).setCellValue(random.nextInt(10000));
+                }
+                row.createCell(2).setCellValue(random.nextInt(1000000) / 100.0);
+                if (random.nextDouble() < textDateRate) {
+                    row.createCell(3).setCellValue(TEXT_DATES[random.nextInt(TEXT_DATES.length)]);
+                } else {
+                    Cell cell = row.createCell(3);
+                    cell.setCellValue(40000 + random.nextInt(5000) + random.nextInt(86400) / 86400.0);
+                    cell.setCellStyle(dateStyle);
+                }
+                row.createCell(4).setCellValue(error == 2 ? "紫" : COLORS[random.nextInt(COLORS.length)]);
+                row.createCell(5).setCellValue(region(random.nextInt(regionCount)));
+                for (int i = 0; i < extraColumns; i++) {
+                    row.createCell(columns.length + i).setCellValue("备注" + random.nextInt(1000));
+                }
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            workbook.write(out);
+            return out.toByteArray();
+        } finally {
+            if (workbook instanceof SXSSFWorkbook) {
+                ((SXSSFWorkbook) workbook).dispose();
+            }
+            workbook.close();
+        }
+    }
+
+    private static String region(int i) {
+        return "R" + i;
+    }
+}
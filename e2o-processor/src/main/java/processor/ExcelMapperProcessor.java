@@ -0,0 +1,733 @@
+package processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 为打上 @Excel 注解的实体类生成 ExcelMapper，类名为 实体类的二进制名 + _ExcelMapper，与实体类在同一个包中
+ * 生成的代码直接创建实体、读写属性，校验和转换的顺序与反射方式完全一致
+ * 实体类没有可访问的无参构造器、属性是 final 或 static、private 属性没有 setter 和 getter 时不生成，运行时使用反射
+ * 不依赖 e2o，注解通过全限定名识别
+ */
+@SupportedAnnotationTypes(ExcelMapperProcessor.EXCEL)
+public class ExcelMapperProcessor extends AbstractProcessor {
+
+    static final String EXCEL = "annotation.Excel";
+
+    private static final String PATTERN = "javax.validation.constraints.Pattern";
+
+    private static final String MAPPER_SUFFIX = "_ExcelMapper";
+
+    private static final String SERVICE_FILE = "META-INF/services/binding.ExcelMapper";
+
+    private static final String SWITCH = "switch";
+
+    private static final String CHECK = "check";
+
+    /**
+     * 属性的类型，与 FieldWriter 支持的类型一致
+     */
+    private static final int STRING = 0;
+    private static final int NUMBER = 1;
+    private static final int BOOLEAN = 2;
+    private static final int DATE = 3;
+    private static final int ENUM = 4;
+    private static final int UNSUPPORTED = 5;
+
+    /**
+     * 属性类型 与 (类型, MapperSupport 中的转换方法) 的映射
+     */
+    private static final Map<String, Object[]> CONVERTERS = new HashMap<>();
+
+    static {
+        CONVERTERS.put("java.lang.String", new Object[]{STRING, null});
+        CONVERTERS.put("int", new Object[]{NUMBER, "toInt"});
+        CONVERTERS.put("java.lang.Integer", new Object[]{NUMBER, "toInteger"});
+        CONVERTERS.put("short", new Object[]{NUMBER, "toShort"});
+        CONVERTERS.put("java.lang.Short", new Object[]{NUMBER, "toShortObject"});
+        CONVERTERS.put("long", new Object[]{NUMBER, "toLong"});
+        CONVERTERS.put("java.lang.Long", new Object[]{NUMBER, "toLongObject"});
+        CONVERTERS.put("float", new Object[]{NUMBER, "toFloat"});
+        CONVERTERS.put("java.lang.Float", new Object[]{NUMBER, "toFloatObject"});
+        CONVERTERS.put("double", new Object[]{NUMBER, "toDouble"});
+        CONVERTERS.put("java.lang.Double", new Object[]{NUMBER, "toDoubleObject"});
+        CONVERTERS.put("java.math.BigDecimal", new Object[]{NUMBER, "toBigDecimal"});
+        CONVERTERS.put("boolean", new Object[]{BOOLEAN, "toBoolean"});
+        CONVERTERS.put("java.lang.Boolean", new Object[]{BOOLEAN, "toBooleanObject"});
+        CONVERTERS.put("java.util.Date", new Object[]{DATE, "toDate"});
+        CONVERTERS.put("java.time.LocalDate", new Object[]{DATE, "toLocalDate"});
+        CONVERTERS.put("java.time.LocalDateTime", new Object[]{DATE, "toLocalDateTime"});
+        CONVERTERS.put("java.time.Instant", new Object[]{DATE, "toInstant"});
+    }
+
+    private Elements elements;
+
+    private Types types;
+
+    private Filer filer;
+
+    private Messager messager;
+
+    /**
+     * 已生成的映射器的全限定名，最后一轮写入 META-INF/services
+     */
+    private final Set<String> mapperNames = new LinkedHashSet<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        TypeElement excel = elements.getTypeElement(EXCEL);
+        if (excel == null) {
+            return false;
+        }
+        Set<TypeElement> classes = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(excel)) {
+            if (element.getKind() == ElementKind.FIELD) {
+                classes.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+        for (TypeElement type : classes) {
+            try {
+                generate(type);
+            } catch (IOException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "无法生成 ExcelMapper：" + e.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String reason = checkClass(type);
+        if (reason != null) {
+            note(type, reason);
+            return;
+        }
+        List<MapperField> fields = new ArrayList<>();
+        for (VariableElement field : boundFields(type)) {
+            MapperField mapperField = createField(type, field, fields.size());
+            if (mapperField == null) {
+                return;
+            }
+            fields.add(mapperField);
+        }
+
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + MAPPER_SUFFIX;
+        String mapperName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = filer.createSourceFile(mapperName, type).openWriter()) {
+            writer.write(new MapperSource(packageName, simpleName, type.getQualifiedName().toString(), fields).toString());
+        }
+        mapperNames.add(mapperName);
+    }
+
+    /**
+     * @return 不能生成映射器的原因，可以生成时返回 null
+     */
+    private String checkClass(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "不是可以实例化的类";
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            return "是泛型类";
+        }
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL
+                && (type.getNestingKind() != NestingKind.MEMBER || !type.getModifiers().contains(Modifier.STATIC))) {
+            return "不是顶层类或静态内部类";
+        }
+        if (!isAccessible(type, elements.getPackageOf(type))) {
+            return "在包中不可访问";
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return null;
+            }
+        }
+        return "没有可访问的无参构造器";
+    }
+
+    /**
+     * 打上 @Excel 注解且列名不为空的属性，按声明顺序排列；列名重复时，后声明的属性生效
+     */
+    private List<VariableElement> boundFields(TypeElement type) {
+        Map<String, VariableElement> columnAndFieldMap = new LinkedHashMap<>();
+        List<VariableElement> annotated = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            AnnotationMirror excel = findAnnotation(field, EXCEL);
+            if (excel == null) {
+                continue;
+            }
+            String columnName = (String) value(excel, "excelColumnName");
+            if (columnName == null || columnName.isEmpty()) {
+                continue;
+            }
+            columnAndFieldMap.put(columnName, field);
+            annotated.add(field);
+        }
+        List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : annotated) {
+            String columnName = (String) value(findAnnotation(field, EXCEL), "excelColumnName");
+            if (columnAndFieldMap.get(columnName) == field) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * @return 属性无法通过生成的代码读写时返回 null
+     */
+    private MapperField createField(TypeElement type, VariableElement field, int index) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+            note(field, "属性是 static 或 final");
+            return null;
+        }
+        AnnotationMirror excel = findAnnotation(field, EXCEL);
+        MapperField mapperField = new MapperField();
+        mapperField.index = index;
+        mapperField.name = field.getSimpleName().toString();
+        mapperField.columnName = (String) value(excel, "excelColumnName");
+        mapperField.notNull = (Boolean) value(excel, "notNull");
+        mapperField.key = (Boolean) value(excel, "key");
+        mapperField.optionName = (String) value(excel, "optionName");
+        mapperField.optionSchema = (String) value(excel, "optionSchema");
+
+        AnnotationMirror pattern = findAnnotation(field, PATTERN);
+        String regexp = pattern == null ? null : (String) value(pattern, "regexp");
+        if (regexp != null && !regexp.isEmpty()) {
+            try {
+                Pattern.compile(regexp);
+            } catch (PatternSyntaxException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "正则无法编译：" + e.getDescription(), field, pattern);
+                return null;
+            }
+            mapperField.regexp = regexp;
+        }
+
+        List<String> dateFormats = new ArrayList<>();
+        for (Object format : (List<?>) value(excel, "dateFormat")) {
+            String dateFormat = (String) ((AnnotationValue) format).getValue();
+            try {
+                DateTimeFormatter.ofPattern(dateFormat);
+            } catch (IllegalArgumentException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "日期格式无法解析：" + dateFormat, field, excel);
+                return null;
+            }
+            dateFormats.add(dateFormat);
+        }
+        mapperField.dateFormats = dateFormats;
+
+        TypeMirror fieldType = field.asType();
+        mapperField.typeName = typeName(fieldType);
+        Object[] converter = CONVERTERS.get(mapperField.typeName);
+        if (converter != null) {
+            mapperField.kind = (Integer) converter[0];
+            mapperField.converter = (String) converter[1];
+        } else if (fieldType.getKind() == TypeKind.DECLARED
+                && types.asElement(fieldType).getKind() == ElementKind.ENUM) {
+            TypeElement enumType = (TypeElement) types.asElement(fieldType);
+            if (!isAccessible(enumType, elements.getPackageOf(type))) {
+                note(field, "枚举类型在包中不可访问");
+                return null;
+            }
+            mapperField.kind = ENUM;
+            mapperField.enumConstants = new ArrayList<>();
+            for (Element element : enumType.getEnclosedElements()) {
+                if (element.getKind() == ElementKind.ENUM_CONSTANT) {
+                    mapperField.enumConstants.add(element.getSimpleName().toString());
+                }
+            }
+        } else {
+            mapperField.kind = UNSUPPORTED;
+        }
+
+        if (!modifiers.contains(Modifier.PRIVATE)) {
+            return mapperField;
+        }
+        // private 属性通过 setter 和 getter 读写
+        String capitalized = Character.toUpperCase(mapperField.name.charAt(0)) + mapperField.name.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            Set<Modifier> methodModifiers = method.getModifiers();
+            if (methodModifiers.contains(Modifier.PRIVATE) || methodModifiers.contains(Modifier.STATIC)
+                    || !isAccessible(method, elements.getPackageOf(type))) {
+                continue;
+            }
+            String methodName = method.getSimpleName().toString();
+            if (methodName.equals("set" + capitalized) && method.getParameters().size() == 1
+                    && types.isSameType(method.getParameters().get(0).asType(), fieldType)) {
+                mapperField.setter = methodName;
+            } else if ((methodName.equals("get" + capitalized)
+                    || (methodName.equals("is" + capitalized) && fieldType.getKind() == TypeKind.BOOLEAN))
+                    && method.getParameters().isEmpty() && types.isSameType(method.getReturnType(), fieldType)) {
+                mapperField.getter = methodName;
+            }
+        }
+        if (mapperField.setter == null || mapperField.getter == null) {
+            note(field, "private 属性没有 setter 或 getter");
+            return null;
+        }
+        return mapperField;
+    }
+
+    /**
+     * 类及外部类在 packageElement 包中是否都可以访问
+     */
+    private boolean isAccessible(Element element, PackageElement packageElement) {
+        boolean samePackage = elements.getPackageOf(element).equals(packageElement);
+        for (Element e = element; e != null && e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            Set<Modifier> modifiers = e.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || (!samePackage && !modifiers.contains(Modifier.PUBLIC))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String typeName(TypeMirror type) {
+        if (type.getKind() == TypeKind.DECLARED) {
+            return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    private AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 注解的属性值，包括默认值
+     */
+    private Object value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private void note(Element element, String reason) {
+        messager.printMessage(Diagnostic.Kind.NOTE, "不生成 ExcelMapper，运行时使用反射：" + reason, element);
+    }
+
+    /**
+     * 将生成的映射器登记到 META-INF/services/binding.ExcelMapper，保留增量编译时已登记的映射器
+     */
+    private void writeServiceFile() {
+        if (mapperNames.isEmpty()) {
+            return;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        names.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 第一次编译时还没有登记文件
+        }
+        names.addAll(mapperNames);
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (PrintWriter writer = new PrintWriter(
+                    new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8))) {
+                for (String name : names) {
+                    writer.println(name);
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "无法写入 " + SERVICE_FILE + "：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 一个属性生成代码需要的信息
+     */
+    private static final class MapperField {
+
+        int index;
+
+        String name;
+
+        String columnName;
+
+        boolean notNull;
+
+        boolean key;
+
+        String optionName;
+
+        String optionSchema;
+
+        /**
+         * 没有 @Pattern 注解时为 null
+         */
+        String regexp;
+
+        List<String> dateFormats;
+
+        /**
+         * 属性类型的全限定名
+         */
+        String typeName;
+
+        int kind;
+
+        /**
+         * MapperSupport 中的转换方法，String、枚举和不支持的类型为 null
+         */
+        String converter;
+
+        List<String> enumConstants;
+
+        /**
+         * private 属性的 setter 和 getter，其他属性为 null
+         */
+        String setter;
+
+        String getter;
+
+        boolean hasOption() {
+            return !optionName.isEmpty();
+        }
+
+        boolean isOptionSwitch() {
+            return hasOption() && SWITCH.equals(optionSchema);
+        }
+
+        boolean isOptionCheck() {
+            return hasOption() && CHECK.equals(optionSchema);
+        }
+
+        boolean isTextRequired() {
+            return hasOption() || regexp != null;
+        }
+
+        /**
+         * 能否不经过字符串直接读取单元格的判断，不能直接读取时返回 null
+         */
+        String decodeCondition() {
+            switch (kind) {
+                case NUMBER:
+                    return "binding.MapperSupport.isNumber(row, index)";
+                case BOOLEAN:
+                    return "binding.MapperSupport.isBoolean(row, index)";
+                case DATE:
+                    return "binding.MapperSupport.isDate(row, index)";
+                default:
+                    return null;
+            }
+        }
+    }
+
+    /**
+     * 映射器的源码
+     */
+    private static final class MapperSource {
+
+        private final StringBuilder out = new StringBuilder();
+
+        MapperSource(String packageName, String simpleName, String typeName, List<MapperField> fields) {
+            if (!packageName.isEmpty()) {
+                line("package " + packageName + ";");
+                line("");
+            }
+            line("/**");
+            line(" * 由 e2o-processor 生成，不要修改");
+            line(" */");
+            line("public final class " + simpleName + " implements binding.ExcelMapper<" + typeName + "> {");
+            line("");
+            line("    private static final binding.MappedField[] FIELDS = {");
+            for (MapperField field : fields) {
+                line("            new binding.MappedField(" + literal(field.name) + ", " + literal(field.columnName)
+                        + ", " + field.notNull + ", " + field.key + ", " + literal(field.optionName) + ", "
+                        + literal(field.optionSchema) + ", " + literal(field.regexp) + "),");
+            }
+            line("    };");
+            for (MapperField field : fields) {
+                if (field.regexp != null) {
+                    line("");
+                    line("    private static final java.util.regex.Pattern PATTERN_" + field.index
+                            + " = java.util.regex.Pattern.compile(" + literal(field.regexp) + ");");
+                }
+                if (field.kind == DATE) {
+                    line("");
+                    line("    private static final util.DateParser DATE_PARSER_" + field.index + " = "
+                            + dateParser(field.dateFormats) + ";");
+                }
+            }
+            line("");
+            line("    @Override");
+            line("    public Class<" + typeName + "> getType() {");
+            line("        return " + typeName + ".class;");
+            line("    }");
+            line("");
+            line("    @Override");
+            line("    public binding.MappedField[] getFields() {");
+            line("        return FIELDS.clone();");
+            line("    }");
+            line("");
+            line("    @Override");
+            line("    public " + typeName + " newInstance() {");
+            line("        return new " + typeName + "();");
+            line("    }");
+            line("");
+            line("    @Override");
+            line("    public entity.ErrorCode write(" + typeName + " object, int field, reader.ExcelRow row, int index,");
+            line("                                  binding.OptionDictionary option) {");
+            line("        switch (field) {");
+            for (MapperField field : fields) {
+                line("            case " + field.index + ":");
+                line("                return write" + field.index + "(object, row, index, option);");
+            }
+            line("            default:");
+            line("                throw new IndexOutOfBoundsException(String.valueOf(field));");
+            line("        }");
+            line("    }");
+            line("");
+            line("    @Override");
+            line("    public Object read(" + typeName + " object, int field) {");
+            line("        switch (field) {");
+            for (MapperField field : fields) {
+                line("            case " + field.index + ":");
+                line("                return object." + (field.getter != null ? field.getter + "()" : field.name) + ";");
+            }
+            line("            default:");
+            line("                throw new IndexOutOfBoundsException(String.valueOf(field));");
+            line("        }");
+            line("    }");
+            for (MapperField field : fields) {
+                writeMethod(typeName, field);
+                setMethod(typeName, field);
+            }
+            line("}");
+        }
+
+        /**
+         * 校验单元格，顺序与 ExcelToObject.getCellValueAndSetField 一致
+         */
+        private void writeMethod(String typeName, MapperField field) {
+            String decode = field.decodeCondition();
+            line("");
+            line("    private static entity.ErrorCode write" + field.index + "(" + typeName
+                    + " object, reader.ExcelRow row, int index, binding.OptionDictionary option) {");
+            if (!field.isTextRequired() && decode != null) {
+                line("        if (" + decode + ") {");
+                line("            return set" + field.index + "(object, null, row, index);");
+                line("        }");
+            }
+            line("        String value = binding.MapperSupport.text(row, index);");
+            if (field.notNull) {
+                line("        if (util.utils.stringIsBlank(value)) {");
+                line("            return entity.ErrorCode.NOT_NULL;");
+                line("        }");
+            }
+            if (field.isOptionSwitch()) {
+                line("        value = option == null ? null : option.getValue(value);");
+                line("        if (util.utils.stringIsBlank(value)) {");
+                line("            return entity.ErrorCode.DATA_ILLEGALITY;");
+                line("        }");
+            }
+            if (field.isOptionCheck()) {
+                line("        if (value == null || option == null || !option.containsValue(value)) {");
+                line("            return entity.ErrorCode.DATA_ILLEGALITY;");
+                line("        }");
+            }
+            if (field.regexp != null) {
+                line("        if (!PATTERN_" + field.index + ".matcher(value).matches()) {");
+                line("            return entity.ErrorCode.FORMAT;");
+                line("        }");
+            }
+            if (!field.isOptionSwitch() && decode != null) {
+                line("        if (" + decode + ") {");
+                line("            value = null;");
+                line("        }");
+            }
+            line("        return set" + field.index + "(object, value, row, index);");
+            line("    }");
+        }
+
+        /**
+         * 转换并写入属性，与 FieldWriter.write 一致
+         */
+        private void setMethod(String typeName, MapperField field) {
+            line("");
+            line("    private static entity.ErrorCode set" + field.index + "(" + typeName
+                    + " object, String value, reader.ExcelRow row, int index) {");
+            if (field.kind == UNSUPPORTED) {
+                line("        // 不支持的类型不赋值");
+                line("        return null;");
+                line("    }");
+                return;
+            }
+            String expression;
+            if (field.kind == STRING) {
+                expression = "value";
+            } else if (field.kind == ENUM) {
+                expression = "constant";
+            } else if (field.kind == DATE) {
+                expression = "binding.MapperSupport." + field.converter + "(value, row, index, DATE_PARSER_"
+                        + field.index + ")";
+            } else {
+                expression = "binding.MapperSupport." + field.converter + "(value, row, index)";
+            }
+            line("        try {");
+            if (field.kind == ENUM) {
+                line("            " + field.typeName + " constant;");
+                line("            if (util.utils.stringIsBlank(value)) {");
+                line("                constant = null;");
+                line("            } else {");
+                line("                switch (value) {");
+                for (String constant : field.enumConstants) {
+                    line("                    case " + literal(constant) + ":");
+                    line("                        constant = " + field.typeName + "." + constant + ";");
+                    line("                        break;");
+                }
+                line("                    default:");
+                line("                        throw new IllegalArgumentException(value);");
+                line("                }");
+                line("            }");
+            }
+            if (field.setter != null) {
+                line("            object." + field.setter + "(" + expression + ");");
+            } else {
+                line("            object." + field.name + " = " + expression + ";");
+            }
+            line("        } catch (IllegalArgumentException e) {");
+            line("            return entity.ErrorCode.TYPE_ILLEGALITY;");
+            line("        }");
+            line("        return null;");
+            line("    }");
+        }
+
+        private static String dateParser(List<String> dateFormats) {
+            if (dateFormats.isEmpty()) {
+                return "util.DateParser.AUTO";
+            }
+            StringBuilder builder = new StringBuilder("util.DateParser.ofPatterns(");
+            for (int i = 0; i < dateFormats.size(); i++) {
+                builder.append(i == 0 ? "" : ", ").append(literal(dateFormats.get(i)));
+            }
+            return builder.append(')').toString();
+        }
+
+        /**
+         * Java 字符串字面量，非 ASCII 字符转成 \\uXXXX，生成的源码与编码无关
+         */
+        private static String literal(String value) {
+            if (value == null) {
+                return "null";
+            }
+            StringBuilder builder = new StringBuilder("\"");
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        builder.append("\\\"");
+                        break;
+                    case '\\':
+                        builder.append("\\\\");
+                        break;
+                    case '\n':
+                        builder.append("\\n");
+                        break;
+                    case '\r':
+                        builder.append("\\r");
+                        break;
+                    case '\t':
+                        builder.append("\\t");
+                        break;
+                    default:
+                        if (c < ' ' || c > '~') {
+                            builder.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            builder.append(c);
+                        }
+                }
+            }
+            return builder.append('"').toString();
+        }
+
+        private void line(String text) {
+            out.append(text).append('\n');
+        }
+
+        @Override
+        public String toString() {
+            return out.toString();
+        }
+    }
+}
@@ -33,4 +33,16 @@ public @interface Excel {
      * CHECK : 校验 value值是否合法
      */
     String optionSchema() default ExcelConstant.CHECK;
+
+    /**
+     * 日期类型属性的格式，如 yyyy/MM/dd HH:mm，按顺序尝试
+     * 为空时自动识别格式，见 utils.autoDate
+     */
+    String[] dateFormat() default {};
+
+    /**
+     * 是否是唯一键的一部分，所有 key 属性的值都相同的两行被认为是重复数据
+     * 解析时可以通过 ImportOptions.keyColumns 指定其他的列
+     */
+    boolean key() default false;
 }
@@ -0,0 +1,152 @@
+package binding;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一次解析使用的绑定计划，由 ClassBinding 与列名所在的行匹配得到
+ * 属性、列下标 和 下拉框 按属性声明顺序保存在数组中，转换时只需按下标遍历
+ */
+public final class BindingPlan {
+
+    /**
+     * 编译期生成的映射器，没有生成时为 null
+     */
+    private final ExcelMapper<?> mapper;
+
+    /**
+     * 通过构造器创建实体时的构造器绑定，有无参构造器时为 null
+     */
+    private final ConstructorBinding constructor;
+
+    /**
+     * ()Object，没有生成映射器时通过无参构造器创建实体，无法访问时为 null
+     */
+    private final MethodHandle noArgConstructor;
+
+    /**
+     * 当前线程备用的实体，一行的属性先写入该实体，整行转换成功后才被取走
+     */
+    private final ThreadLocal<Object> spareInstance = new ThreadLocal<>();
+
+    private final FieldBinding[] fields;
+
+    private final int[] columnIndexes;
+
+    /**
+     * 每个属性对应的下拉框，属性没有下拉框或下拉框不存在时为 null
+     */
+    private final OptionDictionary[] options;
+
+    /**
+     * 列名所在行中所有的列名 与 列下标 的映射map，包括没有绑定属性的列
+     */
+    private final Map<String, Integer> columnAndIndexMap;
+
+    BindingPlan(ExcelMapper<?> mapper, ConstructorBinding constructor, MethodHandle noArgConstructor,
+                List<FieldBinding> fields, List<Integer> columnIndexes, Map<String, OptionDictionary> dictionaryMap,
+                Map<String, Integer> columnAndIndexMap) {
+        this.mapper = mapper;
+        this.constructor = constructor;
+        this.noArgConstructor = noArgConstructor;
+        this.columnAndIndexMap = columnAndIndexMap;
+        int size = fields.size();
+        this.fields = fields.toArray(new FieldBinding[size]);
+        this.columnIndexes = new int[size];
+        this.options = new OptionDictionary[size];
+        for (int i = 0; i < size; i++) {
+            this.columnIndexes[i] = columnIndexes.get(i);
+            String optionName = this.fields[i].getOptionName();
+            if (optionName != null && dictionaryMap != null) {
+                this.options[i] = dictionaryMap.get(optionName);
+            }
+        }
+    }
+
+    /**
+     * 编译期生成的映射器，没有生成时返回 null，使用反射
+     */
+    public ExcelMapper<?> getMapper() {
+        return mapper;
+    }
+
+    /**
+     * 通过构造器创建实体时的构造器绑定，有无参构造器时返回 null，逐个写入属性
+     */
+    public ConstructorBinding getConstructor() {
+        return constructor;
+    }
+
+    /**
+     * 当前线程备用的实体，没有时通过映射器或缓存的无参构造器创建，用于有无参构造器的实体类
+     * 属性先写入备用的实体，整行转换成功后通过 takeSpareInstance 取走，转换失败的行不创建新的实体；
+     * 同一个绑定计划中转换成功的行会写入所有支持的属性，转换失败的行留下的值会被覆盖
+     *
+     * @throws InstantiationException 实体类没有可以访问的无参构造器
+     */
+    public Object spareInstance() throws InstantiationException {
+        Object object = spareInstance.get();
+        if (object == null) {
+            object = newInstance();
+            spareInstance.set(object);
+        }
+        return object;
+    }
+
+    /**
+     * 取走当前线程备用的实体，下一行使用新创建的实体
+     */
+    public void takeSpareInstance() {
+        spareInstance.set(null);
+    }
+
+    private Object newInstance() throws InstantiationException {
+        if (mapper != null) {
+            return mapper.newInstance();
+        }
+        if (noArgConstructor == null) {
+            throw new InstantiationException("无法通过无参构造器创建实体");
+        }
+        try {
+            return (Object) noArgConstructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int size() {
+        return fields.length;
+    }
+
+    public FieldBinding getField(int i) {
+        return fields[i];
+    }
+
+    public int getColumnIndex(int i) {
+        return columnIndexes[i];
+    }
+
+    public OptionDictionary getOption(int i) {
+        return options[i];
+    }
+
+    /**
+     * 列名所在行中所有的列名 与 列下标 的映射map，列名已经去除了空格和特殊符号
+     */
+    public Map<String, Integer> getColumnAndIndexMap() {
+        return columnAndIndexMap;
+    }
+
+    /**
+     * 按列名查找列下标，列名已经去除了空格和特殊符号
+     *
+     * @return 列名不存在时返回 -1
+     */
+    public int getColumnIndex(String columnName) {
+        Integer index = columnAndIndexMap.get(columnName);
+        return index == null ? -1 : index;
+    }
+}
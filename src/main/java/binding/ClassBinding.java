@@ -0,0 +1,225 @@
+package binding;
+
+import annotation.Excel;
+import common.ExcelConstant;
+import util.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * 实体类的绑定信息，每个类只解析一次，缓存在 ClassValue 中
+ * 创建后不可变，可以在多个线程之间共享
+ */
+public final class ClassBinding {
+
+    private static final ClassValue<ClassBinding> CACHE = new ClassValue<ClassBinding>() {
+        @Override
+        protected ClassBinding computeValue(Class<?> type) {
+            return new ClassBinding(type);
+        }
+    };
+
+    /**
+     * 按属性声明顺序排列的绑定信息
+     */
+    private final FieldBinding[] fieldBindings;
+
+    /**
+     * 编译期生成的映射器，没有生成时为 null，使用反射
+     */
+    private final ExcelMapper<?> mapper;
+
+    /**
+     * 通过构造器创建实体时的构造器绑定，有无参构造器或者使用生成的映射器时为 null
+     */
+    private final ConstructorBinding constructor;
+
+    /**
+     * ()Object，通过无参构造器创建实体；使用生成的映射器、通过构造器创建实体或者无参构造器无法访问时为 null
+     */
+    private final MethodHandle noArgConstructor;
+
+    private ClassBinding(Class<?> objectClass) {
+        this.mapper = loadMapper(objectClass);
+        this.constructor = mapper != null ? null : ConstructorBinding.of(objectClass);
+        this.noArgConstructor = mapper != null || constructor != null ? null : findNoArgConstructor(objectClass);
+        this.fieldBindings = mapper != null ? bindByMapper(mapper) : bindByReflection(objectClass, constructor);
+    }
+
+    private static FieldBinding[] bindByMapper(ExcelMapper<?> mapper) {
+        FieldBinding[] bindings = new FieldBinding[mapper.getFields().length];
+        for (int i = 0; i < bindings.length; i++) {
+            bindings[i] = new FieldBinding(mapper, i);
+        }
+        return bindings;
+    }
+
+    private static FieldBinding[] bindByReflection(Class<?> objectClass, ConstructorBinding constructor) {
+        // 列名重复时，后声明的属性生效
+        Map<String, Field> columnAndFieldMap = new LinkedHashMap<>();
+        Map<Field, Excel> fieldAndExcelMap = new LinkedHashMap<>();
+        for (Field field : objectClass.getDeclaredFields()) {
+            //从属性的注解中获取列名
+            Excel excel = field.getAnnotation(Excel.class);
+            if (excel == null || utils.stringIsBlank(excel.excelColumnName())) {
+                continue;
+            }
+            columnAndFieldMap.put(excel.excelColumnName(), field);
+            fieldAndExcelMap.put(field, excel);
+        }
+
+        List<FieldBinding> list = new ArrayList<>();
+        for (Map.Entry<Field, Excel> entry : fieldAndExcelMap.entrySet()) {
+            if (columnAndFieldMap.get(entry.getValue().excelColumnName()) == entry.getKey()) {
+                int argumentIndex = constructor == null ? -1 : constructor.indexOf(entry.getKey());
+                list.add(new FieldBinding(entry.getKey(), entry.getValue(), argumentIndex));
+            }
+        }
+        return list.toArray(new FieldBinding[0]);
+    }
+
+    /**
+     * 查找编译期生成的映射器，先按类名加载，找不到时通过 ServiceLoader 查找
+     *
+     * @return 没有生成映射器时返回 null
+     */
+    private static ExcelMapper<?> loadMapper(Class<?> objectClass) {
+        ClassLoader classLoader = objectClass.getClassLoader();
+        try {
+            Class<?> mapperClass = Class.forName(objectClass.getName() + ExcelConstant.MAPPER_SUFFIX, true, classLoader);
+            if (ExcelMapper.class.isAssignableFrom(mapperClass)) {
+                ExcelMapper<?> mapper = (ExcelMapper<?>) mapperClass.getDeclaredConstructor().newInstance();
+                if (mapper.getType() == objectClass) {
+                    return mapper;
+                }
+            }
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // 没有按类名找到映射器
+        }
+        try {
+            for (ExcelMapper<?> mapper : ServiceLoader.load(ExcelMapper.class, classLoader)) {
+                if (mapper.getType() == objectClass) {
+                    return mapper;
+                }
+            }
+        } catch (ServiceConfigurationError e) {
+            // 登记的映射器无法加载时使用反射
+        }
+        return null;
+    }
+
+    /**
+     * 查找无参构造器，只查找一次，之后每一行通过 MethodHandle 调用，不再通过反射创建实体
+     *
+     * @return 抽象类、没有无参构造器或者无参构造器无法访问时返回 null
+     */
+    private static MethodHandle findNoArgConstructor(Class<?> objectClass) {
+        if (Modifier.isAbstract(objectClass.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = objectClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 获取实体类的绑定信息
+     */
+    public static ClassBinding of(Class<?> objectClass) {
+        return CACHE.get(objectClass);
+    }
+
+    /**
+     * 编译期生成的映射器，没有生成时返回 null
+     */
+    public ExcelMapper<?> getMapper() {
+        return mapper;
+    }
+
+    /**
+     * 通过构造器创建实体时的构造器绑定，有无参构造器时返回 null
+     */
+    public ConstructorBinding getConstructor() {
+        return constructor;
+    }
+
+    /**
+     * 实体类中是否没有可以绑定的属性
+     */
+    public boolean isEmpty() {
+        return fieldBindings.length == 0;
+    }
+
+    /**
+     * 可以绑定的属性数
+     */
+    public int size() {
+        return fieldBindings.length;
+    }
+
+    /**
+     * 按属性声明顺序的第 i 个绑定信息
+     */
+    public FieldBinding getField(int i) {
+        return fieldBindings[i];
+    }
+
+    /**
+     * 根据excel的列名所在的行，得到本次解析使用的绑定计划
+     *
+     * @param columnAndIndexMap <Excel表中数据项的列名，列的下标>
+     * @param dictionaryMap     建立了索引的下拉框
+     * @return 绑定计划，没有任何属性能与列名匹配时返回 null
+     */
+    public BindingPlan resolve(Map<String, Integer> columnAndIndexMap, Map<String, OptionDictionary> dictionaryMap) {
+        return resolve(columnAndIndexMap, dictionaryMap, Collections.<String>emptySet());
+    }
+
+    /**
+     * 根据excel的列名所在的行，得到只包含部分属性的绑定计划，其余属性不读取、不校验
+     *
+     * @param columnAndIndexMap <Excel表中数据项的列名，列的下标>
+     * @param dictionaryMap     建立了索引的下拉框
+     * @param fieldNames        需要绑定的属性名，为空时绑定所有属性
+     * @return 绑定计划，没有任何属性能与列名匹配时返回 null
+     */
+    public BindingPlan resolve(Map<String, Integer> columnAndIndexMap, Map<String, OptionDictionary> dictionaryMap,
+                               Set<String> fieldNames) {
+        List<FieldBinding> fields = new ArrayList<>();
+        List<Integer> columnIndexes = new ArrayList<>();
+        for (FieldBinding fieldBinding : fieldBindings) {
+            if (!fieldNames.isEmpty() && !fieldNames.contains(fieldBinding.getName())) {
+                continue;
+            }
+            Integer index = columnAndIndexMap.get(fieldBinding.getColumnName());
+            if (index == null) {
+                continue;
+            }
+            fields.add(fieldBinding);
+            columnIndexes.add(index);
+        }
+        if (fields.isEmpty()) {
+            return null;
+        }
+        return new BindingPlan(mapper, constructor, noArgConstructor, fields, columnIndexes, dictionaryMap,
+                columnAndIndexMap);
+    }
+}
@@ -0,0 +1,118 @@
+package binding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 项数较多的下拉框，使用线性探测的开放寻址表
+ * name、value、去重后的 value 和 其对应的第一个 name 分别保存在四个数组中，不创建节点对象，字符串与原下拉框共享
+ */
+final class CompactOptionDictionary extends OptionDictionary {
+
+    /**
+     * name 表，与 values 使用相同的下标
+     */
+    private final String[] names;
+
+    private final String[] values;
+
+    /**
+     * 去重后的 value 表
+     */
+    private final String[] valueSet;
+
+    /**
+     * 与 valueSet 使用相同的下标，value 对应的第一个 name
+     */
+    private final String[] valueNames;
+
+    private final int size;
+
+    CompactOptionDictionary(Map<String, String> option) {
+        // 装载因子不超过 0.5
+        int capacity = tableSize(option.size());
+        this.names = new String[capacity];
+        this.values = new String[capacity];
+        this.valueSet = new String[capacity];
+        this.valueNames = new String[capacity];
+        int count = 0;
+        for (Map.Entry<String, String> entry : option.entrySet()) {
+            String name = entry.getKey();
+            String value = entry.getValue();
+            if (name == null || value == null) {
+                continue;
+            }
+            int slot = indexOf(names, name);
+            if (names[slot] == null) {
+                names[slot] = name;
+                count++;
+            }
+            values[slot] = value;
+
+            slot = indexOf(valueSet, value);
+            if (valueSet[slot] == null) {
+                valueSet[slot] = value;
+                valueNames[slot] = name;
+            }
+        }
+        this.size = count;
+    }
+
+    @Override
+    public String getValue(String name) {
+        if (name == null) {
+            return null;
+        }
+        int slot = indexOf(names, name);
+        return names[slot] == null ? null : values[slot];
+    }
+
+    @Override
+    public boolean containsValue(String value) {
+        return value != null && valueSet[indexOf(valueSet, value)] != null;
+    }
+
+    @Override
+    public String getName(String value) {
+        return value == null ? null : valueNames[indexOf(valueSet, value)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    List<String> nameList() {
+        List<String> nameList = new ArrayList<>(size);
+        for (String name : names) {
+            if (name != null) {
+                nameList.add(name);
+            }
+        }
+        return nameList;
+    }
+
+    /**
+     * 查找 key 所在的位置，key 不存在时返回探测到的第一个空位
+     */
+    private static int indexOf(String[] table, String key) {
+        int mask = table.length - 1;
+        int h = key.hashCode();
+        int slot = (h ^ (h >>> 16)) & mask;
+        String current;
+        while ((current = table[slot]) != null && !current.equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * 不小于 2 * size 的 2 的幂
+     */
+    private static int tableSize(int size) {
+        int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        return Math.max(capacity, 2);
+    }
+}
@@ -0,0 +1,158 @@
+package binding;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 通过构造器创建实体，用于没有无参构造器的不可变类和 record
+ * record 按 getRecordComponents 的顺序匹配规范构造器；其他类的构造器参数需要与实例属性的声明顺序和类型完全一致，
+ * getDeclaredFields 的顺序没有规范保证，常见的 JVM 按声明顺序返回，Lombok 的 @Value、@AllArgsConstructor 满足该要求
+ * 转换时属性的值先写入每个线程复用的参数数组，整行转换成功后通过缓存的 MethodHandle 调用一次构造器，转换失败的行不创建实体
+ */
+public final class ConstructorBinding {
+
+    /**
+     * 构造器的参数对应的属性，按声明顺序排列
+     */
+    private final Field[] fields;
+
+    /**
+     * (Object[])Object，参数数组展开后调用构造器
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * 参数的默认值，基本类型为 0 或 false，其他类型为 null；没有绑定或不在文件中的属性使用默认值
+     */
+    private final Object[] defaults;
+
+    private final ThreadLocal<Object[]> arguments;
+
+    private ConstructorBinding(Field[] fields, MethodHandle constructor) {
+        this.fields = fields;
+        this.constructor = constructor;
+        this.defaults = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            Class<?> type = fields[i].getType();
+            if (type.isPrimitive()) {
+                defaults[i] = Array.get(Array.newInstance(type, 1), 0);
+            }
+        }
+        this.arguments = new ThreadLocal<Object[]>() {
+            @Override
+            protected Object[] initialValue() {
+                return new Object[defaults.length];
+            }
+        };
+    }
+
+    /**
+     * 查找参数与实例属性一一对应的构造器
+     *
+     * @return 有无参构造器（逐个写入属性）或者没有对应的构造器时返回 null
+     */
+    static ConstructorBinding of(Class<?> objectClass) {
+        if (Modifier.isAbstract(objectClass.getModifiers())) {
+            return null;
+        }
+        try {
+            objectClass.getDeclaredConstructor();
+            return null;
+        } catch (NoSuchMethodException e) {
+            // 没有无参构造器
+        }
+        List<Field> fields = recordComponentFields(objectClass);
+        if (fields == null) {
+            fields = new ArrayList<>();
+            for (Field field : objectClass.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        Class<?>[] types = new Class<?>[fields.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = fields.get(i).getType();
+        }
+        try {
+            Constructor<?> constructor = objectClass.getDeclaredConstructor(types);
+            constructor.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, types.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new ConstructorBinding(fields.toArray(new Field[0]), handle);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            // 没有对应的构造器，或者构造器无法访问
+            return null;
+        }
+    }
+
+    /**
+     * 运行在 Java 16 及以上时，按 record 组件的顺序得到对应的属性，该顺序与规范构造器的参数顺序相同
+     *
+     * @return 不是 record 或运行在 Java 16 之前时返回 null
+     */
+    private static List<Field> recordComponentFields(Class<?> objectClass) {
+        try {
+            Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(objectClass);
+            if (components == null) {
+                return null;
+            }
+            Method getName = components.getClass().getComponentType().getMethod("getName");
+            List<Field> fields = new ArrayList<>(components.length);
+            for (Object component : components) {
+                fields.add(objectClass.getDeclaredField((String) getName.invoke(component)));
+            }
+            return fields;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 属性在构造器参数中的下标
+     *
+     * @return 属性不是构造器的参数时返回 -1
+     */
+    int indexOf(Field field) {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].equals(field)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 当前线程复用的参数数组，已重置为默认值，在下一次调用之前有效
+     */
+    public Object[] arguments() {
+        Object[] values = arguments.get();
+        System.arraycopy(defaults, 0, values, 0, values.length);
+        return values;
+    }
+
+    /**
+     * 调用构造器创建实体，构造器抛出的运行时异常原样抛出，受检异常包装为 IllegalStateException
+     * 解析时由调用方转换为该行的错误，不会中断解析
+     *
+     * @param arguments arguments 返回的参数数组
+     */
+    public Object newInstance(Object[] arguments) {
+        try {
+            return constructor.invokeExact(arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
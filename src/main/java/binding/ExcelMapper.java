@@ -0,0 +1,49 @@
+package binding;
+
+import entity.ErrorCode;
+import reader.ExcelRow;
+
+/**
+ * 编译期由 e2o-processor 为实体类生成的映射器，类名为 实体类名 + ExcelConstant.MAPPER_SUFFIX
+ * 直接创建实体、读写属性，注解在编译期读取，运行时不需要反射；没有生成映射器的实体类使用反射
+ * 生成的映射器同时登记在 META-INF/services/binding.ExcelMapper 中，不能通过类名加载时（如 native-image）通过 ServiceLoader 查找
+ *
+ * @param <O> 实体类型
+ */
+public interface ExcelMapper<O> {
+
+    /**
+     * 映射的实体类
+     */
+    Class<O> getType();
+
+    /**
+     * 打上 @Excel 注解的属性，按声明顺序排列，列名重复的属性只保留后声明的
+     */
+    MappedField[] getFields();
+
+    /**
+     * 通过无参构造器创建实体
+     */
+    O newInstance();
+
+    /**
+     * 校验第 field 个属性对应的单元格，并转换后写入实体，与反射方式的校验和转换完全一致
+     *
+     * @param object 实体
+     * @param field  属性在 getFields 中的下标
+     * @param row    单元格所在的行
+     * @param index  单元格所在列的下标
+     * @param option 属性对应的下拉框，没有下拉框或下拉框不存在时为 null
+     * @return 校验或转换失败时返回错误类型，成功时返回 null
+     */
+    ErrorCode write(O object, int field, ExcelRow row, int index, OptionDictionary option);
+
+    /**
+     * 读取第 field 个属性的值，用于判断唯一键是否重复
+     *
+     * @param object 实体
+     * @param field  属性在 getFields 中的下标
+     */
+    Object read(O object, int field);
+}
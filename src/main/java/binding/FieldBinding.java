@@ -0,0 +1,191 @@
+package binding;
+
+import annotation.Excel;
+import common.ExcelConstant;
+import util.DateParser;
+import util.utils;
+
+import java.lang.reflect.Field;
+import java.util.regex.Pattern;
+
+/**
+ * 打上 @Excel 注解的属性预先解析出来的绑定信息
+ * 注解和正则只在创建时读取、编译一次，转换每个单元格时不再需要反射
+ */
+public final class FieldBinding {
+
+    /**
+     * 反射方式的属性，使用生成的 ExcelMapper 时为 null
+     */
+    private final Field field;
+
+    /**
+     * 属性名
+     */
+    private final String name;
+
+    /**
+     * 生成的映射器，使用反射时为 null
+     */
+    private final ExcelMapper<Object> mapper;
+
+    /**
+     * 属性在映射器中的下标，使用反射时为 -1
+     */
+    private final int mapperIndex;
+
+    /**
+     * 该属性对应的excel的列名
+     */
+    private final String columnName;
+
+    private final boolean notNull;
+
+    /**
+     * 是否是唯一键的一部分
+     */
+    private final boolean key;
+
+    /**
+     * 下拉框的名称，没有下拉框时为 null
+     */
+    private final String optionName;
+
+    /**
+     * 是否将下拉框的 name值转换成value
+     */
+    private final boolean optionSwitch;
+
+    /**
+     * 是否校验下拉框的 value值是否合法
+     */
+    private final boolean optionCheck;
+
+    /**
+     * 编译好的正则，没有 @Pattern 注解时为 null
+     */
+    private final Pattern pattern;
+
+    /**
+     * 属性的写入器，使用生成的 ExcelMapper 时为 null
+     */
+    private final FieldWriter writer;
+
+    FieldBinding(Field field, Excel excel) {
+        this(field, excel, -1);
+    }
+
+    /**
+     * @param argumentIndex 通过构造器创建实体时，属性在构造器参数中的下标；直接写入属性时为 -1
+     */
+    FieldBinding(Field field, Excel excel, int argumentIndex) {
+        this.field = field;
+        this.field.setAccessible(true);
+        this.name = field.getName();
+        this.mapper = null;
+        this.mapperIndex = -1;
+        this.columnName = excel.excelColumnName();
+        this.notNull = excel.notNull();
+        this.key = excel.key();
+        this.optionName = utils.stringIsBlank(excel.optionName()) ? null : excel.optionName();
+        this.optionSwitch = optionName != null && ExcelConstant.SWITCH.equals(excel.optionSchema());
+        this.optionCheck = optionName != null && ExcelConstant.CHECK.equals(excel.optionSchema());
+
+        javax.validation.constraints.Pattern patternAnnotation =
+                field.getAnnotation(javax.validation.constraints.Pattern.class);
+        if (patternAnnotation != null && !utils.stringIsBlank(patternAnnotation.regexp())) {
+            this.pattern = Pattern.compile(patternAnnotation.regexp());
+        } else {
+            this.pattern = null;
+        }
+        DateParser dateParser = DateParser.ofPatterns(excel.dateFormat());
+        this.writer = argumentIndex >= 0
+                ? FieldWriter.ofArgument(field, argumentIndex, dateParser) : FieldWriter.of(field, dateParser);
+    }
+
+    @SuppressWarnings("unchecked")
+    FieldBinding(ExcelMapper<?> mapper, int mapperIndex) {
+        MappedField mappedField = mapper.getFields()[mapperIndex];
+        this.field = null;
+        this.name = mappedField.getName();
+        this.mapper = (ExcelMapper<Object>) mapper;
+        this.mapperIndex = mapperIndex;
+        this.columnName = mappedField.getColumnName();
+        this.notNull = mappedField.isNotNull();
+        this.key = mappedField.isKey();
+        this.optionName = utils.stringIsBlank(mappedField.getOptionName()) ? null : mappedField.getOptionName();
+        this.optionSwitch = optionName != null && ExcelConstant.SWITCH.equals(mappedField.getOptionSchema());
+        this.optionCheck = optionName != null && ExcelConstant.CHECK.equals(mappedField.getOptionSchema());
+        String regexp = mappedField.getRegexp();
+        this.pattern = utils.stringIsBlank(regexp) ? null : Pattern.compile(regexp);
+        this.writer = null;
+    }
+
+    /**
+     * 反射方式的属性，使用生成的 ExcelMapper 时为 null
+     */
+    public Field getField() {
+        return field;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 生成的映射器，使用反射时为 null
+     */
+    public ExcelMapper<Object> getMapper() {
+        return mapper;
+    }
+
+    public int getMapperIndex() {
+        return mapperIndex;
+    }
+
+    /**
+     * 读取实体中该属性的值
+     */
+    public Object getValue(Object object) throws IllegalAccessException {
+        return mapper != null ? mapper.read(object, mapperIndex) : field.get(object);
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public boolean isNotNull() {
+        return notNull;
+    }
+
+    public boolean isKey() {
+        return key;
+    }
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    public boolean isOptionSwitch() {
+        return optionSwitch;
+    }
+
+    public boolean isOptionCheck() {
+        return optionCheck;
+    }
+
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * 校验时是否需要单元格的字符串值
+     */
+    public boolean isTextRequired() {
+        return optionName != null || pattern != null;
+    }
+
+    public FieldWriter getWriter() {
+        return writer;
+    }
+}
@@ -0,0 +1,286 @@
+package binding;
+
+import reader.ExcelRow;
+import util.DateParser;
+import util.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 属性的写入器，在创建时确定属性的类型和转换方式，并生成对应签名的 MethodHandle
+ * 基本类型的属性通过 invokeExact 直接写入，不会装箱；每种类型在 write 中只有一个固定签名的调用点
+ * 数值、布尔、日期单元格可以直接按类型读取，不需要先转换成字符串再解析
+ */
+public final class FieldWriter {
+
+    private static final int STRING = 0;
+    private static final int INT = 1;
+    private static final int INTEGER = 2;
+    private static final int SHORT = 3;
+    private static final int SHORT_OBJECT = 4;
+    private static final int LONG = 5;
+    private static final int LONG_OBJECT = 6;
+    private static final int FLOAT = 7;
+    private static final int FLOAT_OBJECT = 8;
+    private static final int DOUBLE = 9;
+    private static final int DOUBLE_OBJECT = 10;
+    private static final int BOOLEAN = 11;
+    private static final int BOOLEAN_OBJECT = 12;
+    private static final int BIG_DECIMAL = 13;
+    private static final int DATE = 14;
+    private static final int LOCAL_DATE = 15;
+    private static final int LOCAL_DATE_TIME = 16;
+    private static final int INSTANT = 17;
+    private static final int ENUM = 18;
+    /**
+     * 不支持的类型，不做任何处理
+     */
+    private static final int UNSUPPORTED = 19;
+    /**
+     * 无法生成 MethodHandle 的属性，写入时抛出 IllegalAccessException
+     */
+    private static final int INACCESSIBLE = 20;
+
+    private static final Map<Class<?>, Integer> KINDS = new HashMap<>();
+
+    static {
+        KINDS.put(String.class, STRING);
+        KINDS.put(int.class, INT);
+        KINDS.put(Integer.class, INTEGER);
+        KINDS.put(short.class, SHORT);
+        KINDS.put(Short.class, SHORT_OBJECT);
+        KINDS.put(long.class, LONG);
+        KINDS.put(Long.class, LONG_OBJECT);
+        KINDS.put(float.class, FLOAT);
+        KINDS.put(Float.class, FLOAT_OBJECT);
+        KINDS.put(double.class, DOUBLE);
+        KINDS.put(Double.class, DOUBLE_OBJECT);
+        KINDS.put(boolean.class, BOOLEAN);
+        KINDS.put(Boolean.class, BOOLEAN_OBJECT);
+        KINDS.put(BigDecimal.class, BIG_DECIMAL);
+        KINDS.put(Date.class, DATE);
+        KINDS.put(LocalDate.class, LOCAL_DATE);
+        KINDS.put(LocalDateTime.class, LOCAL_DATE_TIME);
+        KINDS.put(Instant.class, INSTANT);
+    }
+
+    private final Field field;
+
+    private final int kind;
+
+    /**
+     * 基本类型为 (Object, 基本类型)void，其他类型为 (Object, Object)void
+     */
+    private final MethodHandle setter;
+
+    /**
+     * 枚举类型的属性，枚举名称 与 枚举值 的映射map
+     */
+    private final Map<String, Object> enumConstants;
+
+    /**
+     * 日期类型的属性解析字符串时使用的解析器
+     */
+    private final DateParser dateParser;
+
+    private FieldWriter(Field field, int kind, MethodHandle setter, Map<String, Object> enumConstants,
+                        DateParser dateParser) {
+        this.field = field;
+        this.kind = kind;
+        this.setter = setter;
+        this.enumConstants = enumConstants;
+        this.dateParser = dateParser;
+    }
+
+    /**
+     * 为属性创建写入器，属性需要已经调用过 setAccessible(true)
+     *
+     * @param field      属性
+     * @param dateParser 日期类型的属性解析字符串时使用的解析器
+     */
+    static FieldWriter of(Field field, DateParser dateParser) {
+        return create(field, -1, dateParser);
+    }
+
+    /**
+     * 为通过构造器创建的实体的属性创建写入器，值写入参数数组的第 argumentIndex 个位置，不写入属性
+     * write 时 object 为 ConstructorBinding.arguments 返回的参数数组
+     *
+     * @param field         属性
+     * @param argumentIndex 属性在构造器参数中的下标
+     * @param dateParser    日期类型的属性解析字符串时使用的解析器
+     */
+    static FieldWriter ofArgument(Field field, int argumentIndex, DateParser dateParser) {
+        return create(field, argumentIndex, dateParser);
+    }
+
+    /**
+     * @param argumentIndex 属性在构造器参数中的下标，直接写入属性时为 -1
+     */
+    private static FieldWriter create(Field field, int argumentIndex, DateParser dateParser) {
+        Class<?> type = field.getType();
+        Integer kind = KINDS.get(type);
+        Map<String, Object> enumConstants = null;
+        if (kind == null && type.isEnum()) {
+            kind = ENUM;
+            enumConstants = new HashMap<>();
+            for (Object constant : type.getEnumConstants()) {
+                enumConstants.put(((Enum<?>) constant).name(), constant);
+            }
+        }
+        if (kind == null) {
+            return new FieldWriter(field, UNSUPPORTED, null, null, dateParser);
+        }
+
+        MethodHandle setter;
+        if (argumentIndex >= 0) {
+            setter = MethodHandles.insertArguments(MethodHandles.arrayElementSetter(Object[].class), 1, argumentIndex);
+        } else {
+            try {
+                setter = MethodHandles.lookup().unreflectSetter(field);
+            } catch (IllegalAccessException e) {
+                return new FieldWriter(field, INACCESSIBLE, null, null, dateParser);
+            }
+        }
+        Class<?> valueType = type.isPrimitive() ? type : Object.class;
+        setter = setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+        return new FieldWriter(field, kind, setter, enumConstants, dateParser);
+    }
+
+    /**
+     * 能否不经过字符串，直接按单元格的类型读取属性的值
+     * 数值型属性对应非日期的数值单元格，布尔型属性对应布尔单元格，日期型属性对应日期格式的数值单元格
+     *
+     * @param row   单元格所在的行
+     * @param index 单元格所在列的下标
+     * @return
+     */
+    public boolean canDecode(ExcelRow row, int index) {
+        switch (kind) {
+            case INT:
+            case INTEGER:
+            case SHORT:
+            case SHORT_OBJECT:
+            case LONG:
+            case LONG_OBJECT:
+            case FLOAT:
+            case FLOAT_OBJECT:
+            case DOUBLE:
+            case DOUBLE_OBJECT:
+            case BIG_DECIMAL:
+                return MapperSupport.isNumber(row, index);
+            case BOOLEAN:
+            case BOOLEAN_OBJECT:
+                return MapperSupport.isBoolean(row, index);
+            case DATE:
+            case LOCAL_DATE:
+            case LOCAL_DATE_TIME:
+            case INSTANT:
+                return MapperSupport.isDate(row, index);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 将单元格的值转换成属性的类型，并写入实体
+     *
+     * @param object 实体
+     * @param value  单元格的值，为 null 时直接按单元格的类型读取，见 canDecode
+     * @param row    单元格所在的行
+     * @param index  单元格所在列的下标
+     * @throws IllegalAccessException   属性无法写入
+     * @throws IllegalArgumentException 单元格的值无法转换成属性的类型
+     */
+    public void write(Object object, String value, ExcelRow row, int index) throws IllegalAccessException {
+        try {
+            switch (kind) {
+                case STRING:
+                    setter.invokeExact(object, (Object) value);
+                    return;
+                case INT:
+                    setter.invokeExact(object, MapperSupport.toInt(value, row, index));
+                    return;
+                case INTEGER:
+                    setter.invokeExact(object, (Object) MapperSupport.toInteger(value, row, index));
+                    return;
+                case SHORT:
+                    setter.invokeExact(object, MapperSupport.toShort(value, row, index));
+                    return;
+                case SHORT_OBJECT:
+                    setter.invokeExact(object, (Object) MapperSupport.toShortObject(value, row, index));
+                    return;
+                case LONG:
+                    setter.invokeExact(object, MapperSupport.toLong(value, row, index));
+                    return;
+                case LONG_OBJECT:
+                    setter.invokeExact(object, (Object) MapperSupport.toLongObject(value, row, index));
+                    return;
+                case FLOAT:
+                    setter.invokeExact(object, MapperSupport.toFloat(value, row, index));
+                    return;
+                case FLOAT_OBJECT:
+                    setter.invokeExact(object, (Object) MapperSupport.toFloatObject(value, row, index));
+                    return;
+                case DOUBLE:
+                    setter.invokeExact(object, MapperSupport.toDouble(value, row, index));
+                    return;
+                case DOUBLE_OBJECT:
+                    setter.invokeExact(object, (Object) MapperSupport.toDoubleObject(value, row, index));
+                    return;
+                case BOOLEAN:
+                    setter.invokeExact(object, MapperSupport.toBoolean(value, row, index));
+                    return;
+                case BOOLEAN_OBJECT:
+                    setter.invokeExact(object, (Object) MapperSupport.toBooleanObject(value, row, index));
+                    return;
+                case BIG_DECIMAL:
+                    setter.invokeExact(object, (Object) MapperSupport.toBigDecimal(value, row, index));
+                    return;
+                case DATE:
+                    setter.invokeExact(object, (Object) MapperSupport.toDate(value, row, index, dateParser));
+                    return;
+                case LOCAL_DATE:
+                    setter.invokeExact(object, (Object) MapperSupport.toLocalDate(value, row, index, dateParser));
+                    return;
+                case LOCAL_DATE_TIME:
+                    setter.invokeExact(object, (Object) MapperSupport.toLocalDateTime(value, row, index, dateParser));
+                    return;
+                case INSTANT:
+                    setter.invokeExact(object, (Object) MapperSupport.toInstant(value, row, index, dateParser));
+                    return;
+                case ENUM:
+                    setter.invokeExact(object, parseEnum(value));
+                    return;
+                case INACCESSIBLE:
+                    throw new IllegalAccessException("无法写入属性 " + field);
+                default:
+            }
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Object parseEnum(String value) {
+        if (utils.stringIsBlank(value)) {
+            return null;
+        }
+        Object constant = enumConstants.get(value);
+        if (constant == null) {
+            throw new IllegalArgumentException(value);
+        }
+        return constant;
+    }
+}
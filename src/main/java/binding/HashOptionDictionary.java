@@ -0,0 +1,55 @@
+package binding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 项数较少的下拉框，name 到 value 和 value 到 name 的两个 HashMap
+ */
+final class HashOptionDictionary extends OptionDictionary {
+
+    private final Map<String, String> values;
+
+    /**
+     * value 与 第一个对应的 name 的映射map
+     */
+    private final Map<String, String> names;
+
+    HashOptionDictionary(Map<String, String> option) {
+        this.values = new HashMap<>(option.size() * 4 / 3 + 1);
+        this.names = new HashMap<>(option.size() * 4 / 3 + 1);
+        for (Map.Entry<String, String> entry : option.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                values.put(entry.getKey(), entry.getValue());
+                names.putIfAbsent(entry.getValue(), entry.getKey());
+            }
+        }
+    }
+
+    @Override
+    public String getValue(String name) {
+        return name == null ? null : values.get(name);
+    }
+
+    @Override
+    public boolean containsValue(String value) {
+        return value != null && names.containsKey(value);
+    }
+
+    @Override
+    public String getName(String value) {
+        return value == null ? null : names.get(value);
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    List<String> nameList() {
+        return new ArrayList<>(values.keySet());
+    }
+}
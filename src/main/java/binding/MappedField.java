@@ -0,0 +1,69 @@
+package binding;
+
+/**
+ * 生成的 ExcelMapper 中一个属性的注解信息，与 @Excel 和 @Pattern 的取值一致
+ */
+public final class MappedField {
+
+    /**
+     * 属性名
+     */
+    private final String name;
+
+    private final String columnName;
+
+    private final boolean notNull;
+
+    private final boolean key;
+
+    /**
+     * 下拉框的名称，没有下拉框时为空字符串
+     */
+    private final String optionName;
+
+    private final String optionSchema;
+
+    /**
+     * @Pattern 的正则，没有 @Pattern 注解时为 null
+     */
+    private final String regexp;
+
+    public MappedField(String name, String columnName, boolean notNull, boolean key, String optionName,
+                       String optionSchema, String regexp) {
+        this.name = name;
+        this.columnName = columnName;
+        this.notNull = notNull;
+        this.key = key;
+        this.optionName = optionName;
+        this.optionSchema = optionSchema;
+        this.regexp = regexp;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public boolean isNotNull() {
+        return notNull;
+    }
+
+    public boolean isKey() {
+        return key;
+    }
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    public String getOptionSchema() {
+        return optionSchema;
+    }
+
+    public String getRegexp() {
+        return regexp;
+    }
+}
@@ -0,0 +1,190 @@
+package binding;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import reader.ExcelRow;
+import util.DateParser;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.regex.Pattern;
+
+/**
+ * 单元格的读取和类型转换，FieldWriter 和编译期生成的 ExcelMapper 共用，两种方式的转换结果完全一致
+ * toXxx 方法的 value 为 null 时直接按单元格的类型读取，否则解析字符串；无法转换时抛出 IllegalArgumentException
+ */
+public final class MapperSupport {
+
+    private static final Pattern SPECIAL_CHARACTER = Pattern.compile("\\f|\\n|\\r|\\t|\\v");
+
+    private MapperSupport() {
+    }
+
+    /**
+     * 去除空格、特殊符号等
+     *
+     * @return text 为 null 时返回 null
+     */
+    public static String trim(String text) {
+        if (text == null) {
+            return null;
+        }
+        return SPECIAL_CHARACTER.matcher(text).replaceAll("").trim();
+    }
+
+    /**
+     * 单元格的值转成的字符串，并去除空格和特殊符号
+     */
+    public static String text(ExcelRow row, int index) {
+        return trim(row.getCellValue(index));
+    }
+
+    /**
+     * 是否是非日期格式的数值单元格，数值型属性可以直接读取
+     */
+    public static boolean isNumber(ExcelRow row, int index) {
+        return row.getCellType(index) == CellType.NUMERIC && !row.isCellDateFormatted(index);
+    }
+
+    /**
+     * 是否是布尔单元格，布尔型属性可以直接读取
+     */
+    public static boolean isBoolean(ExcelRow row, int index) {
+        return row.getCellType(index) == CellType.BOOLEAN;
+    }
+
+    /**
+     * 是否是日期格式的数值单元格，日期型属性可以直接读取
+     */
+    public static boolean isDate(ExcelRow row, int index) {
+        return row.isCellDateFormatted(index);
+    }
+
+    public static int toInt(String value, ExcelRow row, int index) {
+        if (value != null) {
+            return Integer.parseInt(value);
+        }
+        double number = row.getNumericCellValue(index);
+        int result = (int) number;
+        if (result != number) {
+            throw new NumberFormatException(String.valueOf(number));
+        }
+        return result;
+    }
+
+    public static Integer toInteger(String value, ExcelRow row, int index) {
+        return value != null ? Integer.valueOf(value) : Integer.valueOf(toInt(null, row, index));
+    }
+
+    public static short toShort(String value, ExcelRow row, int index) {
+        if (value != null) {
+            return Short.parseShort(value);
+        }
+        double number = row.getNumericCellValue(index);
+        short result = (short) number;
+        if (result != number) {
+            throw new NumberFormatException(String.valueOf(number));
+        }
+        return result;
+    }
+
+    public static Short toShortObject(String value, ExcelRow row, int index) {
+        return value != null ? Short.valueOf(value) : Short.valueOf(toShort(null, row, index));
+    }
+
+    public static long toLong(String value, ExcelRow row, int index) {
+        if (value != null) {
+            return Long.parseLong(value);
+        }
+        double number = row.getNumericCellValue(index);
+        long result = (long) number;
+        if (result != number) {
+            throw new NumberFormatException(String.valueOf(number));
+        }
+        return result;
+    }
+
+    public static Long toLongObject(String value, ExcelRow row, int index) {
+        return value != null ? Long.valueOf(value) : Long.valueOf(toLong(null, row, index));
+    }
+
+    public static float toFloat(String value, ExcelRow row, int index) {
+        return value != null ? Float.parseFloat(value) : (float) row.getNumericCellValue(index);
+    }
+
+    public static Float toFloatObject(String value, ExcelRow row, int index) {
+        return toFloat(value, row, index);
+    }
+
+    public static double toDouble(String value, ExcelRow row, int index) {
+        return value != null ? Double.parseDouble(value) : row.getNumericCellValue(index);
+    }
+
+    public static Double toDoubleObject(String value, ExcelRow row, int index) {
+        return toDouble(value, row, index);
+    }
+
+    /**
+     * 字符串支持 true、false、1、0，忽略大小写
+     */
+    public static boolean toBoolean(String value, ExcelRow row, int index) {
+        if (value == null) {
+            return row.getBooleanCellValue(index);
+        }
+        if ("true".equalsIgnoreCase(value) || "1".equals(value)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(value) || "0".equals(value)) {
+            return false;
+        }
+        throw new IllegalArgumentException(value);
+    }
+
+    public static Boolean toBooleanObject(String value, ExcelRow row, int index) {
+        return toBoolean(value, row, index);
+    }
+
+    /**
+     * 字符串直接转换，不经过 double；数值单元格按 excel 中显示的15位有效数字转换
+     */
+    public static BigDecimal toBigDecimal(String value, ExcelRow row, int index) {
+        if (value != null) {
+            return new BigDecimal(value);
+        }
+        return new BigDecimal(NumberToTextConverter.toText(row.getNumericCellValue(index)));
+    }
+
+    /**
+     * 字符串无法按 dateParser 解析时，直接读取单元格中的日期
+     */
+    public static Date toDate(String value, ExcelRow row, int index, DateParser dateParser) {
+        Date date = value == null ? null : dateParser.parseDate(value);
+        if (date == null) {
+            // 如果Date为空则直接读取单元格中的日期
+            date = row.getDateCellValue(index);
+        }
+        return date;
+    }
+
+    public static LocalDateTime toLocalDateTime(String value, ExcelRow row, int index, DateParser dateParser) {
+        LocalDateTime localDateTime = value == null ? null : dateParser.parse(value);
+        if (localDateTime != null) {
+            return localDateTime;
+        }
+        // 如果Date为空则直接读取单元格中的日期
+        return row.getLocalDateTimeCellValue(index);
+    }
+
+    public static LocalDate toLocalDate(String value, ExcelRow row, int index, DateParser dateParser) {
+        LocalDateTime localDateTime = toLocalDateTime(value, row, index, dateParser);
+        return localDateTime == null ? null : localDateTime.toLocalDate();
+    }
+
+    public static Instant toInstant(String value, ExcelRow row, int index, DateParser dateParser) {
+        Date date = toDate(value, row, index, dateParser);
+        return date == null ? null : date.toInstant();
+    }
+}
@@ -0,0 +1,144 @@
+package binding;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 建立了索引的下拉框，name 转换成 value、value 转换成 name 和校验 value 是否合法都是常数时间
+ * 在设置下拉框时创建一次，之后只读，可以在多个线程之间共享；name 或 value 为 null 的项会被忽略
+ */
+public abstract class OptionDictionary {
+
+    /**
+     * 项数达到该值时使用紧凑的开放寻址表，避免 HashMap 和 HashSet 的节点对象占用过多内存
+     */
+    static final int COMPACT_THRESHOLD = 4096;
+
+    /**
+     * 下拉框内容的 SHA-256，与项的顺序和所在的进程无关，只在使用结果缓存时才需要，第一次获取时计算
+     */
+    private volatile byte[] digest;
+
+    /**
+     * 根据 name 获取 value
+     *
+     * @param name 下拉框的 name
+     * @return name 不存在时返回 null
+     */
+    public abstract String getValue(String name);
+
+    /**
+     * 校验 value 是否合法
+     *
+     * @param value 下拉框的 value
+     * @return
+     */
+    public abstract boolean containsValue(String value);
+
+    /**
+     * 根据 value 获取 name，用于导出时将 value 转换回 name
+     *
+     * @param value 下拉框的 value
+     * @return value 不存在时返回 null，多个 name 对应同一个 value 时返回下拉框中的第一个
+     */
+    public abstract String getName(String value);
+
+    /**
+     * 下拉框的项数
+     */
+    public abstract int size();
+
+    /**
+     * 下拉框中所有的 name，顺序不限
+     */
+    abstract List<String> nameList();
+
+    /**
+     * 下拉框内容的 SHA-256，name 和 value 都相同的下拉框相同，在不同的进程中也相同
+     */
+    public byte[] getDigest() {
+        byte[] result = digest;
+        if (result == null) {
+            // 多个线程同时计算时结果相同，不需要加锁
+            result = computeDigest();
+            digest = result;
+        }
+        return result.clone();
+    }
+
+    /**
+     * 为下拉框建立索引，项数较多时使用紧凑的表示
+     *
+     * @param option 下拉框的 name 与 value 的映射map
+     * @return option 为 null 时返回 null
+     */
+    public static OptionDictionary of(Map<String, String> option) {
+        if (option == null) {
+            return null;
+        }
+        if (option.size() >= COMPACT_THRESHOLD) {
+            return new CompactOptionDictionary(option);
+        }
+        return new HashOptionDictionary(option);
+    }
+
+    /**
+     * 为所有的下拉框建立索引
+     *
+     * @param optionMap 下拉框名称 与 下拉框 的映射map
+     * @return 下拉框名称 与 建立了索引的下拉框 的映射map，optionMap 为 null 时返回空map
+     */
+    public static Map<String, OptionDictionary> indexAll(Map<String, Map<String, String>> optionMap) {
+        if (optionMap == null || optionMap.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, OptionDictionary> dictionaryMap = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> entry : optionMap.entrySet()) {
+            OptionDictionary dictionary = of(entry.getValue());
+            if (dictionary != null) {
+                dictionaryMap.put(entry.getKey(), dictionary);
+            }
+        }
+        return Collections.unmodifiableMap(dictionaryMap);
+    }
+
+    /**
+     * 按 name 排序后依次计算每一项的 name 和 value
+     */
+    private byte[] computeDigest() {
+        List<String> names = nameList();
+        Collections.sort(names);
+        MessageDigest messageDigest = newSha256();
+        for (String name : names) {
+            update(messageDigest, name);
+            update(messageDigest, getValue(name));
+        }
+        return messageDigest.digest();
+    }
+
+    /**
+     * 写入字符串的长度和内容，不同的项不会拼接出相同的输入
+     */
+    private static void update(MessageDigest digest, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // 所有的 Java 平台都必须支持 SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
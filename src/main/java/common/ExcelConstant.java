@@ -14,4 +14,14 @@ public class ExcelConstant {
      * 解析过程中，会校验value值在下拉框的下拉列表中是否存在
      */
     public static final String CHECK = "check";
+
+    /**
+     * 记录 JFR 事件的监听器，通过反射创建，避免在不支持 JFR 的运行环境中加载
+     */
+    public static final String JFR_LISTENER_CLASS = "jfr.JfrImportListener";
+
+    /**
+     * 编译期生成的 ExcelMapper 的类名后缀，与实体类在同一个包中，如 User_ExcelMapper
+     */
+    public static final String MAPPER_SUFFIX = "_ExcelMapper";
 }
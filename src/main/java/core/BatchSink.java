@@ -0,0 +1,26 @@
+package core;
+
+import entity.ResultObject;
+import entity.SinkError;
+
+import java.util.List;
+
+/**
+ * 接收转换成功的对象并批量写入，如写入数据库
+ * 通过 ExcelToObject.importToSink 使用，write 在单独的写入线程中按行号顺序调用，同一时刻只有一个批次在写入
+ *
+ * @param <O> 实体类型
+ */
+@FunctionalInterface
+public interface BatchSink<O> {
+
+    /**
+     * 写入一批对象，批次的大小见 ImportOptions.sinkBatchSize，最后一批可能不足
+     * 调用返回后 batch 不会再被使用
+     *
+     * @param batch 转换成功且唯一键不重复的对象
+     * @return 写入失败的行，全部成功时返回空列表；抛出异常时整批都认为写入失败
+     * @throws Exception
+     */
+    List<SinkError> write(List<ResultObject<O>> batch) throws Exception;
+}
@@ -0,0 +1,138 @@
+package core;
+
+import binding.BindingPlan;
+import binding.ClassBinding;
+import binding.FieldBinding;
+import util.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 按唯一键判断数据行是否重复，在读取的同时按行号顺序调用，只保存唯一键的摘要，不保存整行数据
+ * 默认只保存唯一键的64位哈希值，千万行时误判为重复的概率约为百万分之三；exactKeys 时保存唯一键本身，没有误判
+ */
+final class DuplicateDetector {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * 空值和分隔符的标记，超出 char 的范围，不会与任何字符冲突
+     */
+    private static final int NULL_MARK = 0x10000;
+
+    private static final int SEPARATOR = 0x10001;
+
+    /**
+     * 唯一键对应的属性
+     */
+    private final FieldBinding[] keyFields;
+
+    /**
+     * 唯一键的哈希值，exactKeys 时为 null
+     */
+    private final LongHashSet hashSet;
+
+    /**
+     * 唯一键本身，不是 exactKeys 时为 null
+     */
+    private final Set<List<Object>> keySet;
+
+    private DuplicateDetector(FieldBinding[] keyFields, boolean exactKeys) {
+        this.keyFields = keyFields;
+        this.hashSet = exactKeys ? null : new LongHashSet();
+        this.keySet = exactKeys ? new HashSet<List<Object>>() : null;
+    }
+
+    /**
+     * 唯一键的所有列是否都在绑定计划中，解析选项中的列名优先于 @Excel 注解
+     * 有列不在绑定计划中时不能只按其余的列判断重复，解析应当失败
+     */
+    static boolean hasAllKeyColumns(ClassBinding classBinding, BindingPlan bindingPlan,
+                                    ImportOptions importOptions) {
+        Set<String> keyColumns = new HashSet<>(importOptions.getKeyColumns());
+        if (keyColumns.isEmpty()) {
+            for (int i = 0; i < classBinding.size(); i++) {
+                FieldBinding fieldBinding = classBinding.getField(i);
+                if (fieldBinding.isKey()) {
+                    keyColumns.add(fieldBinding.getColumnName());
+                }
+            }
+        }
+        for (int i = 0; i < bindingPlan.size() && !keyColumns.isEmpty(); i++) {
+            keyColumns.remove(bindingPlan.getField(i).getColumnName());
+        }
+        return keyColumns.isEmpty();
+    }
+
+    /**
+     * 根据解析的选项或 @Excel 注解确定唯一键，唯一键的列需要已经通过 hasAllKeyColumns 检查
+     *
+     * @return 没有唯一键时返回 null
+     */
+    static DuplicateDetector create(BindingPlan bindingPlan, ImportOptions importOptions) {
+        Set<String> keyColumns = importOptions.getKeyColumns();
+        List<FieldBinding> keyFields = new ArrayList<>();
+        for (int i = 0; i < bindingPlan.size(); i++) {
+            FieldBinding fieldBinding = bindingPlan.getField(i);
+            boolean key = keyColumns.isEmpty() ? fieldBinding.isKey() : keyColumns.contains(fieldBinding.getColumnName());
+            if (key) {
+                keyFields.add(fieldBinding);
+            }
+        }
+        if (keyFields.isEmpty()) {
+            return null;
+        }
+        return new DuplicateDetector(keyFields.toArray(new FieldBinding[0]), importOptions.isExactKeys());
+    }
+
+    /**
+     * 判断对象的唯一键是否已经出现过，没有出现过时记录下来
+     *
+     * @param object 转换成功的对象
+     */
+    boolean isDuplicate(Object object) {
+        Object[] values = new Object[keyFields.length];
+        try {
+            for (int i = 0; i < keyFields.length; i++) {
+                values[i] = keyFields[i].getValue(object);
+            }
+        } catch (IllegalAccessException e) {
+            // 属性在创建 FieldBinding 时已经设置为可访问
+            throw new IllegalStateException(e);
+        }
+        if (keySet != null) {
+            return !keySet.add(Arrays.asList(values));
+        }
+        return !hashSet.add(hash(values));
+    }
+
+    /**
+     * 唯一键的64位哈希值，按 toString 的结果逐个字符计算 FNV-1a，再打散各个位
+     */
+    private static long hash(Object[] values) {
+        long h = FNV_OFFSET;
+        for (Object value : values) {
+            if (value == null) {
+                h = (h ^ NULL_MARK) * FNV_PRIME;
+            } else {
+                String text = value.toString();
+                for (int i = 0; i < text.length(); i++) {
+                    h = (h ^ text.charAt(i)) * FNV_PRIME;
+                }
+            }
+            h = (h ^ SEPARATOR) * FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,44 @@
+package core;
+
+import entity.ResultObject;
+import entity.StopReason;
+
+/**
+ * 按 ErrorPolicy 统计一次解析中的错误，判断是否需要停止，只在合并结果的线程中使用
+ */
+final class ErrorBudget {
+
+    private final ErrorPolicy errorPolicy;
+
+    private long rowCount;
+
+    private long errorRowCount;
+
+    private long errorCount;
+
+    ErrorBudget(ErrorPolicy errorPolicy) {
+        this.errorPolicy = errorPolicy;
+    }
+
+    /**
+     * 记录一行的转换结果
+     *
+     * @return 需要停止时返回停止的原因，否则返回 null
+     */
+    StopReason record(ResultObject<?> resultObject) {
+        rowCount++;
+        if (resultObject.isSuccess()) {
+            return null;
+        }
+        errorRowCount++;
+        errorCount += resultObject.getErrorList().size();
+        if (errorPolicy.getMaxErrors() > 0 && errorCount >= errorPolicy.getMaxErrors()) {
+            return StopReason.ERROR_LIMIT;
+        }
+        int sampleRows = errorPolicy.getSampleRows();
+        if (sampleRows > 0 && rowCount <= sampleRows && errorRowCount > errorPolicy.getMaxErrorRate() * sampleRows) {
+            return StopReason.ERROR_RATE;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,120 @@
+package core;
+
+/**
+ * 解析过程中遇到错误时的处理方式，创建后不可变
+ * 默认收集所有错误；达到上限时立即停止读取文件，已经解析的结果和停止的原因保存在 ExcelToObjectResult 中
+ */
+public final class ErrorPolicy {
+
+    private static final ErrorPolicy COLLECT_ALL = new ErrorPolicy(0, 0, 0, false);
+
+    /**
+     * 错误数的上限，为0时不限制
+     */
+    private final int maxErrors;
+
+    /**
+     * 前 sampleRows 行中失败行所占比例的上限
+     */
+    private final double maxErrorRate;
+
+    /**
+     * 计算失败行比例的行数，为0时不限制比例
+     */
+    private final int sampleRows;
+
+    /**
+     * 每行只记录第一个错误，出现错误后不再转换该行剩余的列
+     */
+    private final boolean firstErrorPerRow;
+
+    private ErrorPolicy(int maxErrors, double maxErrorRate, int sampleRows, boolean firstErrorPerRow) {
+        this.maxErrors = maxErrors;
+        this.maxErrorRate = maxErrorRate;
+        this.sampleRows = sampleRows;
+        this.firstErrorPerRow = firstErrorPerRow;
+    }
+
+    /**
+     * 收集所有错误，不会提前停止
+     */
+    public static ErrorPolicy collectAll() {
+        return COLLECT_ALL;
+    }
+
+    /**
+     * 出现第一个错误时停止
+     */
+    public static ErrorPolicy failFast() {
+        return COLLECT_ALL.withMaxErrors(1);
+    }
+
+    /**
+     * 错误数达到 maxErrors 时停止，达到上限的那一行的错误全部保留
+     */
+    public static ErrorPolicy maxErrors(int maxErrors) {
+        return COLLECT_ALL.withMaxErrors(maxErrors);
+    }
+
+    /**
+     * 前 sampleRows 行中失败的行超过 maxErrorRate 时停止，超过的那一行就会停止，不等待读完 sampleRows 行
+     */
+    public static ErrorPolicy maxErrorRate(double maxErrorRate, int sampleRows) {
+        return COLLECT_ALL.withMaxErrorRate(maxErrorRate, sampleRows);
+    }
+
+    /**
+     * 每行只记录第一个错误
+     */
+    public static ErrorPolicy firstErrorPerRow() {
+        return COLLECT_ALL.withFirstErrorPerRow();
+    }
+
+    /**
+     * @param maxErrors 错误数的上限，大于0
+     */
+    public ErrorPolicy withMaxErrors(int maxErrors) {
+        if (maxErrors <= 0) {
+            throw new IllegalArgumentException("maxErrors 必须大于0");
+        }
+        return new ErrorPolicy(maxErrors, maxErrorRate, sampleRows, firstErrorPerRow);
+    }
+
+    /**
+     * @param maxErrorRate 失败行所占比例的上限，0到1之间
+     * @param sampleRows   计算比例的行数，大于0
+     */
+    public ErrorPolicy withMaxErrorRate(double maxErrorRate, int sampleRows) {
+        if (maxErrorRate < 0 || maxErrorRate > 1 || sampleRows <= 0) {
+            throw new IllegalArgumentException("maxErrorRate 必须在0到1之间，sampleRows 必须大于0");
+        }
+        return new ErrorPolicy(maxErrors, maxErrorRate, sampleRows, firstErrorPerRow);
+    }
+
+    public ErrorPolicy withFirstErrorPerRow() {
+        return new ErrorPolicy(maxErrors, maxErrorRate, sampleRows, true);
+    }
+
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    public double getMaxErrorRate() {
+        return maxErrorRate;
+    }
+
+    public int getSampleRows() {
+        return sampleRows;
+    }
+
+    public boolean isFirstErrorPerRow() {
+        return firstErrorPerRow;
+    }
+
+    /**
+     * 是否可能提前停止
+     */
+    boolean canStop() {
+        return maxErrors > 0 || sampleRows > 0;
+    }
+}
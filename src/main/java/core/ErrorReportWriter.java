@@ -0,0 +1,225 @@
+package core;
+
+import entity.ExcelToObjectError;
+import entity.PackedErrorList;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import reader.ExcelRow;
+import util.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 与解析同时写入的错误报告，只包含列名所在的行和转换失败的行，不需要再次读取原文件
+ * 单元格保持原来的列位置和类型，出错的单元格标为红色背景；在最后一列之后加上原文件中的行号和该行所有的错误信息
+ * xlsx 通过 SXSSFWorkbook 写入，内存中只保留最近的若干行；失败的行超过格式的上限时写入下一个 sheet
+ */
+final class ErrorReportWriter implements Closeable {
+
+    private static final String ROW_NUM_COLUMN = "行号";
+
+    private static final String ERROR_COLUMN = "错误信息";
+
+    private static final String DATE_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+    private final Workbook workbook;
+
+    private final int maxRows;
+
+    /**
+     * 列名所在行中的列名，下标为列下标，没有列名的位置为 null
+     */
+    private final String[] columnNames;
+
+    /**
+     * 出错的单元格的样式，日期单元格的样式，出错的日期单元格的样式，第一次使用时创建
+     */
+    private CellStyle errorStyle;
+
+    private CellStyle dateStyle;
+
+    private CellStyle errorDateStyle;
+
+    /**
+     * 当前行中出错的列下标，每行复用
+     */
+    private final BitSet errorColumns = new BitSet();
+
+    private final StringBuilder message = new StringBuilder();
+
+    private Sheet sheet;
+
+    private int rowNum;
+
+    private int rowCount;
+
+    /**
+     * @param format            错误报告的格式
+     * @param columnAndIndexMap 列名所在行中所有的列名 与 列下标 的映射map
+     */
+    ErrorReportWriter(ExcelFormat format, Map<String, Integer> columnAndIndexMap) {
+        this.workbook = format == ExcelFormat.XLSX ? new SXSSFWorkbook(null, SXSSFWorkbook.DEFAULT_WINDOW_SIZE,
+                false, false) : new HSSFWorkbook();
+        this.maxRows = format.getMaxRows();
+        int width = 0;
+        for (int index : columnAndIndexMap.values()) {
+            width = Math.max(width, index + 1);
+        }
+        this.columnNames = new String[width];
+        for (Map.Entry<String, Integer> entry : columnAndIndexMap.entrySet()) {
+            columnNames[entry.getValue()] = entry.getKey();
+        }
+    }
+
+    /**
+     * 写入一个转换失败的行，需要在读取下一行之前调用
+     *
+     * @param row       数据行
+     * @param errorList 该行的错误
+     */
+    void addRow(ExcelRow row, List<ExcelToObjectError> errorList) {
+        if (sheet == null || rowNum >= maxRows) {
+            newSheet();
+        }
+        errorColumns.clear();
+        message.setLength(0);
+        PackedErrorList packed = errorList instanceof PackedErrorList ? (PackedErrorList) errorList : null;
+        for (int i = 0; i < errorList.size(); i++) {
+            // 压缩的错误列表不创建错误对象
+            String column = packed != null ? packed.getColumn(i) : errorList.get(i).getColumn();
+            String msg = packed != null ? packed.getMsg(i) : errorList.get(i).getMsg();
+            int index = utils.alphabetToInt(column) - 1;
+            if (index >= 0) {
+                errorColumns.set(index);
+            }
+            if (message.length() > 0) {
+                message.append('；');
+            }
+            if (column != null) {
+                message.append(column).append('：');
+            }
+            message.append(msg);
+        }
+
+        Row reportRow = sheet.createRow(rowNum++);
+        for (int i = 0; i < columnNames.length; i++) {
+            copyCell(row, i, reportRow, errorColumns.get(i));
+        }
+        reportRow.createCell(columnNames.length).setCellValue(row.getRowNum() + 1);
+        reportRow.createCell(columnNames.length + 1).setCellValue(message.toString());
+        rowCount++;
+    }
+
+    /**
+     * 写入的失败行数
+     */
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 将错误报告写入文件流，没有失败的行时只包含列名所在的行
+     */
+    void write(OutputStream outputStream) throws IOException {
+        if (sheet == null) {
+            newSheet();
+        }
+        workbook.write(outputStream);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (workbook instanceof SXSSFWorkbook) {
+            // 删除临时文件
+            ((SXSSFWorkbook) workbook).dispose();
+        }
+        workbook.close();
+    }
+
+    /**
+     * 创建下一个 sheet，并写入列名
+     */
+    private void newSheet() {
+        sheet = workbook.createSheet("Sheet" + (workbook.getNumberOfSheets() + 1));
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i] != null) {
+                header.createCell(i).setCellValue(columnNames[i]);
+            }
+        }
+        header.createCell(columnNames.length).setCellValue(ROW_NUM_COLUMN);
+        header.createCell(columnNames.length + 1).setCellValue(ERROR_COLUMN);
+        rowNum = 1;
+    }
+
+    /**
+     * 按原来的类型复制单元格，公式复制其缓存的结果；空的单元格只在出错时创建
+     */
+    private void copyCell(ExcelRow row, int index, Row reportRow, boolean error) {
+        CellType cellType = row.getCellType(index);
+        if (cellType == CellType.BLANK) {
+            if (error) {
+                reportRow.createCell(index).setCellStyle(getErrorStyle());
+            }
+            return;
+        }
+        Cell cell = reportRow.createCell(index);
+        if (cellType == CellType.NUMERIC) {
+            cell.setCellValue(row.getNumericCellValue(index));
+            if (row.isCellDateFormatted(index)) {
+                cell.setCellStyle(error ? getErrorDateStyle() : getDateStyle());
+                return;
+            }
+        } else if (cellType == CellType.BOOLEAN) {
+            cell.setCellValue(row.getBooleanCellValue(index));
+        } else {
+            cell.setCellValue(row.getCellValue(index));
+        }
+        if (error) {
+            cell.setCellStyle(getErrorStyle());
+        }
+    }
+
+    private CellStyle getErrorStyle() {
+        if (errorStyle == null) {
+            errorStyle = workbook.createCellStyle();
+            highlight(errorStyle);
+        }
+        return errorStyle;
+    }
+
+    private CellStyle getDateStyle() {
+        if (dateStyle == null) {
+            dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat(DATE_FORMAT));
+        }
+        return dateStyle;
+    }
+
+    private CellStyle getErrorDateStyle() {
+        if (errorDateStyle == null) {
+            errorDateStyle = workbook.createCellStyle();
+            errorDateStyle.setDataFormat(workbook.createDataFormat().getFormat(DATE_FORMAT));
+            highlight(errorDateStyle);
+        }
+        return errorDateStyle;
+    }
+
+    private static void highlight(CellStyle style) {
+        style.setFillForegroundColor(IndexedColors.ROSE.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+    }
+}
@@ -0,0 +1,240 @@
+package core;
+
+import entity.BatchImportInput;
+import entity.BatchImportResult;
+import entity.ExcelToObjectResult;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量导入大量 excel 文件
+ * 每个文件在一个虚拟线程中导入（运行在 Java 21 以下时使用固定大小的线程池），
+ * 同时导入的文件数不超过 maxConcurrency，估算占用的内存之和不超过 memoryBudget
+ */
+public class ExcelBatchImporter implements Closeable {
+
+    /**
+     * 整表加载时占用的内存与文件大小的比例
+     */
+    private static final int MEMORY_PER_FILE_BYTE = 8;
+
+    /**
+     * 文件大小未知时估算的内存
+     */
+    private static final long DEFAULT_MEMORY = 8L * 1024 * 1024;
+
+    /**
+     * 内存许可的单位（字节）
+     */
+    private static final int MEMORY_PERMIT_UNIT = 1024;
+
+    private final ExcelToObject excelToObject;
+
+    private final ExecutorService executor;
+
+    /**
+     * 并发许可，每个文件一个
+     */
+    private final Semaphore concurrencyPermits;
+
+    /**
+     * 内存许可，每个许可代表 MEMORY_PERMIT_UNIT 字节
+     */
+    private final Semaphore memoryPermits;
+
+    private final int maxMemoryPermits;
+
+    /**
+     * @param excelToObject  转换引擎
+     * @param maxConcurrency 同时导入的最大文件数
+     * @param memoryBudget   同时导入的文件估算占用的内存之和的上限（字节）
+     */
+    public ExcelBatchImporter(ExcelToObject excelToObject, int maxConcurrency, long memoryBudget) {
+        if (excelToObject == null || maxConcurrency < 1 || memoryBudget < MEMORY_PERMIT_UNIT) {
+            throw new IllegalArgumentException("excelToObject 不能为空，maxConcurrency 和 memoryBudget 必须大于0");
+        }
+        this.excelToObject = excelToObject;
+        this.executor = newExecutor(maxConcurrency);
+        this.concurrencyPermits = new Semaphore(maxConcurrency, true);
+        this.maxMemoryPermits = (int) Math.min(Integer.MAX_VALUE, memoryBudget / MEMORY_PERMIT_UNIT);
+        this.memoryPermits = new Semaphore(maxMemoryPermits, true);
+    }
+
+    /**
+     * 提交所有文件，每个文件返回一个 CompletableFuture，顺序与 inputs 一致
+     * 导入过程中的异常不会使 CompletableFuture 异常完成，而是保存在 BatchImportResult 中
+     *
+     * @param inputs        要导入的文件
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return
+     */
+    public <O> List<CompletableFuture<BatchImportResult<O>>> submit(Collection<BatchImportInput> inputs,
+                                                                    Class<O> objectClass, int columnNameRow,
+                                                                    int startDataRow) {
+        List<CompletableFuture<BatchImportResult<O>>> futureList = new ArrayList<>(inputs.size());
+        for (BatchImportInput input : inputs) {
+            long submitTime = System.nanoTime();
+            futureList.add(CompletableFuture.supplyAsync(
+                    () -> importFile(input, objectClass, columnNameRow, startDataRow, submitTime), executor));
+        }
+        return futureList;
+    }
+
+    /**
+     * 导入所有文件，全部完成后返回与 inputs 顺序一致的结果列表
+     */
+    public <O> CompletableFuture<List<BatchImportResult<O>>> importAll(Collection<BatchImportInput> inputs,
+                                                                       Class<O> objectClass, int columnNameRow,
+                                                                       int startDataRow) {
+        List<CompletableFuture<BatchImportResult<O>>> futureList = submit(inputs, objectClass, columnNameRow,
+                startDataRow);
+        return CompletableFuture.allOf(futureList.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            List<BatchImportResult<O>> resultList = new ArrayList<>(futureList.size());
+            for (CompletableFuture<BatchImportResult<O>> future : futureList) {
+                resultList.add(future.join());
+            }
+            return resultList;
+        });
+    }
+
+    /**
+     * 导入所有文件，按完成的顺序返回结果，迭代时会阻塞到下一个文件导入完成
+     */
+    public <O> Iterator<BatchImportResult<O>> importInCompletionOrder(Collection<BatchImportInput> inputs,
+                                                                      Class<O> objectClass, int columnNameRow,
+                                                                      int startDataRow) {
+        List<CompletableFuture<BatchImportResult<O>>> futureList = submit(inputs, objectClass, columnNameRow,
+                startDataRow);
+        BlockingQueue<BatchImportResult<O>> completed = new LinkedBlockingQueue<>();
+        Iterator<BatchImportInput> inputIterator = inputs.iterator();
+        for (CompletableFuture<BatchImportResult<O>> future : futureList) {
+            String name = inputIterator.next().getName();
+            future.whenComplete((result, error) ->
+                    completed.add(result != null ? result : new BatchImportResult<>(name, null, error, 0, 0)));
+        }
+        int total = futureList.size();
+        return new Iterator<BatchImportResult<O>>() {
+
+            private int returned;
+
+            @Override
+            public boolean hasNext() {
+                return returned < total;
+            }
+
+            @Override
+            public BatchImportResult<O> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    BatchImportResult<O> result = completed.take();
+                    returned++;
+                    return result;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * 获取许可后导入一个文件
+     *
+     * @param submitTime 提交的时间，等待时间包括在线程池中排队的时间
+     */
+    private <O> BatchImportResult<O> importFile(BatchImportInput input, Class<O> objectClass, int columnNameRow,
+                                                int startDataRow, long submitTime) {
+        int memory = memoryPermits(input.getSize());
+        boolean concurrencyAcquired = false;
+        boolean memoryAcquired = false;
+        long importStart = submitTime;
+        try {
+            concurrencyPermits.acquire();
+            concurrencyAcquired = true;
+            memoryPermits.acquire(memory);
+            memoryAcquired = true;
+
+            importStart = System.nanoTime();
+            ExcelToObjectResult<O> result;
+            if (input.getPath() != null) {
+                result = excelToObject.getExcelToObjectResult(input.getPath(), objectClass, columnNameRow,
+                        startDataRow);
+            } else {
+                try (InputStream inputStream = input.getInputStreamSupplier().call()) {
+                    result = excelToObject.getExcelToObjectResult(inputStream, objectClass, columnNameRow,
+                            startDataRow);
+                }
+            }
+            return new BatchImportResult<>(input.getName(), result, null, importStart - submitTime,
+                    System.nanoTime() - importStart);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new BatchImportResult<>(input.getName(), null, e, System.nanoTime() - submitTime, 0);
+        } catch (Exception e) {
+            return new BatchImportResult<>(input.getName(), null, e, importStart - submitTime,
+                    System.nanoTime() - importStart);
+        } finally {
+            if (memoryAcquired) {
+                memoryPermits.release(memory);
+            }
+            if (concurrencyAcquired) {
+                concurrencyPermits.release();
+            }
+        }
+    }
+
+    /**
+     * 估算导入时占用的内存对应的许可数，超过上限的文件按上限计算，此时该文件独占全部内存许可
+     */
+    private int memoryPermits(long size) {
+        long memory = size < 0 ? DEFAULT_MEMORY : size * MEMORY_PER_FILE_BYTE;
+        long permits = memory / MEMORY_PERMIT_UNIT + 1;
+        return (int) Math.min(permits, maxMemoryPermits);
+    }
+
+    /**
+     * 运行在 Java 21 及以上时，每个文件使用一个虚拟线程，否则使用 maxConcurrency 个守护线程
+     */
+    private static ExecutorService newExecutor(int maxConcurrency) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "e2o-batch-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newFixedThreadPool(maxConcurrency, threadFactory);
+        }
+    }
+
+    /**
+     * 不再接受新的文件，已经提交的文件会继续导入
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,30 @@
+package core;
+
+/**
+ * 导出的 excel 文件格式
+ */
+public enum ExcelFormat {
+
+    /**
+     * excel 97-2003，每个 sheet 最多 65536 行
+     */
+    XLS(65536),
+
+    /**
+     * excel 2007 及以上，每个 sheet 最多 1048576 行
+     */
+    XLSX(1048576);
+
+    private final int maxRows;
+
+    ExcelFormat(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * 每个 sheet 的最大行数，包括列名所在的行
+     */
+    public int getMaxRows() {
+        return maxRows;
+    }
+}
@@ -0,0 +1,372 @@
+package core;
+
+import org.apache.poi.hssf.usermodel.HSSFSheet;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import reader.HSSFEventRowReader;
+import reader.HSSFSheetRowReader;
+import reader.HSSFWorkbookReader;
+import reader.RowReader;
+import reader.WorkbookReader;
+import reader.XSSFStreamingRowReader;
+import reader.XSSFStreamingWorkbookReader;
+import util.CountingInputStream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * 要解析的 excel，可以是文件流、磁盘上的文件或已经打开的文件通道，根据文件头的魔数判断文件格式
+ * 文件流需要先读入内存（xls）或写入临时文件（xlsx）；磁盘上的文件直接以只读方式打开，
+ * xls 通过只读的 POIFSFileSystem 按需将用到的块读入堆中的缓冲区，xlsx 直接作为 zip 文件读取；
+ * POI 只在可写时才使用内存映射，只读打开时不映射文件；文件通道中的 xlsx 需要复制到临时文件
+ */
+abstract class ExcelSource {
+
+    /**
+     * @param countBytes 是否统计读取的字节数
+     */
+    static ExcelSource of(InputStream inputStream, boolean countBytes) {
+        return new StreamSource(countBytes ? new CountingInputStream(inputStream) : inputStream);
+    }
+
+    static ExcelSource of(Path path) {
+        return new FileSource(path);
+    }
+
+    static ExcelSource of(FileChannel channel) {
+        return new ChannelSource(channel);
+    }
+
+    /**
+     * 创建读取第一个 sheet 的 RowReader，xlsx 文件总是以流式的方式读取
+     *
+     * @param streaming xls 文件是否以事件流的方式读取
+     * @return 文件中没有 sheet 时返回 null
+     * @throws IOException 文件既不是 xls 也不是 xlsx 格式
+     */
+    abstract RowReader openRowReader(boolean streaming) throws IOException;
+
+    /**
+     * 创建可以读取所有 sheet 的 WorkbookReader
+     *
+     * @throws IOException 文件既不是 xls 也不是 xlsx 格式
+     */
+    abstract WorkbookReader openWorkbookReader() throws IOException;
+
+    /**
+     * 读取的字节数，磁盘上的文件为文件的大小
+     */
+    abstract long getBytesRead();
+
+    /**
+     * 计算文件内容的 SHA-256，只能在打开 RowReader 之前调用
+     * 文件流只能读取一次，计算的同时写入临时文件，之后从临时文件解析，堆中不保存文件内容
+     */
+    abstract byte[] sha256() throws IOException;
+
+    /**
+     * 删除计算 SHA-256 时创建的临时文件，关闭调用方传入的文件通道，需要在关闭 RowReader 之后调用
+     */
+    void close() {
+    }
+
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // 所有的 Java 平台都必须支持 SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 从文件的开头计算 SHA-256，不改变通道的位置
+     */
+    private static byte[] sha256(FileChannel channel) throws IOException {
+        MessageDigest digest = newSha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        long position = 0;
+        int length;
+        while ((length = channel.read(buffer, position)) != -1) {
+            position += length;
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+        return digest.digest();
+    }
+
+    private static IOException unsupported(FileMagic fileMagic) {
+        return new IOException("不支持的文件格式：" + fileMagic);
+    }
+
+    private static final class StreamSource extends ExcelSource {
+
+        /**
+         * 统计读取字节数的文件流，不统计时为 null
+         */
+        private final CountingInputStream countingInputStream;
+
+        private final InputStream inputStream;
+
+        /**
+         * 计算 SHA-256 时写入的临时文件，之后从该文件解析；没有计算时为 null
+         */
+        private Path tempFile;
+
+        StreamSource(InputStream inputStream) {
+            this.inputStream = inputStream;
+            this.countingInputStream = inputStream instanceof CountingInputStream
+                    ? (CountingInputStream) inputStream : null;
+        }
+
+        @Override
+        byte[] sha256() throws IOException {
+            MessageDigest digest = newSha256();
+            Path file = Files.createTempFile("e2o", ".tmp");
+            try {
+                Files.copy(new DigestInputStream(inputStream, digest), file, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            tempFile = file;
+            return digest.digest();
+        }
+
+        @Override
+        void close() {
+            if (tempFile != null) {
+                tempFile.toFile().delete();
+                tempFile = null;
+            }
+        }
+
+        @Override
+        RowReader openRowReader(boolean streaming) throws IOException {
+            if (tempFile != null) {
+                // 临时文件与磁盘上的文件相同，以只读方式直接打开
+                return new FileSource(tempFile).openRowReader(streaming);
+            }
+            InputStream in = FileMagic.prepareToCheckMagic(inputStream);
+            FileMagic fileMagic = FileMagic.valueOf(in);
+            if (fileMagic == FileMagic.OOXML) {
+                return new XSSFStreamingRowReader(in);
+            }
+            if (fileMagic != FileMagic.OLE2) {
+                throw unsupported(fileMagic);
+            }
+            if (streaming) {
+                return new HSSFEventRowReader(in);
+            }
+            HSSFSheet hssfSheet = getHSSFSheetByFile(in);
+            if (hssfSheet == null) {
+                return null;
+            }
+            return new HSSFSheetRowReader(hssfSheet);
+        }
+
+        @Override
+        WorkbookReader openWorkbookReader() throws IOException {
+            if (tempFile != null) {
+                return new FileSource(tempFile).openWorkbookReader();
+            }
+            InputStream in = FileMagic.prepareToCheckMagic(inputStream);
+            FileMagic fileMagic = FileMagic.valueOf(in);
+            if (fileMagic == FileMagic.OOXML) {
+                return new XSSFStreamingWorkbookReader(in);
+            }
+            if (fileMagic != FileMagic.OLE2) {
+                throw unsupported(fileMagic);
+            }
+            return new HSSFWorkbookReader(in);
+        }
+
+        @Override
+        long getBytesRead() {
+            return countingInputStream == null ? 0 : countingInputStream.getCount();
+        }
+
+        /**
+         * 从文件流中获取 HSSFSheet 实体
+         *
+         * @param inputStream
+         * @return
+         * @throws IOException
+         */
+        private HSSFSheet getHSSFSheetByFile(InputStream inputStream) throws IOException {
+            //获取 excel 文档实体类
+            HSSFWorkbook hssfWorkbook = new HSSFWorkbook(inputStream);
+
+            // 从第一个Sheet开始获取，获取到就返回
+            for (int numSheet = 0; numSheet < hssfWorkbook.getNumberOfSheets(); numSheet++) {
+                HSSFSheet hssfSheet = hssfWorkbook.getSheetAt(numSheet);
+                if (hssfSheet != null) {
+                    return hssfSheet;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class FileSource extends ExcelSource {
+
+        private final Path path;
+
+        FileSource(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        RowReader openRowReader(boolean streaming) throws IOException {
+            File file = path.toFile();
+            FileMagic fileMagic = fileMagic();
+            if (fileMagic == FileMagic.OOXML) {
+                return new XSSFStreamingRowReader(file);
+            }
+            if (fileMagic != FileMagic.OLE2) {
+                throw unsupported(fileMagic);
+            }
+            if (streaming) {
+                return new HSSFEventRowReader(file);
+            }
+            return new HSSFWorkbookReader(file).openFirstSheet();
+        }
+
+        @Override
+        WorkbookReader openWorkbookReader() throws IOException {
+            File file = path.toFile();
+            FileMagic fileMagic = fileMagic();
+            if (fileMagic == FileMagic.OOXML) {
+                return new XSSFStreamingWorkbookReader(file);
+            }
+            if (fileMagic != FileMagic.OLE2) {
+                throw unsupported(fileMagic);
+            }
+            return new HSSFWorkbookReader(file);
+        }
+
+        @Override
+        byte[] sha256() throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return ExcelSource.sha256(channel);
+            }
+        }
+
+        @Override
+        long getBytesRead() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        /**
+         * 只读取文件头
+         */
+        private FileMagic fileMagic() throws IOException {
+            try (InputStream in = FileMagic.prepareToCheckMagic(Files.newInputStream(path))) {
+                return FileMagic.valueOf(in);
+            }
+        }
+    }
+
+    /**
+     * 调用方已经打开的文件通道，与文件流一样在解析完毕后关闭
+     * 读取文件头和计算 SHA-256 时按绝对位置读取，xls 通过只读的 NPOIFSFileSystem 直接读取通道
+     */
+    private static final class ChannelSource extends ExcelSource {
+
+        private final FileChannel channel;
+
+        ChannelSource(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        RowReader openRowReader(boolean streaming) throws IOException {
+            FileMagic fileMagic = fileMagic();
+            if (fileMagic == FileMagic.OOXML) {
+                return new XSSFStreamingRowReader(newInputStream());
+            }
+            if (fileMagic != FileMagic.OLE2) {
+                throw unsupported(fileMagic);
+            }
+            if (streaming) {
+                return new HSSFEventRowReader(channel);
+            }
+            return new HSSFWorkbookReader(channel).openFirstSheet();
+        }
+
+        @Override
+        WorkbookReader openWorkbookReader() throws IOException {
+            FileMagic fileMagic = fileMagic();
+            if (fileMagic == FileMagic.OOXML) {
+                return new XSSFStreamingWorkbookReader(newInputStream());
+            }
+            if (fileMagic != FileMagic.OLE2) {
+                throw unsupported(fileMagic);
+            }
+            return new HSSFWorkbookReader(channel);
+        }
+
+        @Override
+        byte[] sha256() throws IOException {
+            return ExcelSource.sha256(channel);
+        }
+
+        /**
+         * 命中结果缓存时没有打开 RowReader，在这里关闭通道
+         */
+        @Override
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // 关闭失败时忽略
+            }
+        }
+
+        @Override
+        long getBytesRead() {
+            try {
+                return channel.size();
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        /**
+         * 只读取文件头，不改变通道的位置
+         */
+        private FileMagic fileMagic() throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            while (header.hasRemaining() && channel.read(header, header.position()) != -1) {
+                // 读满文件头或到达文件末尾
+            }
+            return FileMagic.valueOf(Arrays.copyOf(header.array(), header.position()));
+        }
+
+        /**
+         * 从文件的开头读取，xlsx 复制到临时文件后关闭通道
+         */
+        private InputStream newInputStream() throws IOException {
+            channel.position(0);
+            return Channels.newInputStream(channel);
+        }
+    }
+}
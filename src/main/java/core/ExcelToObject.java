@@ -1,39 +1,1054 @@
 package core;
 
-import annotation.Excel;
+import binding.BindingPlan;
+import binding.ClassBinding;
+import binding.ConstructorBinding;
+import binding.ExcelMapper;
+import binding.FieldBinding;
+import binding.FieldWriter;
+import binding.MapperSupport;
+import binding.OptionDictionary;
 import common.ExcelConstant;
+import entity.ErrorCode;
 import entity.ExcelToObjectError;
 import entity.ExcelToObjectResult;
+import entity.PackedErrorList;
 import entity.ResultObject;
-import org.apache.poi.hssf.usermodel.*;
-import org.apache.poi.ss.usermodel.Cell;
+import entity.SheetMapping;
+import entity.SinkImportResult;
+import entity.StopReason;
+import reader.ExcelRow;
+import reader.RowReader;
+import reader.WorkbookReader;
 import util.utils;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
-import java.math.BigDecimal;
-import java.text.SimpleDateFormat;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.regex.Matcher;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * excel 转换引擎，创建后可以在多个线程之间共享，同时进行任意多个解析
+ * 下拉框保存在不可变的快照中，刷新下拉框时原子地替换快照，每次解析开始时取一次快照，解析过程中看到的下拉框始终一致
+ * 注册了 ImportListener 时，每次解析都会记录各阶段的耗时和计数，没有注册时不做任何记录
+ */
 public class ExcelToObject {
 
-    private Map<String, Map<String, String>> optionMap;
+    /**
+     * 并行转换时，每个任务转换的行数
+     */
+    private static final int PARALLEL_CHUNK_SIZE = 1024;
+
+    /**
+     * 当前的下拉框快照
+     */
+    private final AtomicReference<OptionSnapshot> optionSnapshot;
+
+    /**
+     * 解析过程的监听器，创建后不再改变
+     */
+    private final ImportListener[] listeners;
+
+    /**
+     * 解析的选项
+     */
+    private final ImportOptions importOptions;
+
+    /**
+     * 解析结果的缓存，没有设置时为 null
+     */
+    private final ResultCache resultCache;
 
     public ExcelToObject(Map<String, Map<String, String>> optionMap) {
-        this.optionMap = optionMap;
+        this(new AtomicReference<>(OptionSnapshot.EMPTY.replaceAll(OptionDictionary.indexAll(optionMap))),
+                new ImportListener[0], ImportOptions.defaults(), null);
+    }
+
+    private ExcelToObject(AtomicReference<OptionSnapshot> optionSnapshot, ImportListener[] listeners,
+                          ImportOptions importOptions, ResultCache resultCache) {
+        this.optionSnapshot = optionSnapshot;
+        this.listeners = listeners;
+        this.importOptions = importOptions;
+        this.resultCache = resultCache;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 创建使用指定选项的 ExcelToObject，与当前对象共享下拉框、监听器和结果缓存，刷新任意一个的下拉框对另一个同样生效
+     *
+     * @param importOptions 解析的选项
+     */
+    public ExcelToObject withImportOptions(ImportOptions importOptions) {
+        return new ExcelToObject(optionSnapshot, listeners,
+                importOptions == null ? ImportOptions.defaults() : importOptions, resultCache);
+    }
+
+    public ImportOptions getImportOptions() {
+        return importOptions;
+    }
+
+    /**
+     * 替换全部下拉框，等同于 refreshOptions
+     */
+    public void setOptionMap(Map<String, Map<String, String>> optionMap) {
+        refreshOptions(optionMap);
+    }
+
+    /**
+     * 替换全部下拉框，索引在替换前建立，正在进行的解析继续使用原来的快照
+     *
+     * @param optionMap 下拉框名称 与 下拉框 的映射map
+     * @return 替换后的快照
+     */
+    public OptionSnapshot refreshOptions(Map<String, Map<String, String>> optionMap) {
+        Map<String, OptionDictionary> dictionaryMap = OptionDictionary.indexAll(optionMap);
+        return optionSnapshot.updateAndGet(snapshot -> snapshot.replaceAll(dictionaryMap));
+    }
+
+    /**
+     * 替换或新增一个下拉框，其他下拉框保持不变
+     *
+     * @param optionName 下拉框的名称
+     * @param option     下拉框，为 null 时删除该下拉框
+     * @return 替换后的快照
+     */
+    public OptionSnapshot refreshOption(String optionName, Map<String, String> option) {
+        OptionDictionary dictionary = OptionDictionary.of(option);
+        return optionSnapshot.updateAndGet(snapshot -> snapshot.replace(optionName, dictionary));
+    }
+
+    /**
+     * 当前的下拉框快照
+     */
+    public OptionSnapshot getOptionSnapshot() {
+        return optionSnapshot.get();
+    }
+
+    /**
+     * 解析excel,将一行数据转换成一个对象
+     *
+     * @param inputStream   excel 文件流
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResult(InputStream inputStream, Class<O> objectClass,
+                                                             int columnNameRow, int startDataRow)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResult(toSource(inputStream), objectClass, columnNameRow, startDataRow, false);
+    }
+
+    /**
+     * 解析磁盘上的excel文件,将一行数据转换成一个对象
+     * 文件以只读方式直接打开，xls 按需读取用到的块，不需要先将整个文件读入堆中；xlsx 不需要复制到临时文件
+     *
+     * @param path          excel 文件的路径
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResult(Path path, Class<O> objectClass,
+                                                             int columnNameRow, int startDataRow)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResult(toSource(path), objectClass, columnNameRow, startDataRow, false);
+    }
+
+    /**
+     * 解析磁盘上的excel文件，见 getExcelToObjectResult(Path, Class, int, int)
+     *
+     * @param file          excel 文件
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResult(File file, Class<O> objectClass,
+                                                             int columnNameRow, int startDataRow)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResult(toSource(file), objectClass, columnNameRow, startDataRow, false);
+    }
+
+    /**
+     * 解析已经打开的文件通道，xls 直接以只读方式读取通道，xlsx 复制到临时文件；与文件流一样，解析完毕后关闭通道
+     *
+     * @param channel       excel 文件的通道，从文件的开头读取
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResult(FileChannel channel, Class<O> objectClass,
+                                                             int columnNameRow, int startDataRow)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResult(toSource(channel), objectClass, columnNameRow, startDataRow, false);
+    }
+
+    /**
+     * 从文件中创建 RowReader，逐行读取数据并转换成对象
+     *
+     * @param streaming xls 文件是否以事件流的方式读取
+     */
+    private <O> ExcelToObjectResult<O> getExcelToObjectResult(ExcelSource source, Class<O> objectClass,
+                                                              int columnNameRow, int startDataRow,
+                                                              boolean streaming)
+            throws IllegalAccessException, InstantiationException, IOException {
+        ImportMetrics metrics = startImport(objectClass, null);
+        if (source == null || objectClass == null) {
+            recordFailure(metrics, ImportFailure.ILLEGAL_ARGUMENT, null);
+            finishImport(metrics);
+            return null;
+        }
+
+        OptionSnapshot snapshot = optionSnapshot.get();
+        try {
+            // 0 设置了结果缓存时，先按文件内容查找，同一个文件只需要计算一次哈希
+            String cacheKey = null;
+            if (resultCache != null && importOptions.getRowFilter() == null && ResultCache.isCacheable(objectClass)) {
+                cacheKey = ResultCache.key(source.sha256(), objectClass, columnNameRow, startDataRow,
+                        snapshot.getContentHash(), importOptions);
+                ExcelToObjectResult<O> cached = resultCache.get(cacheKey, objectClass);
+                if (cached != null) {
+                    if (metrics != null) {
+                        metrics.setCacheHit(true);
+                    }
+                    return cached;
+                }
+            }
+
+            // 1 从文件中创建逐行读取的 RowReader，不以事件流的方式读取时 xls 文件会整表加载
+            ExcelToObjectResult<O> result;
+            try (RowReader rowReader = createRowReader(source, streaming, metrics)) {
+                if (rowReader == null) {
+                    recordFailure(metrics, ImportFailure.NO_SHEET, null);
+                    return null;
+                }
+                result = getExcelToObjectResult(rowReader, snapshot, objectClass, columnNameRow, startDataRow,
+                        metrics);
+            }
+            if (cacheKey != null && result != null) {
+                resultCache.put(cacheKey, result);
+            }
+            return result;
+        } catch (Throwable e) {
+            recordFailure(metrics, ImportFailure.EXCEPTION, e);
+            throw e;
+        } finally {
+            // 删除计算 SHA-256 时写入的临时文件
+            source.close();
+            finishImport(metrics);
+        }
+    }
+
+    /**
+     * 以流式的方式解析excel,将一行数据转换成一个对象
+     * xls 基于 POI 的事件模型逐条读取记录，不会构建整个 HSSFWorkbook，适合行数很多的文件
+     *
+     * @param inputStream   excel 文件流
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResultByStreaming(InputStream inputStream, Class<O> objectClass,
+                                                                        int columnNameRow, int startDataRow)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResult(toSource(inputStream), objectClass, columnNameRow, startDataRow, true);
+    }
+
+    /**
+     * 以流式的方式解析磁盘上的excel文件，见 getExcelToObjectResultByStreaming(InputStream, Class, int, int)
+     *
+     * @param path          excel 文件的路径
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResultByStreaming(Path path, Class<O> objectClass,
+                                                                        int columnNameRow, int startDataRow)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResult(toSource(path), objectClass, columnNameRow, startDataRow, true);
+    }
+
+    /**
+     * 以流式的方式解析磁盘上的excel文件，见 getExcelToObjectResultByStreaming(InputStream, Class, int, int)
+     *
+     * @param file          excel 文件
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResultByStreaming(File file, Class<O> objectClass,
+                                                                        int columnNameRow, int startDataRow)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResult(toSource(file), objectClass, columnNameRow, startDataRow, true);
+    }
+
+    /**
+     * 以流式的方式解析已经打开的文件通道，解析完毕后关闭通道，见 getExcelToObjectResult(FileChannel, Class, int, int)
+     *
+     * @param channel       excel 文件的通道，从文件的开头读取
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResultByStreaming(FileChannel channel, Class<O> objectClass,
+                                                                        int columnNameRow, int startDataRow)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResult(toSource(channel), objectClass, columnNameRow, startDataRow, true);
+    }
+
+    /**
+     * 解析excel,并在 ForkJoinPool.commonPool 中并行地将数据行转换成对象
+     * 见 getExcelToObjectResultInParallel(InputStream, Class, int, int, Executor)
+     *
+     * @param inputStream   excel 文件流
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResultInParallel(InputStream inputStream, Class<O> objectClass,
+                                                                       int columnNameRow, int startDataRow)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResultInParallel(inputStream, objectClass, columnNameRow, startDataRow,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 解析excel,并在指定的线程池中并行地将数据行转换成对象
+     * 当前线程逐行读取文件，每读取 PARALLEL_CHUNK_SIZE 行就提交一个转换任务，读取与转换同时进行；
+     * 转换只读取单元格，不会修改工作簿，结果和错误按行号顺序合并，与 getExcelToObjectResult 的结果一致
+     *
+     * @param inputStream   excel 文件流
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param executor      执行转换任务的线程池
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResultInParallel(InputStream inputStream, Class<O> objectClass,
+                                                                       int columnNameRow, int startDataRow,
+                                                                       Executor executor)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResultInParallel(toSource(inputStream), objectClass, columnNameRow, startDataRow,
+                executor);
+    }
+
+    /**
+     * 解析磁盘上的excel文件,并在 ForkJoinPool.commonPool 中并行地将数据行转换成对象
+     * 见 getExcelToObjectResultInParallel(InputStream, Class, int, int, Executor)
+     *
+     * @param path          excel 文件的路径
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResultInParallel(Path path, Class<O> objectClass,
+                                                                       int columnNameRow, int startDataRow)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResultInParallel(path, objectClass, columnNameRow, startDataRow,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 解析磁盘上的excel文件,并在指定的线程池中并行地将数据行转换成对象
+     * 见 getExcelToObjectResultInParallel(InputStream, Class, int, int, Executor)
+     *
+     * @param path          excel 文件的路径
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param executor      执行转换任务的线程池
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResultInParallel(Path path, Class<O> objectClass,
+                                                                       int columnNameRow, int startDataRow,
+                                                                       Executor executor)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResultInParallel(toSource(path), objectClass, columnNameRow, startDataRow, executor);
+    }
+
+    /**
+     * 从文件中创建 RowReader，并在指定的线程池中并行地将数据行转换成对象
+     */
+    private <O> ExcelToObjectResult<O> getExcelToObjectResultInParallel(ExcelSource source, Class<O> objectClass,
+                                                                        int columnNameRow, int startDataRow,
+                                                                        Executor executor)
+            throws IllegalAccessException, InstantiationException, IOException {
+        ImportMetrics metrics = startImport(objectClass, null);
+        if (source == null || objectClass == null || executor == null) {
+            recordFailure(metrics, ImportFailure.ILLEGAL_ARGUMENT, null);
+            finishImport(metrics);
+            return null;
+        }
+
+        // 1 从文件中创建逐行读取的 RowReader，xls 文件会整表加载
+        try (RowReader rowReader = createRowReader(source, false, metrics)) {
+            if (rowReader == null) {
+                recordFailure(metrics, ImportFailure.NO_SHEET, null);
+                return null;
+            }
+            ResultObjectIterator<O> iterator = createResultObjectIterator(rowReader, optionSnapshot.get(), objectClass,
+                    columnNameRow, startDataRow, metrics);
+            if (iterator == null) {
+                return null;
+            }
+
+            List<ResultObject<O>> resultObjectList = new ArrayList<>();
+            List<ExcelToObjectError> errorList = new PackedErrorList();
+
+            // 5 按块提交转换任务，同时按顺序合并已经完成的块，需要提前停止时不再读取
+            Deque<CompletableFuture<List<ResultObject<O>>>> futureQueue = new ArrayDeque<>();
+            List<ExcelRow> chunk = new ArrayList<>(PARALLEL_CHUNK_SIZE);
+            ExcelRow row;
+            while (!iterator.isStopped() && (row = iterator.nextRow()) != null) {
+                chunk.add(row);
+                if (chunk.size() == PARALLEL_CHUNK_SIZE) {
+                    futureQueue.add(iterator.convertAsync(chunk, executor));
+                    chunk = new ArrayList<>(PARALLEL_CHUNK_SIZE);
+                    mergeChunks(iterator, futureQueue, false, resultObjectList, errorList);
+                }
+            }
+            if (!iterator.isStopped() && !chunk.isEmpty()) {
+                futureQueue.add(iterator.convertAsync(chunk, executor));
+            }
+
+            // 6 按顺序合并剩余的结果
+            mergeChunks(iterator, futureQueue, true, resultObjectList, errorList);
+            return iterator.toResult(errorList, resultObjectList);
+        } catch (Throwable e) {
+            recordFailure(metrics, ImportFailure.EXCEPTION, e);
+            throw e;
+        } finally {
+            finishImport(metrics);
+        }
+    }
+
+    /**
+     * 按顺序合并已经转换完成的块，提前停止时取消剩余的块
+     *
+     * @param wait 是否等待所有块转换完成，为 false 时只合并队列头部已经完成的块
+     */
+    private <O> void mergeChunks(ResultObjectIterator<O> iterator,
+                                 Deque<CompletableFuture<List<ResultObject<O>>>> futureQueue, boolean wait,
+                                 List<ResultObject<O>> resultObjectList, List<ExcelToObjectError> errorList)
+            throws IllegalAccessException, InstantiationException, IOException {
+        while (!futureQueue.isEmpty() && !iterator.isStopped() && (wait || futureQueue.peek().isDone())) {
+            for (ResultObject<O> resultObject : join(futureQueue.poll())) {
+                iterator.accept(resultObject);
+                iterator.collect(resultObject, resultObjectList, errorList);
+                if (iterator.isStopped()) {
+                    break;
+                }
+            }
+        }
+        if (iterator.isStopped()) {
+            // 还没有开始的任务不会再执行
+            for (CompletableFuture<List<ResultObject<O>>> future : futureQueue) {
+                future.cancel(false);
+            }
+            futureQueue.clear();
+        }
+    }
+
+    /**
+     * 解析excel中的多个 sheet，在 ForkJoinPool.commonPool 中并行转换
+     * 见 getExcelToObjectResults(InputStream, List, Executor)
+     *
+     * @param inputStream   excel 文件流
+     * @param sheetMappings sheet 与实体类的映射
+     * @return sheet 名称 与 该 sheet 的解析结果 的映射map
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public Map<String, ExcelToObjectResult<?>> getExcelToObjectResults(InputStream inputStream,
+                                                                      List<SheetMapping<?>> sheetMappings)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResults(inputStream, sheetMappings, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 解析excel中的多个 sheet，文件只解析一次，各个 sheet 在指定的线程池中同时转换
+     * 每个 sheet 使用第一个与之匹配的映射，没有匹配的映射的 sheet 会被忽略；
+     * 列名所在的行不存在或与实体类不匹配时，该 sheet 的解析结果为 null
+     * 注册了监听器时每个 sheet 单独记录指标，打开文件的耗时和读取的字节数是整个文件的
+     *
+     * @param inputStream   excel 文件流
+     * @param sheetMappings sheet 与实体类的映射
+     * @param executor      执行转换任务的线程池
+     * @return sheet 名称 与 该 sheet 的解析结果 的映射map，按 sheet 在文件中的顺序排列
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public Map<String, ExcelToObjectResult<?>> getExcelToObjectResults(InputStream inputStream,
+                                                                      List<SheetMapping<?>> sheetMappings,
+                                                                      Executor executor)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResults(toSource(inputStream), sheetMappings, executor);
+    }
+
+    /**
+     * 解析磁盘上的excel文件中的多个 sheet，在 ForkJoinPool.commonPool 中并行转换
+     * 见 getExcelToObjectResults(InputStream, List, Executor)
+     *
+     * @param path          excel 文件的路径
+     * @param sheetMappings sheet 与实体类的映射
+     * @return sheet 名称 与 该 sheet 的解析结果 的映射map
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public Map<String, ExcelToObjectResult<?>> getExcelToObjectResults(Path path, List<SheetMapping<?>> sheetMappings)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResults(path, sheetMappings, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 解析磁盘上的excel文件中的多个 sheet，见 getExcelToObjectResults(InputStream, List, Executor)
+     *
+     * @param path          excel 文件的路径
+     * @param sheetMappings sheet 与实体类的映射
+     * @param executor      执行转换任务的线程池
+     * @return sheet 名称 与 该 sheet 的解析结果 的映射map，按 sheet 在文件中的顺序排列
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public Map<String, ExcelToObjectResult<?>> getExcelToObjectResults(Path path, List<SheetMapping<?>> sheetMappings,
+                                                                      Executor executor)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResults(toSource(path), sheetMappings, executor);
+    }
+
+    /**
+     * 打开文件中的所有 sheet，并在指定的线程池中同时转换
+     */
+    private Map<String, ExcelToObjectResult<?>> getExcelToObjectResults(ExcelSource source,
+                                                                       List<SheetMapping<?>> sheetMappings,
+                                                                       Executor executor)
+            throws IllegalAccessException, InstantiationException, IOException {
+        if (source == null || sheetMappings == null || executor == null) {
+            return null;
+        }
+
+        // 所有 sheet 使用同一个下拉框快照
+        OptionSnapshot snapshot = optionSnapshot.get();
+
+        long openStart = System.nanoTime();
+
+        // 1 解析文件，xls 文件会整个加载，xlsx 文件只读取共享字符串和样式
+        try (WorkbookReader workbookReader = source.openWorkbookReader()) {
+            long openNanos = System.nanoTime() - openStart;
+            List<String> sheetNameList = new ArrayList<>();
+            List<RowReader> rowReaderList = new ArrayList<>();
+            List<ImportMetrics> metricsList = new ArrayList<>();
+            List<CompletableFuture<ExcelToObjectResult<?>>> futureList = new ArrayList<>();
+            try {
+                // 2 为每个匹配的 sheet 提交转换任务
+                for (int i = 0; i < workbookReader.getNumberOfSheets(); i++) {
+                    String sheetName = workbookReader.getSheetName(i);
+                    SheetMapping<?> sheetMapping = getSheetMapping(sheetMappings, i, sheetName);
+                    if (sheetMapping == null) {
+                        continue;
+                    }
+                    ImportMetrics metrics = startImport(sheetMapping.getObjectClass(), sheetName);
+                    if (metrics != null) {
+                        metrics.setOpenNanos(openNanos);
+                        metrics.setSource(source);
+                    }
+                    metricsList.add(metrics);
+                    RowReader rowReader = workbookReader.openSheet(i);
+                    rowReaderList.add(rowReader);
+                    sheetNameList.add(sheetName);
+                    futureList.add(convertSheetAsync(rowReader, snapshot, sheetMapping, executor, metrics));
+                }
+
+                // 3 按 sheet 的顺序收集结果
+                Map<String, ExcelToObjectResult<?>> resultMap = new LinkedHashMap<>();
+                for (int i = 0; i < futureList.size(); i++) {
+                    resultMap.put(sheetNameList.get(i), join(futureList.get(i)));
+                }
+                return resultMap;
+            } finally {
+                // 等待所有任务结束后再关闭，避免其他 sheet 还在读取
+                try {
+                    CompletableFuture.allOf(futureList.toArray(new CompletableFuture<?>[0])).join();
+                } catch (CompletionException e) {
+                    // 异常已经在收集结果时抛出
+                }
+                for (RowReader rowReader : rowReaderList) {
+                    rowReader.close();
+                }
+                for (ImportMetrics metrics : metricsList) {
+                    finishImport(metrics);
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取第一个与 sheet 匹配的映射
+     */
+    private SheetMapping<?> getSheetMapping(List<SheetMapping<?>> sheetMappings, int index, String sheetName) {
+        for (SheetMapping<?> sheetMapping : sheetMappings) {
+            if (sheetMapping != null && sheetMapping.getObjectClass() != null
+                    && sheetMapping.matches(index, sheetName)) {
+                return sheetMapping;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 在线程池中转换一个 sheet
+     */
+    private <O> CompletableFuture<ExcelToObjectResult<?>> convertSheetAsync(RowReader rowReader,
+                                                                            OptionSnapshot snapshot,
+                                                                            SheetMapping<O> sheetMapping,
+                                                                            Executor executor,
+                                                                            ImportMetrics metrics) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return getExcelToObjectResult(rowReader, snapshot, sheetMapping.getObjectClass(),
+                        sheetMapping.getColumnNameRow(), sheetMapping.getStartDataRow(), metrics);
+            } catch (IOException | IllegalAccessException | InstantiationException e) {
+                recordFailure(metrics, ImportFailure.EXCEPTION, e);
+                throw new CompletionException(e);
+            } catch (RuntimeException | Error e) {
+                recordFailure(metrics, ImportFailure.EXCEPTION, e);
+                throw e;
+            }
+        }, executor);
+    }
+
+    /**
+     * 等待转换任务完成，并还原任务中抛出的异常
+     */
+    private <T> T join(CompletableFuture<T> future)
+            throws IllegalAccessException, InstantiationException, IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof IllegalAccessException) {
+                throw (IllegalAccessException) cause;
+            }
+            if (cause instanceof InstantiationException) {
+                throw (InstantiationException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 以流的方式逐行解析excel，并将转换成功的对象按批次交给 sink 写入，写入在单独的线程中进行
+     * 解析下一批数据的同时写入上一批，等待写入的批次达到 ImportOptions.sinkQueueCapacity 时解析暂停；
+     * 转换失败和唯一键重复的行不会写入，写入失败的行记录在结果的 sinkErrorList 中
+     *
+     * @param inputStream   excel 文件流
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param sink          接收转换成功的对象
+     * @param <O>           任意类型
+     * @return 写入的行数、转换错误和写入错误，实体类或列名行不合法时返回 null
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> SinkImportResult importToSink(InputStream inputStream, Class<O> objectClass, int columnNameRow,
+                                             int startDataRow, BatchSink<O> sink)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return importToSink(toSource(inputStream), objectClass, columnNameRow, startDataRow, sink,
+                SinkPipeline.NEW_THREAD);
+    }
+
+    /**
+     * 以流的方式逐行解析excel，并在 executor 中写入 sink，见 importToSink(InputStream, Class, int, int, BatchSink)
+     *
+     * @param inputStream   excel 文件流
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param sink          接收转换成功的对象
+     * @param executor      运行写入线程的线程池，写入期间占用其中的一个线程
+     * @param <O>           任意类型
+     * @return 写入的行数、转换错误和写入错误，实体类或列名行不合法时返回 null
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> SinkImportResult importToSink(InputStream inputStream, Class<O> objectClass, int columnNameRow,
+                                             int startDataRow, BatchSink<O> sink, Executor executor)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return importToSink(toSource(inputStream), objectClass, columnNameRow, startDataRow, sink, executor);
+    }
+
+    /**
+     * 以流的方式逐行解析磁盘上的excel文件，并写入 sink，见 importToSink(InputStream, Class, int, int, BatchSink)
+     *
+     * @param path          excel 文件的路径
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param sink          接收转换成功的对象
+     * @param <O>           任意类型
+     * @return 写入的行数、转换错误和写入错误，实体类或列名行不合法时返回 null
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> SinkImportResult importToSink(Path path, Class<O> objectClass, int columnNameRow, int startDataRow,
+                                             BatchSink<O> sink)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return importToSink(toSource(path), objectClass, columnNameRow, startDataRow, sink, SinkPipeline.NEW_THREAD);
+    }
+
+    /**
+     * 以流的方式逐行解析磁盘上的excel文件，并在 executor 中写入 sink
+     *
+     * @param path          excel 文件的路径
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param sink          接收转换成功的对象
+     * @param executor      运行写入线程的线程池，写入期间占用其中的一个线程
+     * @param <O>           任意类型
+     * @return 写入的行数、转换错误和写入错误，实体类或列名行不合法时返回 null
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> SinkImportResult importToSink(Path path, Class<O> objectClass, int columnNameRow, int startDataRow,
+                                             BatchSink<O> sink, Executor executor)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return importToSink(toSource(path), objectClass, columnNameRow, startDataRow, sink, executor);
+    }
+
+    /**
+     * 逐行解析，转换成功的对象交给写入线程，其余的行收集到结果中
+     */
+    private <O> SinkImportResult importToSink(ExcelSource source, Class<O> objectClass, int columnNameRow,
+                                              int startDataRow, BatchSink<O> sink, Executor executor)
+            throws IllegalAccessException, InstantiationException, IOException {
+        ImportMetrics metrics = startImport(objectClass, null);
+        if (source == null || objectClass == null || sink == null || executor == null) {
+            recordFailure(metrics, ImportFailure.ILLEGAL_ARGUMENT, null);
+            finishImport(metrics);
+            return null;
+        }
+
+        // 1 从文件中创建逐行读取的 RowReader，xls 文件以事件流的方式读取
+        try (RowReader rowReader = createRowReader(source, true, metrics)) {
+            if (rowReader == null) {
+                recordFailure(metrics, ImportFailure.NO_SHEET, null);
+                return null;
+            }
+            ResultObjectIterator<O> iterator = createResultObjectIterator(rowReader, optionSnapshot.get(), objectClass,
+                    columnNameRow, startDataRow, metrics);
+            if (iterator == null) {
+                return null;
+            }
+
+            List<ExcelToObjectError> errorList = new PackedErrorList();
+            SinkPipeline<O> pipeline = new SinkPipeline<>(sink, importOptions.getSinkBatchSize(),
+                    importOptions.getSinkQueueCapacity());
+            pipeline.start(executor);
+            boolean finished = false;
+            try {
+                // 5 读取数据行并转换，转换成功的对象不保存在结果中，直接交给写入线程
+                ResultObject<O> resultObject;
+                while ((resultObject = iterator.readNext()) != null) {
+                    if (resultObject.isSuccess() && !resultObject.isRepetition()) {
+                        pipeline.add(resultObject);
+                    } else {
+                        iterator.collect(resultObject, null, errorList);
+                    }
+                }
+                // 6 等待所有批次写入完成
+                pipeline.finish();
+                finished = true;
+            } finally {
+                if (!finished) {
+                    pipeline.abort();
+                }
+            }
+            return iterator.toSinkResult(errorList, pipeline);
+        } catch (Throwable e) {
+            recordFailure(metrics, ImportFailure.EXCEPTION, e);
+            throw e;
+        } finally {
+            finishImport(metrics);
+        }
+    }
+
+    /**
+     * 以流的方式逐行解析excel，同时将转换失败的行写入错误报告，不需要在解析之后再次读取文件
+     * 错误报告只包含列名所在的行和转换失败的行，出错的单元格标为红色背景，最后两列为原文件中的行号和错误信息；
+     * 唯一键重复的行不写入错误报告。xlsx 格式的错误报告以流的方式写入，内存占用与失败的行数无关
+     *
+     * @param inputStream   excel 文件流
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param reportFormat  错误报告的文件格式
+     * @param report        写入错误报告的文件流，不会被关闭
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表，实体类或列名行不合法时返回 null，不写入错误报告
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResultWithErrorReport(InputStream inputStream,
+                                                                            Class<O> objectClass,
+                                                                            int columnNameRow, int startDataRow,
+                                                                            ExcelFormat reportFormat,
+                                                                            OutputStream report)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResultWithErrorReport(toSource(inputStream), objectClass, columnNameRow, startDataRow,
+                reportFormat, report);
+    }
+
+    /**
+     * 以流的方式逐行解析磁盘上的excel文件，同时写入错误报告，见 getExcelToObjectResultWithErrorReport(InputStream,
+     * Class, int, int, ExcelFormat, OutputStream)
+     *
+     * @param path          excel 文件的路径
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param reportFormat  错误报告的文件格式
+     * @param report        写入错误报告的文件流，不会被关闭
+     * @param <O>           任意类型
+     * @return ExcelToObjectResult 包含对象列表 和 错误列表，实体类或列名行不合法时返回 null，不写入错误报告
+     * @throws IOException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <O> ExcelToObjectResult<O> getExcelToObjectResultWithErrorReport(Path path, Class<O> objectClass,
+                                                                            int columnNameRow, int startDataRow,
+                                                                            ExcelFormat reportFormat,
+                                                                            OutputStream report)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return getExcelToObjectResultWithErrorReport(toSource(path), objectClass, columnNameRow, startDataRow,
+                reportFormat, report);
+    }
+
+    /**
+     * 逐行解析，转换失败的行在读取下一行之前写入错误报告，解析结果不放入结果缓存
+     */
+    private <O> ExcelToObjectResult<O> getExcelToObjectResultWithErrorReport(ExcelSource source, Class<O> objectClass,
+                                                                             int columnNameRow, int startDataRow,
+                                                                             ExcelFormat reportFormat,
+                                                                             OutputStream report)
+            throws IllegalAccessException, InstantiationException, IOException {
+        ImportMetrics metrics = startImport(objectClass, null);
+        if (source == null || objectClass == null || reportFormat == null || report == null) {
+            recordFailure(metrics, ImportFailure.ILLEGAL_ARGUMENT, null);
+            finishImport(metrics);
+            return null;
+        }
+
+        // 1 从文件中创建逐行读取的 RowReader，xls 文件以事件流的方式读取
+        try (RowReader rowReader = createRowReader(source, true, metrics)) {
+            if (rowReader == null) {
+                recordFailure(metrics, ImportFailure.NO_SHEET, null);
+                return null;
+            }
+            ResultObjectIterator<O> iterator = createResultObjectIterator(rowReader, optionSnapshot.get(), objectClass,
+                    columnNameRow, startDataRow, metrics);
+            if (iterator == null) {
+                return null;
+            }
+
+            List<ResultObject<O>> resultObjectList = new ArrayList<>();
+            List<ExcelToObjectError> errorList = new PackedErrorList();
+            try (ErrorReportWriter errorReport = iterator.createErrorReport(reportFormat)) {
+                // 5 读取数据行并转换，转换失败的行在 readNext 中写入错误报告
+                ResultObject<O> resultObject;
+                while ((resultObject = iterator.readNext()) != null) {
+                    iterator.collect(resultObject, resultObjectList, errorList);
+                }
+                // 6 写入错误报告并返回解析结果
+                errorReport.write(report);
+            }
+            return iterator.toResult(errorList, resultObjectList);
+        } catch (Throwable e) {
+            recordFailure(metrics, ImportFailure.EXCEPTION, e);
+            throw e;
+        } finally {
+            finishImport(metrics);
+        }
+    }
+
+    /**
+     * 以流的方式逐行解析excel，每读取一行就转换成一个对象，不会将全部结果保存在内存中
+     * 流中的每个元素都包含该行的错误列表，转换失败的行也会出现在流中，可以通过 ResultObject.isSuccess 区分；
+     * 指定了唯一键时，重复的行同样会出现在流中，ResultObject.isRepetition 为 true
+     * 使用完毕后必须关闭返回的流，以释放文件资源
+     *
+     * @param inputStream   excel 文件流
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return 解析结果流，实体类或列名行不合法时返回 null
+     * @throws IOException
+     */
+    public <O> Stream<ResultObject<O>> getResultObjectStream(InputStream inputStream, Class<O> objectClass,
+                                                             int columnNameRow, int startDataRow) throws IOException {
+        return getResultObjectStream(toSource(inputStream), objectClass, columnNameRow, startDataRow);
+    }
+
+    /**
+     * 以流的方式逐行解析磁盘上的excel文件，见 getResultObjectStream(InputStream, Class, int, int)
+     * 使用完毕后必须关闭返回的流，以释放文件资源
+     *
+     * @param path          excel 文件的路径
+     * @param objectClass   实体类 class
+     * @param columnNameRow 列名所在的行号，从0开始计数
+     * @param startDataRow  数据开始的行号，从0开始计数
+     * @param <O>           任意类型
+     * @return 解析结果流，实体类或列名行不合法时返回 null
+     * @throws IOException
+     */
+    public <O> Stream<ResultObject<O>> getResultObjectStream(Path path, Class<O> objectClass,
+                                                             int columnNameRow, int startDataRow) throws IOException {
+        return getResultObjectStream(toSource(path), objectClass, columnNameRow, startDataRow);
     }
 
-    public void setOptionMap(Map<String, Map<String, String>> optionMap) {
-        this.optionMap = optionMap;
+    private <O> Stream<ResultObject<O>> getResultObjectStream(ExcelSource source, Class<O> objectClass,
+                                                              int columnNameRow, int startDataRow) throws IOException {
+        ImportMetrics metrics = startImport(objectClass, null);
+        if (source == null || objectClass == null) {
+            recordFailure(metrics, ImportFailure.ILLEGAL_ARGUMENT, null);
+            finishImport(metrics);
+            return null;
+        }
+
+        RowReader rowReader;
+        ResultObjectIterator<O> iterator;
+        try {
+            rowReader = createRowReader(source, true, metrics);
+        } catch (IOException | RuntimeException e) {
+            recordFailure(metrics, ImportFailure.EXCEPTION, e);
+            finishImport(metrics);
+            throw e;
+        }
+        try {
+            iterator = createResultObjectIterator(rowReader, optionSnapshot.get(), objectClass, columnNameRow,
+                    startDataRow, metrics);
+        } catch (IOException | RuntimeException e) {
+            recordFailure(metrics, ImportFailure.EXCEPTION, e);
+            rowReader.close();
+            finishImport(metrics);
+            throw e;
+        }
+        if (iterator == null) {
+            rowReader.close();
+            finishImport(metrics);
+            return null;
+        }
+        Spliterator<ResultObject<O>> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        // 流关闭时才认为解析结束
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                rowReader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                finishImport(metrics);
+            }
+        });
     }
 
     /**
-     * 解析excel,将一行数据转换成一个对象
+     * 从任意的 RowReader 中逐行读取数据，并将一行数据转换成一个对象，不会关闭 rowReader
+     * 可以用于已经加载到内存中的行，或者自定义的数据来源
      *
-     * @param inputStream   excel 文件流
+     * @param rowReader     逐行读取数据的 RowReader
      * @param objectClass   实体类 class
      * @param columnNameRow 列名所在的行号，从0开始计数
      * @param startDataRow  数据开始的行号，从0开始计数
@@ -43,82 +1058,429 @@ public class ExcelToObject {
      * @throws IllegalAccessException
      * @throws InstantiationException
      */
-    public <O> ExcelToObjectResult<O> getExcelToObjectResult(InputStream inputStream, Class<O> objectClass,
+    public <O> ExcelToObjectResult<O> getExcelToObjectResult(RowReader rowReader, Class<O> objectClass,
                                                              int columnNameRow, int startDataRow)
             throws IllegalAccessException, InstantiationException, IOException {
-        if (inputStream == null || objectClass == null) {
+        ImportMetrics metrics = startImport(objectClass, null);
+        if (rowReader == null || objectClass == null) {
+            recordFailure(metrics, ImportFailure.ILLEGAL_ARGUMENT, null);
+            finishImport(metrics);
             return null;
         }
+        try {
+            return getExcelToObjectResult(rowReader, optionSnapshot.get(), objectClass, columnNameRow, startDataRow,
+                    metrics);
+        } catch (Throwable e) {
+            recordFailure(metrics, ImportFailure.EXCEPTION, e);
+            throw e;
+        } finally {
+            finishImport(metrics);
+        }
+    }
 
+    /**
+     * 从 RowReader 中逐行读取数据，并将一行数据转换成一个对象
+     */
+    private <O> ExcelToObjectResult<O> getExcelToObjectResult(RowReader rowReader, OptionSnapshot snapshot,
+                                                              Class<O> objectClass, int columnNameRow,
+                                                              int startDataRow, ImportMetrics metrics)
+            throws IllegalAccessException, InstantiationException, IOException {
         //结果对象列表
         List<ResultObject<O>> resultObjectList = new ArrayList<>();
         //解析过程中的错误列表
-        List<ExcelToObjectError> errorList = new ArrayList<>();
+        List<ExcelToObjectError> errorList = new PackedErrorList();
+
+        ResultObjectIterator<O> iterator = createResultObjectIterator(rowReader, snapshot, objectClass, columnNameRow,
+                startDataRow, metrics);
+        if (iterator == null) {
+            return null;
+        }
 
-        // 1 从文件流中获取 HSSFSheet 实体
-        HSSFSheet hssfSheet = getHSSFSheetByFile(inputStream);
-        if (hssfSheet == null) {
+        // 5 读取数据行中的数据,并封装成实体，需要提前停止时 readNext 返回 null
+        ResultObject<O> resultObject;
+        while ((resultObject = iterator.readNext()) != null) {
+            iterator.collect(resultObject, resultObjectList, errorList);
+        }
+
+        // 6 返回解析结果
+        return iterator.toResult(errorList, resultObjectList);
+
+    }
+
+    /**
+     * 读取列名所在的行，并创建逐行转换数据的迭代器
+     *
+     * @return 实体类中没有 @Excel 注解的属性，或列名所在的行不存在、与实体类不匹配时返回 null
+     */
+    private <O> ResultObjectIterator<O> createResultObjectIterator(RowReader rowReader, OptionSnapshot snapshot,
+                                                                   Class<O> objectClass, int columnNameRow,
+                                                                   int startDataRow, ImportMetrics metrics)
+            throws IOException {
+        long start = metrics == null ? 0 : System.nanoTime();
+        BindingPlan bindingPlan = resolveBindingPlan(rowReader, snapshot, objectClass, columnNameRow, metrics);
+        if (metrics != null) {
+            metrics.setHeaderNanos(System.nanoTime() - start);
+        }
+        if (bindingPlan == null) {
+            return null;
+        }
+        return new ResultObjectIterator<>(rowReader, objectClass, startDataRow, bindingPlan, metrics);
+    }
+
+    /**
+     * 读取列名所在的行，并得到 类属性 与 列下标 的绑定计划
+     *
+     * @return 无法得到绑定计划时返回 null，原因记录在 metrics 中
+     */
+    private BindingPlan resolveBindingPlan(RowReader rowReader, OptionSnapshot snapshot, Class<?> objectClass,
+                                           int columnNameRow, ImportMetrics metrics) throws IOException {
+        // 2 得到实体类的绑定信息，每个类只解析一次
+        ClassBinding classBinding = ClassBinding.of(objectClass);
+        if (classBinding.isEmpty()) {
+            recordFailure(metrics, ImportFailure.NO_EXCEL_FIELD, null);
             return null;
         }
 
-        // 2 得到 excel列名 与 实体属性名 的映射map
-        Map<String, String> columnAndPropertyMap = getColumnAndPropertyMap(objectClass);
-        if (columnAndPropertyMap == null || columnAndPropertyMap.size() == 0) {
+        //跳过列名所在行之前的行
+        ExcelRow row = rowReader.nextRow();
+        while (row != null && row.getRowNum() < columnNameRow) {
+            row = rowReader.nextRow();
+        }
+        if (row == null || row.getRowNum() != columnNameRow) {
+            //列名所在的行不存在
+            recordFailure(metrics, ImportFailure.HEADER_ROW_MISSING, null);
             return null;
         }
 
         // 3 得到excel 数据列名和 下标 的映射map
-        Map<String, Integer> columnAndIndexMap = getColumnAndIndexMap(hssfSheet, columnNameRow);
+        Map<String, Integer> columnAndIndexMap = getColumnAndIndexMap(row);
         if (columnAndIndexMap == null || columnAndIndexMap.size() == 0) {
+            recordFailure(metrics, ImportFailure.HEADER_EMPTY, null);
             return null;
         }
 
-        // 4 得到 类属性 与 列下标 的映射map
-        Map<String, Integer> propertyAndIndexMap = getPropertyAndIndexMap(columnAndPropertyMap, columnAndIndexMap);
-        if (propertyAndIndexMap == null || propertyAndIndexMap.size() == 0) {
+        // 4 得到 类属性 与 列下标 的绑定计划
+        BindingPlan bindingPlan = classBinding.resolve(columnAndIndexMap, snapshot.getDictionaryMap(),
+                importOptions.getFields());
+        if (bindingPlan == null) {
+            recordFailure(metrics, ImportFailure.NO_COLUMN_MATCHED, null);
+            return null;
+        }
+        // 唯一键的列必须都在文件中，否则只按部分列判断重复会误删数据
+        if (!DuplicateDetector.hasAllKeyColumns(classBinding, bindingPlan, importOptions)) {
+            recordFailure(metrics, ImportFailure.KEY_COLUMN_MISSING, null);
             return null;
         }
+        return bindingPlan;
+    }
 
-        // 5 读取数据行中的数据,并封装成实体
-        for (int i = startDataRow; i <= hssfSheet.getLastRowNum(); i++) {
-            HSSFRow hssfRow = hssfSheet.getRow(i);
-            if (hssfRow == null || hssfRowIsNull(hssfRow, propertyAndIndexMap)) {
-                continue;
+    /**
+     * 逐行读取数据并转换成对象的迭代器，每次只持有一行数据
+     *
+     * @param <O>
+     */
+    private class ResultObjectIterator<O> implements Iterator<ResultObject<O>> {
+
+        private final RowReader rowReader;
+
+        private final Class<O> objectClass;
+
+        private final int startDataRow;
+
+        /**
+         * 实体的属性 与 数据列的下标 的绑定计划
+         */
+        private final BindingPlan bindingPlan;
+
+        /**
+         * 没有注册监听器时为 null
+         */
+        private final ImportMetrics metrics;
+
+        /**
+         * 每行只记录第一个错误
+         */
+        private final boolean firstErrorPerRow;
+
+        /**
+         * 在创建实体之前判断是否转换该行，没有过滤条件时为 null
+         */
+        private final Predicate<RawRow> rowFilter;
+
+        /**
+         * 错误的统计，不会提前停止时为 null
+         */
+        private final ErrorBudget errorBudget;
+
+        /**
+         * 按唯一键判断重复，没有唯一键时为 null
+         */
+        private final DuplicateDetector duplicateDetector;
+
+        /**
+         * 唯一键重复的行号
+         */
+        private final List<Integer> repetitionRowList;
+
+        /**
+         * 提前停止的原因，未停止时为 null
+         */
+        private StopReason stopReason;
+
+        /**
+         * 提前停止时最后解析的 excel 行号
+         */
+        private int stopRow;
+
+        /**
+         * 已经读取，还未返回的结果
+         */
+        private ResultObject<O> next;
+
+        /**
+         * 写入转换失败的行，不写入错误报告时为 null
+         */
+        private ErrorReportWriter errorReport;
+
+        ResultObjectIterator(RowReader rowReader, Class<O> objectClass, int startDataRow, BindingPlan bindingPlan,
+                             ImportMetrics metrics) {
+            this.rowReader = rowReader;
+            this.objectClass = objectClass;
+            this.startDataRow = startDataRow;
+            this.bindingPlan = bindingPlan;
+            this.metrics = metrics;
+            ErrorPolicy errorPolicy = importOptions.getErrorPolicy();
+            this.firstErrorPerRow = errorPolicy.isFirstErrorPerRow();
+            this.rowFilter = importOptions.getRowFilter();
+            this.errorBudget = errorPolicy.canStop() ? new ErrorBudget(errorPolicy) : null;
+            this.duplicateDetector = DuplicateDetector.create(bindingPlan, importOptions);
+            this.repetitionRowList = duplicateDetector == null ? Collections.<Integer>emptyList() : new ArrayList<>();
+        }
+
+        /**
+         * 创建错误报告，之后 readNext 读取到的转换失败的行都写入该报告
+         *
+         * @param format 错误报告的文件格式
+         */
+        ErrorReportWriter createErrorReport(ExcelFormat format) {
+            errorReport = new ErrorReportWriter(format, bindingPlan.getColumnAndIndexMap());
+            return errorReport;
+        }
+
+        /**
+         * 是否已经需要停止
+         */
+        boolean isStopped() {
+            return stopReason != null;
+        }
+
+        /**
+         * 按顺序记录一行的转换结果，判断唯一键是否重复，并判断是否需要停止
+         * 只有转换成功的行参与重复判断，重复的行不计入错误
+         */
+        void accept(ResultObject<O> resultObject) {
+            if (duplicateDetector != null && resultObject.isSuccess()) {
+                resultObject.setRepetition(duplicateDetector.isDuplicate(resultObject.getObject()));
+            }
+            if (metrics != null) {
+                metrics.recordRow(resultObject);
+            }
+            if (errorBudget != null) {
+                StopReason reason = errorBudget.record(resultObject);
+                if (reason != null) {
+                    stopReason = reason;
+                    stopRow = resultObject.getRow();
+                    if (metrics != null) {
+                        metrics.setStopReason(reason);
+                    }
+                }
+            }
+        }
+
+        /**
+         * 将一行的转换结果加入结果列表或错误列表
+         *
+         * @param resultObjectList 只在该行转换成功且不重复时使用
+         */
+        void collect(ResultObject<O> resultObject, List<ResultObject<O>> resultObjectList,
+                     List<ExcelToObjectError> errorList) {
+            if (resultObject.isRepetition()) {
+                repetitionRowList.add(resultObject.getRow());
+                return;
             }
-            //创建一个实体
-            O object = objectClass.newInstance();
-            //将 excel 表中的一行数据封装成一个对象,
-            List<ExcelToObjectError> excelToObjectErrorList = hssfRowToObject(object, hssfRow, propertyAndIndexMap);
             //如果错误列表为空
-            if (excelToObjectErrorList == null || excelToObjectErrorList.size() == 0) {
-                resultObjectList.add(new ResultObject<>(object, hssfRow.getRowNum() + 1));
+            if (resultObject.isSuccess()) {
+                resultObjectList.add(resultObject);
             } else {
                 //收集错误信息
-                errorList.addAll(excelToObjectErrorList);
+                errorList.addAll(resultObject.getErrorList());
             }
         }
 
-        // 6 返回解析结果
-        return new ExcelToObjectResult<>(errorList, resultObjectList);
+        /**
+         * 创建解析结果，包含停止的原因
+         */
+        ExcelToObjectResult<O> toResult(List<ExcelToObjectError> errorList, List<ResultObject<O>> resultObjectList) {
+            ExcelToObjectResult<O> result = stopReason == null
+                    ? new ExcelToObjectResult<>(errorList, resultObjectList)
+                    : new ExcelToObjectResult<>(errorList, resultObjectList, stopReason, stopRow);
+            result.setRepetitionRowList(repetitionRowList);
+            return result;
+        }
+
+        /**
+         * 创建写入 sink 的结果，写入线程需要已经退出
+         */
+        SinkImportResult toSinkResult(List<ExcelToObjectError> errorList, SinkPipeline<O> pipeline) {
+            return new SinkImportResult(pipeline.getWrittenCount(), errorList, pipeline.getSinkErrorList(),
+                    repetitionRowList, stopReason == null ? StopReason.COMPLETED : stopReason, stopRow);
+        }
+
+        /**
+         * 读取下一个数据行，并记录读取的耗时
+         *
+         * @return 读取完毕时返回 null
+         */
+        ExcelRow nextRow() throws IOException {
+            if (metrics == null) {
+                return rowReader.nextRow();
+            }
+            long start = System.nanoTime();
+            ExcelRow row = rowReader.nextRow();
+            metrics.addReadNanos(System.nanoTime() - start);
+            return row;
+        }
+
+        /**
+         * 读取下一个非空的数据行并转换成对象
+         *
+         * @return 读取完毕，或者按 ErrorPolicy 需要停止时返回 null
+         */
+        ResultObject<O> readNext() throws IOException, IllegalAccessException, InstantiationException {
+            if (stopReason != null) {
+                return null;
+            }
+            ExcelRow row;
+            while ((row = nextRow()) != null) {
+                long start = metrics == null ? 0 : System.nanoTime();
+                ResultObject<O> resultObject = convert(row);
+                if (metrics != null) {
+                    metrics.addConvertNanos(System.nanoTime() - start);
+                }
+                if (resultObject != null) {
+                    accept(resultObject);
+                    // 错误报告按行号顺序写入，需要在读取下一行之前写入
+                    if (errorReport != null && !resultObject.isSuccess()) {
+                        errorReport.addRow(row, resultObject.getErrorList());
+                    }
+                    return resultObject;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 将一个数据行转换成对象，只读取单元格，可以在多个线程中同时调用
+         *
+         * @return 行号小于数据开始的行号、空行或不满足过滤条件时返回 null
+         */
+        ResultObject<O> convert(ExcelRow row) throws IllegalAccessException, InstantiationException {
+            if (row.getRowNum() < startDataRow || rowIsNull(row, bindingPlan)) {
+                return null;
+            }
+            // 不满足过滤条件的行不创建实体
+            if (rowFilter != null && !rowFilter.test(new RawRow(row, bindingPlan))) {
+                return null;
+            }
+            ConstructorBinding constructor = bindingPlan.getConstructor();
+            if (constructor != null) {
+                //通过构造器创建实体，属性的值先写入参数数组，转换失败的行不创建实体
+                Object[] arguments = constructor.arguments();
+                List<ExcelToObjectError> errorList = rowToObject(arguments, row, bindingPlan, firstErrorPerRow);
+                if (!errorList.isEmpty()) {
+                    return new ResultObject<>(null, row.getRowNum() + 1, errorList);
+                }
+                try {
+                    O object = objectClass.cast(constructor.newInstance(arguments));
+                    return new ResultObject<>(object, row.getRowNum() + 1, errorList);
+                } catch (RuntimeException e) {
+                    // record 的紧凑构造器、@NonNull 等校验失败只影响该行
+                    return new ResultObject<>(null, row.getRowNum() + 1, constructorError(row, e));
+                }
+            }
+            //将 excel 表中的一行数据先写入当前线程备用的实体，转换成功后才取走，转换失败的行不创建实体
+            Object object = bindingPlan.spareInstance();
+            List<ExcelToObjectError> excelToObjectErrorList = rowToObject(object, row, bindingPlan, firstErrorPerRow);
+            if (!excelToObjectErrorList.isEmpty()) {
+                return new ResultObject<>(null, row.getRowNum() + 1, excelToObjectErrorList);
+            }
+            bindingPlan.takeSpareInstance();
+            return new ResultObject<>(objectClass.cast(object), row.getRowNum() + 1, excelToObjectErrorList);
+        }
+
+        /**
+         * 在线程池中按顺序转换一组数据行
+         */
+        CompletableFuture<List<ResultObject<O>>> convertAsync(List<ExcelRow> rows, Executor executor) {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = metrics == null ? 0 : System.nanoTime();
+                List<ResultObject<O>> resultObjectList = new ArrayList<>(rows.size());
+                try {
+                    for (ExcelRow row : rows) {
+                        ResultObject<O> resultObject = convert(row);
+                        if (resultObject != null) {
+                            resultObjectList.add(resultObject);
+                        }
+                    }
+                } catch (IllegalAccessException | InstantiationException e) {
+                    throw new CompletionException(e);
+                }
+                if (metrics != null) {
+                    metrics.addConvertNanos(System.nanoTime() - start);
+                }
+                return resultObjectList;
+            }, executor);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = readNext();
+                } catch (IOException e) {
+                    recordFailure(metrics, ImportFailure.EXCEPTION, e);
+                    throw new UncheckedIOException(e);
+                } catch (IllegalAccessException | InstantiationException e) {
+                    recordFailure(metrics, ImportFailure.EXCEPTION, e);
+                    throw new IllegalStateException(e);
+                }
+            }
+            return next != null;
+        }
 
+        @Override
+        public ResultObject<O> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ResultObject<O> resultObject = next;
+            next = null;
+            return resultObject;
+        }
     }
 
 
     /**
      * 检查该单元行是否为空行
      *
-     * @param hssfRow
-     * @param propertyAndIndexMap
+     * @param row
+     * @param bindingPlan
      * @return
      */
-    private boolean hssfRowIsNull(HSSFRow hssfRow, Map<String, Integer> propertyAndIndexMap) {
-        Iterator<String> iter = propertyAndIndexMap.keySet().iterator();
-        while (iter.hasNext()) {
-            String key = iter.next();
-            int index = propertyAndIndexMap.get(key);
-            //获取单位格中的值，并除去空格和特殊符号
-            String cellValue = trimColumnName(getCellValue(hssfRow.getCell(index)));
-            if (!utils.stringIsBlank(cellValue)) {
+    private boolean rowIsNull(ExcelRow row, BindingPlan bindingPlan) {
+        for (int i = 0; i < bindingPlan.size(); i++) {
+            //逐个字符检查单元格，不创建除去空格和特殊符号后的字符串
+            if (!row.isCellBlank(bindingPlan.getColumnIndex(i))) {
                 //只要有一个值不为空，就认为该行不为空
                 return false;
             }
@@ -128,223 +1490,150 @@ public class ExcelToObject {
 
     /**
      * 遍历一行excel，并将每个单元格的值赋值给实体中对应的属性
+     * 错误以压缩的形式保存，没有错误时不分配任何对象
      *
-     * @param propertyAndIndexMap 实体的属性 与 数据列的下标 的映射map
-     * @param hssfRow             单元行
-     * @param object              要填充属性的实体
+     * @param bindingPlan      实体的属性 与 数据列的下标 的绑定计划
+     * @param row              单元行
+     * @param object           要填充属性的实体
+     * @param firstErrorPerRow 出现第一个错误后是否不再处理剩余的列
      * @return
      */
-    private <O> List<ExcelToObjectError> hssfRowToObject(O object, HSSFRow hssfRow, Map<String, Integer> propertyAndIndexMap) {
-        List<ExcelToObjectError> list = new ArrayList<>();
-        Field[] fields = object.getClass().getDeclaredFields();
-        for (Field field : fields) {
-            //获取属性名
-            String name = field.getName();
-            //根据属性名获取 属性值所在的下标
-            Integer index = propertyAndIndexMap.get(name);
-            if (index == null) {
-                continue;
-            }
-            //根据下标获取单元
-            HSSFCell hssfCell = hssfRow.getCell(index);
-            //取出单元格的值，赋给对应的属性
-            ExcelToObjectError error = getCellValueAndSetField(object, field, hssfCell);
-            if (error != null) {
-                error.setRow(hssfRow.getRowNum() + 1);
-                error.setColumn(intToAlphabet(index + 1));
-                list.add(error);
+    private <O> List<ExcelToObjectError> rowToObject(O object, ExcelRow row, BindingPlan bindingPlan,
+                                                     boolean firstErrorPerRow) {
+        long[] errors = null;
+        int errorCount = 0;
+        for (int i = 0; i < bindingPlan.size(); i++) {
+            int index = bindingPlan.getColumnIndex(i);
+            FieldBinding fieldBinding = bindingPlan.getField(i);
+            ExcelMapper<Object> mapper = fieldBinding.getMapper();
+            //取出单元格的值，赋给对应的属性；有生成的映射器时由映射器校验和赋值
+            ErrorCode errorCode = mapper != null
+                    ? mapper.write(object, fieldBinding.getMapperIndex(), row, index, bindingPlan.getOption(i))
+                    : getCellValueAndSetField(object, bindingPlan, i, row, index);
+            if (errorCode != null) {
+                if (errors == null) {
+                    errors = new long[firstErrorPerRow ? 1 : bindingPlan.size() - i];
+                }
+                errors[errorCount++] = PackedErrorList.pack(row.getRowNum() + 1, index, errorCode);
+                if (firstErrorPerRow) {
+                    break;
+                }
             }
         }
-        return list;
+        if (errors == null) {
+            return Collections.emptyList();
+        }
+        return new PackedErrorList(errors, errorCount);
     }
 
     /**
-     * 将指定的自然数转换为26进制表示。映射关系：[1-26] ->[A-Z]。
-     *
-     * @param n
-     * @return
+     * 构造器抛出异常时该行的错误，没有列号，错误信息包含异常的信息
      */
-    private String intToAlphabet(int n) {
-        String s = "";
-        while (n > 0) {
-            int m = n % 26;
-            if (m == 0) {
-                m = 26;
-            }
-            s = (char) (64 + m) + s;
-            n = (n - m) / 26;
-        }
-        return s;
+    private static List<ExcelToObjectError> constructorError(ExcelRow row, RuntimeException e) {
+        Throwable cause = e instanceof IllegalStateException && e.getCause() != null ? e.getCause() : e;
+        String detail = cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+        List<ExcelToObjectError> errorList = new PackedErrorList();
+        errorList.add(new ExcelToObjectError(row.getRowNum() + 1, null,
+                ExcelToObjectError.CONSTRUCTOR_REJECTED + "：" + detail));
+        return errorList;
     }
 
     /**
      * 获取并处理单元格的值
      *
-     * @param field
      * @param object
-     * @param hssfCell
+     * @param bindingPlan
+     * @param i        属性在绑定计划中的下标
+     * @param row
+     * @param index    单元格所在列的下标
      * @throws IllegalAccessException
      */
-    private <O> ExcelToObjectError getCellValueAndSetField(O object, Field field, HSSFCell hssfCell) {
-        ExcelToObjectError excelToObjectError = null;
-
-        if (object == null || field == null) {
-            return null;
+    private <O> ErrorCode getCellValueAndSetField(O object, BindingPlan bindingPlan, int i, ExcelRow row,
+                                                  int index) {
+        FieldBinding fieldBinding = bindingPlan.getField(i);
+        FieldWriter writer = fieldBinding.getWriter();
+        if (!fieldBinding.isTextRequired() && writer.canDecode(row, index)) {
+            //不需要校验时，数值、布尔、日期单元格直接按类型赋值，不转换成字符串
+            return setField(object, writer, null, row, index);
         }
-        //获取单元格的值,并去掉特殊符号和空格
-        String cellValue = trimColumnName(getCellValue(hssfCell));
 
-        Excel excel = field.getAnnotation(Excel.class);
-        if (excel != null) {
-            if (utils.stringIsBlank(cellValue) && excel.notNull()) {
-                //如果excel单元格的值为空，并且属性不允许为空
-                return new ExcelToObjectError(ExcelToObjectError.NOT_NULL);
-            }
-
-            String optionName = excel.optionName();
-            String optionSchema = excel.optionSchema();
+        //获取单元格的值,并去掉特殊符号和空格
+        String cellValue = trimColumnName(row.getCellValue(index));
 
-            //下拉框名称不为空
-            if (!utils.stringIsBlank(optionName)) {
-                if (ExcelConstant.SWITCH.equals(optionSchema)) {
-                    //将单元格中的值换成对应下拉框的value
-                    String optionValue = getCellOptionValue(optionName, cellValue);
-                    if (utils.stringIsBlank(optionValue)) {
-                        return new ExcelToObjectError(ExcelToObjectError.DATA_ILLEGALITY);
-                    }
-                    //替换成下拉框的value值
-                    cellValue = optionValue;
-                }
+        if (utils.stringIsBlank(cellValue) && fieldBinding.isNotNull()) {
+            //如果excel单元格的值为空，并且属性不允许为空
+            return ErrorCode.NOT_NULL;
+        }
 
-                if (ExcelConstant.CHECK.equals(optionSchema)) {
-                    //校验 value值是否合法
-                    if (!cellValueVerify(optionName, cellValue)) {
-                        //校验不通过
-                        return new ExcelToObjectError(ExcelToObjectError.DATA_ILLEGALITY);
-                    }
-                }
+        if (fieldBinding.isOptionSwitch()) {
+            //将单元格中的值换成对应下拉框的value
+            String optionValue = getCellOptionValue(bindingPlan.getOption(i), cellValue);
+            if (utils.stringIsBlank(optionValue)) {
+                return ErrorCode.DATA_ILLEGALITY;
             }
+            //替换成下拉框的value值
+            cellValue = optionValue;
         }
 
-        //获取正则校验注解
-        javax.validation.constraints.Pattern pattern = field.getAnnotation(javax.validation.constraints.Pattern.class);
-        if (pattern != null && !utils.stringIsBlank(pattern.regexp())) {
-            Matcher matcher = Pattern.compile(pattern.regexp()).matcher(cellValue);
-            if (!matcher.matches()) {
-                //完全匹配模式,匹配失败
-                return new ExcelToObjectError(ExcelToObjectError.FORMAT);
+        if (fieldBinding.isOptionCheck()) {
+            //校验 value值是否合法
+            if (!cellValueVerify(bindingPlan.getOption(i), cellValue)) {
+                //校验不通过
+                return ErrorCode.DATA_ILLEGALITY;
             }
         }
 
-        try {
-            setField(object, field, hssfCell, cellValue);
-        } catch (IllegalAccessException e) {
-            excelToObjectError = new ExcelToObjectError(ExcelToObjectError.ILLEGAL_ACCESS);
-        } catch (NumberFormatException e) {
-            excelToObjectError = new ExcelToObjectError(ExcelToObjectError.TYPE_ILLEGALITY);
+        //正则校验
+        Pattern pattern = fieldBinding.getPattern();
+        if (pattern != null && !pattern.matcher(cellValue).matches()) {
+            //完全匹配模式,匹配失败
+            return ErrorCode.FORMAT;
         }
-        return excelToObjectError;
-    }
-
-    /**
-     * 设置 属性值
-     *
-     * @param object   类
-     * @param field    字段
-     * @param hssfCell 单元格
-     * @param value    值
-     * @param <O>
-     * @throws IllegalAccessException
-     */
-    private <O> void setField(O object, Field field, HSSFCell hssfCell, String value)
-            throws IllegalAccessException, NumberFormatException {
-        //设置属性可以修改
-        field.setAccessible(true);
 
-        //获取 属性 的类型
-        String typeName = field.getType().getSimpleName();
-        if ("String".equals(typeName)) {
-            field.set(object, value);
-            return;
-        }
-        if ("int".equals(typeName) || "Integer".equals(typeName)) {
-            field.set(object, Integer.parseInt(value));
-            return;
-        }
-        if ("float".equals(typeName) || "Float".equals(typeName)) {
-            field.set(object, Float.parseFloat(value));
-            return;
-        }
-        if ("double".equals(typeName) || "Double".equals(typeName)) {
-            field.set(object, Double.parseDouble(value));
-            return;
-        }
-        if ("long".equals(typeName) || "Long".equals(typeName)) {
-            field.set(object, Long.parseLong(value));
-            return;
-        }
-        if ("BigDecimal".equals(typeName)) {
-            field.set(object, BigDecimal.valueOf(Double.parseDouble(value)));
-            return;
-        }
-        if ("Date".equals(typeName)) {
-            Date date = utils.autoDate(value);
-            if (date == null) {
-                // 如果Date为空则通过POI的API直接读取Date类型结果
-                date = hssfCell.getDateCellValue();
-            }
-            field.set(object, date);
+        //校验通过的数值、布尔、日期单元格仍然按类型赋值，经过下拉框转换的值除外
+        if (!fieldBinding.isOptionSwitch() && writer.canDecode(row, index)) {
+            cellValue = null;
         }
+        return setField(object, writer, cellValue, row, index);
     }
 
     /**
-     * 得到 excel列名 与 实体属性名 的映射map
+     * 设置 属性值
      *
-     * @param objectClass
-     * @return
+     * @param object 实体
+     * @param writer 属性的写入器
+     * @param value  值，为 null 时直接按单元格的类型读取
+     * @param row    单元行
+     * @param index  单元格所在列的下标
+     * @return 赋值失败时返回错误类型
      */
-    private Map<String, String> getColumnAndPropertyMap(Class objectClass) {
-        Map<String, String> map = new HashMap<>();
-
-        if (objectClass == null) {
-            return map;
-        }
-        Field[] fields = objectClass.getDeclaredFields();
-        //遍历属性列表
-        for (Field field : fields) {
-            //从属性的注解中获取列名
-            Excel excel = field.getAnnotation(Excel.class);
-            if (excel == null) {
-                continue;
-            }
-            String columnName = excel.excelColumnName();
-            if (utils.stringIsBlank(columnName)) {
-                continue;
-            }
-            //获取属性名
-            String propertyName = field.getName();
-            map.put(columnName, propertyName);
+    private <O> ErrorCode setField(O object, FieldWriter writer, String value, ExcelRow row, int index) {
+        ErrorCode errorCode = null;
+        try {
+            writer.write(object, value, row, index);
+        } catch (IllegalAccessException e) {
+            errorCode = ErrorCode.ILLEGAL_ACCESS;
+        } catch (IllegalArgumentException e) {
+            errorCode = ErrorCode.TYPE_ILLEGALITY;
         }
-        return map;
+        return errorCode;
     }
 
     /**
      * 得到excel数据列的列名和对应的下标
      *
-     * @param hssfSheet
-     * @param row       列名所在的行号，行号从0开始
+     * @param row 列名所在的行
      * @return
      */
-    private Map<String, Integer> getColumnAndIndexMap(HSSFSheet hssfSheet, int row) {
-        if (hssfSheet == null) {
+    private Map<String, Integer> getColumnAndIndexMap(ExcelRow row) {
+        if (row == null) {
             return null;
         }
         Map<String, Integer> map = new HashMap<>();
-        HSSFRow hssfRow = hssfSheet.getRow(row);
 
-        for (int i = 0; i < hssfRow.getPhysicalNumberOfCells(); i++) {
+        for (int i = 0; i < row.getPhysicalNumberOfCells(); i++) {
             //获取列名并修剪
-            String columnName = trimColumnName(getCellValue(hssfRow.getCell(i)));
+            String columnName = trimColumnName(row.getCellValue(i));
             if (utils.stringIsBlank(columnName)) {
                 //如果列名为null
                 continue;
@@ -355,51 +1644,40 @@ public class ExcelToObject {
     }
 
     /**
-     * 获取 实体类中属性 与 excel表中 数据列 的下标 对应的map
-     *
-     * @param columnAndPropertyMap <Excel表中数据项的列名,列名对应的实体的属性名> ,
-     * @param columnAndIndexMap    <Excel表中数据项的列名，列的下标>
-     * @return <实体的属性名，excel列的下标>
+     * 文件流的解析来源，注册了监听器时统计读取的字节数
      */
-    private Map<String, Integer> getPropertyAndIndexMap(Map<String, String> columnAndPropertyMap, Map<String, Integer> columnAndIndexMap) {
-        Map<String, Integer> map = new HashMap<>();
-        Iterator<String> iter = columnAndIndexMap.keySet().iterator();
-        while (iter.hasNext()) {
-            String columnName = iter.next();
-            String property = columnAndPropertyMap.get(columnName);
-            if (utils.stringIsBlank(property)) {
-                continue;
-            }
-            int index = columnAndIndexMap.get(columnName);
-            //name 为实体的属性名， value是实体字段值所在excel列的下标
-            map.put(property, index);
-        }
-        return map;
+    private ExcelSource toSource(InputStream inputStream) {
+        return inputStream == null ? null : ExcelSource.of(inputStream, listeners.length > 0);
+    }
+
+    private ExcelSource toSource(Path path) {
+        return path == null ? null : ExcelSource.of(path);
+    }
+
+    private ExcelSource toSource(File file) {
+        return file == null ? null : ExcelSource.of(file.toPath());
     }
 
+    private ExcelSource toSource(FileChannel channel) {
+        return channel == null ? null : ExcelSource.of(channel);
+    }
 
     /**
-     * 从文件流中获取 HSSFSheet 实体
+     * 创建 RowReader，并记录打开文件的耗时和读取的字节数
      *
-     * @param inputStream
-     * @return
-     * @throws IOException
+     * @param streaming xls 文件是否以事件流的方式读取
+     * @return 文件中没有 sheet 时返回 null
      */
-    private HSSFSheet getHSSFSheetByFile(InputStream inputStream) throws IOException {
-        if (inputStream == null) {
-            return null;
-        }
-        //获取 excel 文档实体类
-        HSSFWorkbook hssfWorkbook = new HSSFWorkbook(inputStream);
-
-        // 从第一个Sheet开始获取，获取到就返回
-        for (int numSheet = 0; numSheet < hssfWorkbook.getNumberOfSheets(); numSheet++) {
-            HSSFSheet hssfSheet = hssfWorkbook.getSheetAt(numSheet);
-            if (hssfSheet != null) {
-                return hssfSheet;
-            }
+    private RowReader createRowReader(ExcelSource source, boolean streaming, ImportMetrics metrics)
+            throws IOException {
+        if (metrics == null) {
+            return source.openRowReader(streaming);
         }
-        return null;
+        metrics.setSource(source);
+        long start = System.nanoTime();
+        RowReader rowReader = source.openRowReader(streaming);
+        metrics.setOpenNanos(System.nanoTime() - start);
+        return rowReader;
     }
 
 
@@ -410,85 +1688,193 @@ public class ExcelToObject {
      * @return
      */
     private String trimColumnName(String columnName) {
-        if (columnName == null) {
-            return null;
-        }
-        // 匹配任何空白字符，包括制表符、换页符等等
-        Pattern p = Pattern.compile("\\f|\\n|\\r|\\t|\\v");
-        Matcher m = p.matcher(columnName);
-        return m.replaceAll("").trim();
+        return MapperSupport.trim(columnName);
     }
 
 
     /**
-     * 获取单元格中的值,并转成 String 类型
-     *
-     * @param hssfCell
-     * @return
+     * 将单元格中的值换成对应下拉框的value
      */
-    private String getCellValue(HSSFCell hssfCell) {
-        // 如果是空
-        if (hssfCell == null || hssfCell.getCellType() == HSSFCell.CELL_TYPE_BLANK) {
-            return "";
+    private String getCellOptionValue(OptionDictionary option, String name) {
+        if (option == null) {
+            return null;
         }
+        //根据名称获取值
+        return option.getValue(name);
+    }
 
-        // 如果是布尔类型的值
-        if (hssfCell.getCellType() == HSSFCell.CELL_TYPE_BOOLEAN) {
-            return String.valueOf(hssfCell.getBooleanCellValue());
+    /**
+     * 校验值是否合法
+     */
+    private boolean cellValueVerify(OptionDictionary option, String cellValue) {
+        if (cellValue == null || option == null) {
+            return false;
         }
+        return option.containsValue(cellValue);
+    }
 
-        // 如果是数字类型的值
-        if (hssfCell.getCellType() == HSSFCell.CELL_TYPE_NUMERIC) {
-            // 如果是时间类型的值
-            if (HSSFDateUtil.isCellDateFormatted(hssfCell)) {
-                Date date = hssfCell.getDateCellValue();
-                return new SimpleDateFormat("yyyy-MM-dd hh:mm:ss").format(date);
-            }
-            // 将cell设置成 string 类型，防止获取 数值型 数据时出错
-            hssfCell.setCellType(HSSFCell.CELL_TYPE_STRING);
-            return String.valueOf(hssfCell.getStringCellValue());
+    /**
+     * 开始记录一次解析
+     *
+     * @return 没有注册监听器时返回 null，不记录任何指标
+     */
+    private ImportMetrics startImport(Class<?> objectClass, String sheetName) {
+        if (listeners.length == 0) {
+            return null;
         }
-
-        //如果是公式
-        if (hssfCell.getCellType() == Cell.CELL_TYPE_FORMULA) {
-            String value;
+        ImportMetrics metrics = new ImportMetrics(objectClass, sheetName);
+        for (ImportListener listener : listeners) {
             try {
-                value = String.valueOf(hssfCell.getNumericCellValue());
-            } catch (IllegalStateException e) {
-                value = String.valueOf(hssfCell.getRichStringCellValue());
+                listener.onImportStarted(metrics);
+            } catch (RuntimeException e) {
+                // 监听器的异常不影响解析
             }
-            return value;
         }
+        return metrics;
+    }
 
-        // 返回字符串类型的值
-        return String.valueOf(hssfCell.getStringCellValue());
+    /**
+     * 记录解析没有得到结果的原因，只保留第一个原因
+     */
+    private static void recordFailure(ImportMetrics metrics, ImportFailure failure, Throwable cause) {
+        if (metrics != null) {
+            metrics.fail(failure, cause);
+        }
     }
 
     /**
-     * 将单元格中的值换成对应下拉框的value
+     * 结束记录并通知监听器，重复调用时只通知一次
      */
-    private String getCellOptionValue(String optionName, String name) {
-        // 根据下列框名称获取下拉框
-        Map<String, String> o = optionMap.get(optionName);
-        if (o == null) {
-            return null;
+    private void finishImport(ImportMetrics metrics) {
+        if (metrics == null || !metrics.finish()) {
+            return;
+        }
+        for (ImportListener listener : listeners) {
+            try {
+                if (metrics.getFailure() == null) {
+                    listener.onImportFinished(metrics);
+                } else {
+                    listener.onImportFailed(metrics, metrics.getFailure(), metrics.getFailureCause());
+                }
+            } catch (RuntimeException e) {
+                // 监听器的异常不影响解析
+            }
         }
-        //根据名称获取值
-        return o.get(name);
     }
 
     /**
-     * 校验值是否合法
+     * ExcelToObject 的构建器，下拉框的索引和实体类的绑定信息在 build 之前准备好
      */
-    private boolean cellValueVerify(String optionName, String cellValue) {
-        if (cellValue == null) {
-            return false;
+    public static final class Builder {
+
+        private final Map<String, Map<String, String>> optionMap = new HashMap<>();
+
+        private final List<ImportListener> listeners = new ArrayList<>();
+
+        private ImportOptions importOptions = ImportOptions.defaults();
+
+        private ResultCache resultCache;
+
+        private Builder() {
         }
-        // 根据下列框名称获取下拉框
-        Map<String, String> o = optionMap.get(optionName);
-        if (o == null) {
-            return false;
+
+        /**
+         * 添加多个下拉框
+         *
+         * @param optionMap 下拉框名称 与 下拉框 的映射map
+         */
+        public Builder optionMap(Map<String, Map<String, String>> optionMap) {
+            if (optionMap != null) {
+                this.optionMap.putAll(optionMap);
+            }
+            return this;
+        }
+
+        /**
+         * 添加一个下拉框
+         *
+         * @param optionName 下拉框的名称
+         * @param option     下拉框的 name 与 value 的映射map
+         */
+        public Builder option(String optionName, Map<String, String> option) {
+            this.optionMap.put(optionName, option);
+            return this;
+        }
+
+        /**
+         * 预先解析实体类的绑定信息，第一次解析时不需要再读取注解
+         *
+         * @param objectClasses 实体类 class
+         * @throws IllegalArgumentException 实体类中没有打上 @Excel 注解的属性
+         */
+        public Builder bind(Class<?>... objectClasses) {
+            for (Class<?> objectClass : objectClasses) {
+                if (ClassBinding.of(objectClass).isEmpty()) {
+                    throw new IllegalArgumentException(objectClass.getName() + " 中没有打上 @Excel 注解的属性");
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 注册解析过程的监听器
+         *
+         * @param listener 监听器，需要是线程安全的
+         */
+        public Builder listener(ImportListener listener) {
+            if (listener != null) {
+                listeners.add(listener);
+            }
+            return this;
+        }
+
+        /**
+         * 注册通过 ServiceLoader 声明的监听器，即 META-INF/services/core.ImportListener 中列出的实现类
+         */
+        public Builder serviceListeners() {
+            for (ImportListener listener : ServiceLoader.load(ImportListener.class)) {
+                listeners.add(listener);
+            }
+            return this;
+        }
+
+        /**
+         * 将每次解析记录为 JFR 事件 e2o.Import，运行环境不支持 JFR 时忽略
+         */
+        public Builder jfrEvents() {
+            try {
+                Class.forName("jdk.jfr.Event");
+                // 通过反射创建，不支持 JFR 的运行环境不会加载 jfr 包中的类
+                listeners.add((ImportListener) Class.forName(ExcelConstant.JFR_LISTENER_CLASS)
+                        .getDeclaredConstructor().newInstance());
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // 运行环境不支持 JFR
+            }
+            return this;
+        }
+
+        /**
+         * 设置默认的解析选项，可以再通过 withImportOptions 创建使用其他选项的 ExcelToObject
+         */
+        public Builder importOptions(ImportOptions importOptions) {
+            this.importOptions = importOptions == null ? ImportOptions.defaults() : importOptions;
+            return this;
+        }
+
+        /**
+         * 设置解析结果的缓存，只用于 getExcelToObjectResult 和 getExcelToObjectResultByStreaming
+         *
+         * @param resultCache 为 null 时不使用缓存
+         */
+        public Builder resultCache(ResultCache resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
+        public ExcelToObject build() {
+            return new ExcelToObject(
+                    new AtomicReference<>(OptionSnapshot.EMPTY.replaceAll(OptionDictionary.indexAll(optionMap))),
+                    listeners.toArray(new ImportListener[0]), importOptions, resultCache);
         }
-        return o.containsValue(cellValue);
     }
 }
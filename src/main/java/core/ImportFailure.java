@@ -0,0 +1,57 @@
+package core;
+
+/**
+ * 解析没有得到结果的原因，对应解析方法返回 null 或抛出异常的各种情况
+ */
+public enum ImportFailure {
+
+    /**
+     * 文件流或实体类为空
+     */
+    ILLEGAL_ARGUMENT("参数为空"),
+
+    /**
+     * 文件中没有可以读取的 sheet
+     */
+    NO_SHEET("文件中没有 sheet"),
+
+    /**
+     * 实体类中没有打上 @Excel 注解的属性
+     */
+    NO_EXCEL_FIELD("实体类中没有打上 @Excel 注解的属性"),
+
+    /**
+     * 列名所在的行不存在
+     */
+    HEADER_ROW_MISSING("列名所在的行不存在"),
+
+    /**
+     * 列名所在的行中没有任何列名
+     */
+    HEADER_EMPTY("列名所在的行中没有列名"),
+
+    /**
+     * 没有任何列名与实体类的属性匹配
+     */
+    NO_COLUMN_MATCHED("没有列名与实体类的属性匹配"),
+
+    /**
+     * 唯一键中的列不在文件中，或者被 ImportOptions.fields 排除，只按部分列判断重复会误删数据
+     */
+    KEY_COLUMN_MISSING("唯一键中的列不在文件中"),
+
+    /**
+     * 解析过程中抛出了异常
+     */
+    EXCEPTION("解析过程中抛出异常");
+
+    private final String msg;
+
+    ImportFailure(String msg) {
+        this.msg = msg;
+    }
+
+    public String getMsg() {
+        return msg;
+    }
+}
@@ -0,0 +1,31 @@
+package core;
+
+/**
+ * 解析过程的监听器，通过 ExcelToObject.Builder.listener 注册
+ * 每次解析（多 sheet 解析时每个 sheet）产生一个 ImportMetrics，开始时回调 onImportStarted，
+ * 结束时回调 onImportFinished 或 onImportFailed 中的一个；回调在发起解析的线程中执行，监听器需要是线程安全的
+ */
+public interface ImportListener {
+
+    /**
+     * 解析开始，此时只有实体类和 sheet 名称可用
+     */
+    default void onImportStarted(ImportMetrics metrics) {
+    }
+
+    /**
+     * 解析完成并得到了结果
+     */
+    default void onImportFinished(ImportMetrics metrics) {
+    }
+
+    /**
+     * 解析没有得到结果
+     *
+     * @param metrics 已经记录的指标
+     * @param failure 原因
+     * @param cause   抛出的异常，解析方法返回 null 时为 null
+     */
+    default void onImportFailed(ImportMetrics metrics, ImportFailure failure, Throwable cause) {
+    }
+}
@@ -0,0 +1,279 @@
+package core;
+
+import entity.ExcelToObjectError;
+import entity.PackedErrorList;
+import entity.ResultObject;
+import entity.StopReason;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一次解析的各阶段耗时和计数，只在注册了 ImportListener 时记录
+ * 各阶段的耗时：打开文件、读取列名行并匹配属性、读取数据行、转换和校验数据行，并行转换时转换耗时是各线程的累计值
+ */
+public final class ImportMetrics {
+
+    private final Class<?> objectClass;
+
+    private final String sheetName;
+
+    private final long startNanos;
+
+    private volatile long endNanos;
+
+    private long openNanos;
+
+    private long headerNanos;
+
+    private long readNanos;
+
+    /**
+     * 并行转换时由多个线程累加
+     */
+    private final LongAdder convertNanos = new LongAdder();
+
+    /**
+     * 解析的文件，用于统计读取的字节数，多 sheet 解析时各个 sheet 共享
+     */
+    private ExcelSource source;
+
+    private long rowCount;
+
+    private long errorRowCount;
+
+    private long errorCount;
+
+    /**
+     * 列号 与 该列各种错误的数量 的映射map
+     */
+    private final Map<String, Map<String, Long>> columnErrorCountMap = new LinkedHashMap<>();
+
+    /**
+     * 错误信息 与 数量 的映射map
+     */
+    private final Map<String, Long> errorCountMap = new LinkedHashMap<>();
+
+    private StopReason stopReason = StopReason.COMPLETED;
+
+    /**
+     * 结果是否来自 ResultCache，命中时不会读取和转换数据行
+     */
+    private boolean cacheHit;
+
+    private ImportFailure failure;
+
+    private Throwable failureCause;
+
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    ImportMetrics(Class<?> objectClass, String sheetName) {
+        this.objectClass = objectClass;
+        this.sheetName = sheetName;
+        this.startNanos = System.nanoTime();
+    }
+
+    void setOpenNanos(long openNanos) {
+        this.openNanos = openNanos;
+    }
+
+    void setHeaderNanos(long headerNanos) {
+        this.headerNanos = headerNanos;
+    }
+
+    void addReadNanos(long nanos) {
+        readNanos += nanos;
+    }
+
+    void addConvertNanos(long nanos) {
+        convertNanos.add(nanos);
+    }
+
+    void setSource(ExcelSource source) {
+        this.source = source;
+    }
+
+    /**
+     * 记录一行的转换结果，只在合并结果的线程中调用
+     */
+    void recordRow(ResultObject<?> resultObject) {
+        rowCount++;
+        if (resultObject.isSuccess()) {
+            return;
+        }
+        errorRowCount++;
+        List<ExcelToObjectError> errorList = resultObject.getErrorList();
+        if (errorList instanceof PackedErrorList) {
+            // 不创建错误对象
+            PackedErrorList packedErrorList = (PackedErrorList) errorList;
+            for (int i = 0; i < packedErrorList.size(); i++) {
+                recordError(packedErrorList.getColumn(i), packedErrorList.getMsg(i));
+            }
+        } else {
+            for (ExcelToObjectError error : errorList) {
+                recordError(error.getColumn(), error.getMsg());
+            }
+        }
+    }
+
+    private void recordError(String column, String msg) {
+        errorCount++;
+        errorCountMap.merge(msg, 1L, Long::sum);
+        columnErrorCountMap.computeIfAbsent(column, key -> new LinkedHashMap<>()).merge(msg, 1L, Long::sum);
+    }
+
+    void setStopReason(StopReason stopReason) {
+        this.stopReason = stopReason;
+    }
+
+    void setCacheHit(boolean cacheHit) {
+        this.cacheHit = cacheHit;
+    }
+
+    void fail(ImportFailure failure, Throwable cause) {
+        if (this.failure == null) {
+            this.failure = failure;
+            this.failureCause = cause;
+        }
+    }
+
+    /**
+     * 标记解析结束，只有第一次调用返回 true
+     */
+    boolean finish() {
+        if (!finished.compareAndSet(false, true)) {
+            return false;
+        }
+        endNanos = System.nanoTime();
+        return true;
+    }
+
+    public Class<?> getObjectClass() {
+        return objectClass;
+    }
+
+    /**
+     * 多 sheet 解析时为 sheet 名称，其他情况为 null
+     */
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    /**
+     * 解析开始的时刻，System.nanoTime 的值
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * 解析的总耗时，解析未结束时为到目前为止的耗时
+     */
+    public long getTotalNanos() {
+        long end = endNanos;
+        return (end == 0 ? System.nanoTime() : end) - startNanos;
+    }
+
+    /**
+     * 识别文件格式并打开文件的耗时，xls 文件包含整个工作簿的加载
+     */
+    public long getOpenNanos() {
+        return openNanos;
+    }
+
+    /**
+     * 读取列名所在的行、得到列名与下标的映射、与实体类的属性匹配的耗时
+     */
+    public long getHeaderNanos() {
+        return headerNanos;
+    }
+
+    /**
+     * 读取数据行的耗时
+     */
+    public long getReadNanos() {
+        return readNanos;
+    }
+
+    /**
+     * 将数据行转换成对象的耗时，包括下拉框、非空、正则校验
+     */
+    public long getConvertNanos() {
+        return convertNanos.sum();
+    }
+
+    /**
+     * 从文件流中读取的字节数，解析磁盘上的文件时为文件的大小，多 sheet 解析时为整个文件的；从 RowReader 解析时为 0
+     */
+    public long getBytesRead() {
+        return source == null ? 0 : source.getBytesRead();
+    }
+
+    /**
+     * 转换过的数据行数，不包括空行
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getSuccessRowCount() {
+        return rowCount - errorRowCount;
+    }
+
+    public long getErrorRowCount() {
+        return errorRowCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * 每秒转换的行数，按总耗时计算
+     */
+    public double getRowsPerSecond() {
+        long totalNanos = getTotalNanos();
+        return totalNanos <= 0 ? 0 : rowCount * (double) TimeUnit.SECONDS.toNanos(1) / totalNanos;
+    }
+
+    /**
+     * 列号 与 该列各种错误的数量 的映射map
+     */
+    public Map<String, Map<String, Long>> getColumnErrorCountMap() {
+        return Collections.unmodifiableMap(columnErrorCountMap);
+    }
+
+    /**
+     * 错误信息 与 数量 的映射map
+     */
+    public Map<String, Long> getErrorCountMap() {
+        return Collections.unmodifiableMap(errorCountMap);
+    }
+
+    /**
+     * 解析结束的原因，按 ErrorPolicy 提前停止时不是 COMPLETED
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    public boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    /**
+     * 解析没有得到结果的原因，成功时为 null
+     */
+    public ImportFailure getFailure() {
+        return failure;
+    }
+
+    public Throwable getFailureCause() {
+        return failureCause;
+    }
+}
@@ -0,0 +1,218 @@
+package core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 解析的选项，创建后不可变，通过 ExcelToObject.withImportOptions 或 ExcelToObject.Builder.importOptions 使用
+ */
+public final class ImportOptions {
+
+    private static final ImportOptions DEFAULT = builder().build();
+
+    /**
+     * 遇到错误时的处理方式
+     */
+    private final ErrorPolicy errorPolicy;
+
+    /**
+     * 唯一键的列名，为空时使用 @Excel(key = true) 的属性
+     */
+    private final Set<String> keyColumns;
+
+    /**
+     * 判断重复时是否保存唯一键本身，而不是只保存哈希值
+     */
+    private final boolean exactKeys;
+
+    /**
+     * 写入 BatchSink 时每个批次的对象数
+     */
+    private final int sinkBatchSize;
+
+    /**
+     * 等待写入的批次数的上限
+     */
+    private final int sinkQueueCapacity;
+
+    /**
+     * 需要绑定的属性名，为空时绑定所有属性
+     */
+    private final Set<String> fields;
+
+    /**
+     * 在创建实体之前判断是否转换该行，为 null 时转换所有非空行
+     */
+    private final Predicate<RawRow> rowFilter;
+
+    private ImportOptions(Builder builder) {
+        this.errorPolicy = builder.errorPolicy;
+        this.keyColumns = Collections.unmodifiableSet(new LinkedHashSet<>(builder.keyColumns));
+        this.exactKeys = builder.exactKeys;
+        this.sinkBatchSize = builder.sinkBatchSize;
+        this.sinkQueueCapacity = builder.sinkQueueCapacity;
+        this.fields = Collections.unmodifiableSet(new LinkedHashSet<>(builder.fields));
+        this.rowFilter = builder.rowFilter;
+    }
+
+    /**
+     * 默认选项，收集所有错误
+     */
+    public static ImportOptions defaults() {
+        return DEFAULT;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 以当前选项为基础创建构建器
+     */
+    public Builder toBuilder() {
+        return new Builder().errorPolicy(errorPolicy).keyColumns(keyColumns.toArray(new String[0]))
+                .exactKeys(exactKeys).sinkBatchSize(sinkBatchSize).sinkQueueCapacity(sinkQueueCapacity)
+                .fields(fields.toArray(new String[0])).rowFilter(rowFilter);
+    }
+
+    public ErrorPolicy getErrorPolicy() {
+        return errorPolicy;
+    }
+
+    public Set<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    public boolean isExactKeys() {
+        return exactKeys;
+    }
+
+    public int getSinkBatchSize() {
+        return sinkBatchSize;
+    }
+
+    public int getSinkQueueCapacity() {
+        return sinkQueueCapacity;
+    }
+
+    /**
+     * 影响解析结果的选项组成的字符串，用于 ResultCache 的键，不包括写入 BatchSink 的选项
+     */
+    String cacheKey() {
+        return errorPolicy.getMaxErrors() + "," + errorPolicy.getMaxErrorRate() + "," + errorPolicy.getSampleRows()
+                + "," + errorPolicy.isFirstErrorPerRow() + "," + keyColumns + "," + exactKeys + "," + fields;
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    public Predicate<RawRow> getRowFilter() {
+        return rowFilter;
+    }
+
+    public static final class Builder {
+
+        private ErrorPolicy errorPolicy = ErrorPolicy.collectAll();
+
+        private final Set<String> keyColumns = new LinkedHashSet<>();
+
+        private boolean exactKeys;
+
+        private int sinkBatchSize = 1000;
+
+        private int sinkQueueCapacity = 2;
+
+        private final Set<String> fields = new LinkedHashSet<>();
+
+        private Predicate<RawRow> rowFilter;
+
+        private Builder() {
+        }
+
+        /**
+         * @param errorPolicy 为 null 时收集所有错误
+         */
+        public Builder errorPolicy(ErrorPolicy errorPolicy) {
+            this.errorPolicy = errorPolicy == null ? ErrorPolicy.collectAll() : errorPolicy;
+            return this;
+        }
+
+        /**
+         * 指定唯一键的列名，替换 @Excel(key = true) 的设置，所有唯一键的值都相同的行被认为是重复数据
+         * 唯一键中有列不在文件中时解析失败，返回 null，原因为 ImportFailure.KEY_COLUMN_MISSING
+         *
+         * @param columnNames excel 的列名，为空时使用 @Excel(key = true) 的属性
+         */
+        public Builder keyColumns(String... columnNames) {
+            keyColumns.clear();
+            if (columnNames != null) {
+                keyColumns.addAll(Arrays.asList(columnNames));
+            }
+            return this;
+        }
+
+        /**
+         * 判断重复时保存唯一键本身，没有误判，但占用的内存与唯一键的大小有关
+         * 默认只保存唯一键的64位哈希值，每行占用约16字节
+         */
+        public Builder exactKeys(boolean exactKeys) {
+            this.exactKeys = exactKeys;
+            return this;
+        }
+
+        /**
+         * 写入 BatchSink 时每个批次的对象数，默认1000
+         */
+        public Builder sinkBatchSize(int sinkBatchSize) {
+            if (sinkBatchSize < 1) {
+                throw new IllegalArgumentException("sinkBatchSize 必须大于0");
+            }
+            this.sinkBatchSize = sinkBatchSize;
+            return this;
+        }
+
+        /**
+         * 等待写入的批次数的上限，达到上限时解析暂停，直到写入线程取走一个批次，默认2
+         */
+        public Builder sinkQueueCapacity(int sinkQueueCapacity) {
+            if (sinkQueueCapacity < 1) {
+                throw new IllegalArgumentException("sinkQueueCapacity 必须大于0");
+            }
+            this.sinkQueueCapacity = sinkQueueCapacity;
+            return this;
+        }
+
+        /**
+         * 只绑定指定的属性，其余带 @Excel 注解的属性不读取、不校验，保持默认值
+         * 唯一键的属性不在其中时解析失败，返回 null，原因为 ImportFailure.KEY_COLUMN_MISSING
+         *
+         * @param fieldNames 实体类的属性名，为空时绑定所有属性
+         */
+        public Builder fields(String... fieldNames) {
+            fields.clear();
+            if (fieldNames != null) {
+                fields.addAll(Arrays.asList(fieldNames));
+            }
+            return this;
+        }
+
+        /**
+         * 在创建实体之前按单元格的原始值判断是否转换该行，返回 false 的行直接跳过，不出现在结果和错误中
+         * 并行解析时会在多个线程中同时调用
+         *
+         * @param rowFilter 为 null 时转换所有非空行
+         */
+        public Builder rowFilter(Predicate<RawRow> rowFilter) {
+            this.rowFilter = rowFilter;
+            return this;
+        }
+
+        public ImportOptions build() {
+            return new ImportOptions(this);
+        }
+    }
+}
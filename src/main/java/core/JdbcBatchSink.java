@@ -0,0 +1,129 @@
+package core;
+
+import entity.ResultObject;
+import entity.SinkError;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 通过 JDBC 批量执行同一条语句的 BatchSink，每个批次在一个事务中执行
+ * 批量执行、提交或设置参数失败时回滚该批次，再逐行执行并逐行提交，得到每一行的写入结果；
+ * 恢复自动提交之前总是已经提交或回滚，不会因为恢复自动提交而提交执行了一半的批次
+ *
+ * @param <O> 实体类型
+ */
+public class JdbcBatchSink<O> implements BatchSink<O> {
+
+    private final DataSource dataSource;
+
+    /**
+     * 带参数的语句，如 insert into t (a, b) values (?, ?)
+     */
+    private final String sql;
+
+    private final StatementBinder<O> binder;
+
+    /**
+     * @param dataSource 每个批次从中获取一个连接，写入完成后关闭
+     * @param sql        带参数的语句
+     * @param binder     将一个对象的属性设置到语句的参数中
+     */
+    public JdbcBatchSink(DataSource dataSource, String sql, StatementBinder<O> binder) {
+        if (dataSource == null || sql == null || binder == null) {
+            throw new IllegalArgumentException("dataSource、sql 和 binder 不能为空");
+        }
+        this.dataSource = dataSource;
+        this.sql = sql;
+        this.binder = binder;
+    }
+
+    @Override
+    public List<SinkError> write(List<ResultObject<O>> batch) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                if (executeBatch(connection, batch)) {
+                    return Collections.emptyList();
+                }
+                return executeEach(connection, batch);
+            } catch (SQLException | RuntimeException e) {
+                // 恢复自动提交时会提交未结束的事务，先回滚
+                rollbackQuietly(connection);
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * 在一个事务中批量执行
+     *
+     * @return 有行设置参数或执行失败，或者提交失败，批次已经回滚时返回 false
+     */
+    private boolean executeBatch(Connection connection, List<ResultObject<O>> batch) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (ResultObject<O> resultObject : batch) {
+                binder.bind(statement, resultObject.getObject());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            connection.commit();
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            // 驱动在第一个失败后是否继续执行各不相同，回滚后逐行执行
+            connection.rollback();
+            return false;
+        }
+    }
+
+    /**
+     * 逐行执行并提交，记录每一行的错误，包括 binder 抛出的运行时异常
+     */
+    private List<SinkError> executeEach(Connection connection, List<ResultObject<O>> batch) throws SQLException {
+        List<SinkError> sinkErrorList = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (ResultObject<O> resultObject : batch) {
+                try {
+                    statement.clearParameters();
+                    binder.bind(statement, resultObject.getObject());
+                    statement.executeUpdate();
+                    connection.commit();
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    sinkErrorList.add(new SinkError(resultObject.getRow(), e));
+                }
+            }
+        }
+        return sinkErrorList;
+    }
+
+    /**
+     * 回滚失败时连接通常已经不可用，保留原来的异常
+     */
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            // 忽略
+        }
+    }
+
+    /**
+     * 将一个对象的属性设置到语句的参数中
+     *
+     * @param <O> 实体类型
+     */
+    @FunctionalInterface
+    public interface StatementBinder<O> {
+
+        void bind(PreparedStatement statement, O object) throws SQLException;
+    }
+}
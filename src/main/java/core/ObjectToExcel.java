@@ -0,0 +1,333 @@
+package core;
+
+import binding.ClassBinding;
+import binding.FieldBinding;
+import binding.OptionDictionary;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import util.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 将打上 @Excel 注解的实体写入 excel，列名、列的顺序和下拉框与解析时相同，导出的文件可以直接再解析
+ * xlsx 通过 SXSSFWorkbook 只在内存中保留最近的 windowSize 行，其余的行写入临时文件，内存占用与行数无关；
+ * xls 格式没有流式的写入方式，按顺序逐行写入 HSSFWorkbook，每个 sheet 最多 65536 行
+ * 行数超过格式的上限时自动写入下一个 sheet；日期单元格的样式每个工作簿只创建一次，其余单元格不设置样式
+ */
+public final class ObjectToExcel {
+
+    /**
+     * 日期单元格的格式，LocalDate 只显示日期
+     */
+    private static final String DATE_FORMAT = "yyyy-mm-dd";
+
+    private static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+    /**
+     * double 只能精确表示15位有效数字，超过的整数和 BigDecimal 以字符串写入，再解析时不丢失精度
+     */
+    private static final int MAX_NUMERIC_PRECISION = 15;
+
+    private static final long MAX_NUMERIC_LONG = 999999999999999L;
+
+    /**
+     * 每次导出开始时取一次下拉框快照
+     */
+    private final Supplier<OptionSnapshot> optionSnapshot;
+
+    /**
+     * xlsx 在内存中保留的行数
+     */
+    private final int windowSize;
+
+    public ObjectToExcel(Map<String, Map<String, String>> optionMap) {
+        this(constant(OptionSnapshot.EMPTY.replaceAll(OptionDictionary.indexAll(optionMap))),
+                SXSSFWorkbook.DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * 使用 ExcelToObject 的下拉框，刷新 ExcelToObject 的下拉框对之后的导出同样生效
+     */
+    public ObjectToExcel(ExcelToObject excelToObject) {
+        this(excelToObject::getOptionSnapshot, SXSSFWorkbook.DEFAULT_WINDOW_SIZE);
+    }
+
+    private ObjectToExcel(Supplier<OptionSnapshot> optionSnapshot, int windowSize) {
+        this.optionSnapshot = optionSnapshot;
+        this.windowSize = windowSize;
+    }
+
+    private static Supplier<OptionSnapshot> constant(OptionSnapshot snapshot) {
+        return () -> snapshot;
+    }
+
+    /**
+     * 创建 xlsx 在内存中保留指定行数的 ObjectToExcel，与当前对象使用相同的下拉框
+     *
+     * @param windowSize 在内存中保留的行数，超过的行写入临时文件
+     */
+    public ObjectToExcel withWindowSize(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize 必须大于0");
+        }
+        return new ObjectToExcel(optionSnapshot, windowSize);
+    }
+
+    /**
+     * 将实体写入磁盘上的文件，文件名以 .xls 结尾时写入 xls 格式，否则写入 xlsx 格式
+     *
+     * @param objects     要导出的实体，按顺序逐个读取
+     * @param objectClass 实体类 class
+     * @param path        文件的路径，已存在时覆盖
+     * @return 写入的数据行数
+     */
+    public <O> int write(Iterable<? extends O> objects, Class<O> objectClass, Path path) throws IOException {
+        ExcelFormat format = path.toString().toLowerCase().endsWith(".xls") ? ExcelFormat.XLS : ExcelFormat.XLSX;
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            return write(objects, objectClass, format, outputStream);
+        }
+    }
+
+    /**
+     * 将流中的实体写入 excel，不关闭流
+     *
+     * @param objects      要导出的实体，按顺序逐个读取
+     * @param objectClass  实体类 class
+     * @param format       文件格式
+     * @param outputStream 写入的文件流，不会被关闭
+     * @return 写入的数据行数
+     */
+    public <O> int write(Stream<? extends O> objects, Class<O> objectClass, ExcelFormat format,
+                         OutputStream outputStream) throws IOException {
+        // objectClass::cast 在创建方法引用时就会访问 objectClass，需要先检查参数
+        if (objects == null || objectClass == null || format == null || outputStream == null) {
+            throw new IllegalArgumentException("参数不能为空");
+        }
+        Stream<O> stream = objects.map(objectClass::cast);
+        return write(stream::iterator, objectClass, format, outputStream);
+    }
+
+    /**
+     * 将实体写入 excel，第一行为列名，之后每个实体一行，值为 null 的属性不创建单元格
+     * 下拉框为 SWITCH 模式的属性将 value 转换回 name，下拉框中没有的 value 原样写入
+     *
+     * @param objects      要导出的实体，按顺序逐个读取
+     * @param objectClass  实体类 class
+     * @param format       文件格式
+     * @param outputStream 写入的文件流，不会被关闭
+     * @return 写入的数据行数
+     */
+    public <O> int write(Iterable<? extends O> objects, Class<O> objectClass, ExcelFormat format,
+                         OutputStream outputStream) throws IOException {
+        if (objects == null || objectClass == null || format == null || outputStream == null) {
+            throw new IllegalArgumentException("参数不能为空");
+        }
+        ClassBinding classBinding = ClassBinding.of(objectClass);
+        if (classBinding.isEmpty()) {
+            throw new IllegalArgumentException(objectClass.getName() + " 中没有打上 @Excel 注解的属性");
+        }
+        // 不使用共享字符串表，字符串直接写入单元格，内存占用与不同字符串的个数无关
+        Workbook workbook = format == ExcelFormat.XLSX
+                ? new SXSSFWorkbook(null, windowSize, false, false) : new HSSFWorkbook();
+        try {
+            int count = new SheetWriter(workbook, classBinding, format, optionSnapshot.get()).write(objects);
+            workbook.write(outputStream);
+            return count;
+        } finally {
+            if (workbook instanceof SXSSFWorkbook) {
+                // 删除临时文件
+                ((SXSSFWorkbook) workbook).dispose();
+            }
+            workbook.close();
+        }
+    }
+
+    /**
+     * 一次导出的状态，按顺序写入各个 sheet
+     */
+    private static final class SheetWriter {
+
+        private final Workbook workbook;
+
+        private final FieldBinding[] fields;
+
+        /**
+         * 每一列 SWITCH 模式的下拉框，不是 SWITCH 模式或下拉框不存在时为 null
+         */
+        private final OptionDictionary[] switchOptions;
+
+        private final int maxRows;
+
+        private final ZoneId zoneId = ZoneId.systemDefault();
+
+        /**
+         * 日期单元格的样式，第一次使用时创建
+         */
+        private CellStyle dateStyle;
+
+        private CellStyle dateTimeStyle;
+
+        private Sheet sheet;
+
+        /**
+         * 当前 sheet 中下一行的行号
+         */
+        private int rowNum;
+
+        SheetWriter(Workbook workbook, ClassBinding classBinding, ExcelFormat format, OptionSnapshot snapshot) {
+            this.workbook = workbook;
+            this.maxRows = format.getMaxRows();
+            this.fields = new FieldBinding[classBinding.size()];
+            this.switchOptions = new OptionDictionary[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = classBinding.getField(i);
+                if (fields[i].isOptionSwitch()) {
+                    switchOptions[i] = snapshot.getDictionaryMap().get(fields[i].getOptionName());
+                }
+            }
+        }
+
+        int write(Iterable<?> objects) {
+            int count = 0;
+            for (Object object : objects) {
+                if (sheet == null || rowNum >= maxRows) {
+                    newSheet();
+                }
+                Row row = sheet.createRow(rowNum++);
+                for (int i = 0; i < fields.length; i++) {
+                    Object value;
+                    try {
+                        value = fields[i].getValue(object);
+                    } catch (IllegalAccessException e) {
+                        // 属性在创建 FieldBinding 时已经设置为可访问
+                        throw new IllegalStateException(e);
+                    }
+                    if (value != null) {
+                        setCellValue(row.createCell(i), value, switchOptions[i]);
+                    }
+                }
+                count++;
+            }
+            if (sheet == null) {
+                newSheet();
+            }
+            return count;
+        }
+
+        /**
+         * 创建下一个 sheet，并写入列名
+         */
+        private void newSheet() {
+            sheet = workbook.createSheet("Sheet" + (workbook.getNumberOfSheets() + 1));
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < fields.length; i++) {
+                header.createCell(i).setCellValue(fields[i].getColumnName());
+            }
+            rowNum = 1;
+        }
+
+        /**
+         * 按值的类型写入单元格，与解析时的转换相对应
+         *
+         * @param option SWITCH 模式的下拉框，没有时为 null
+         */
+        private void setCellValue(Cell cell, Object value, OptionDictionary option) {
+            if (option != null) {
+                String text = value.toString();
+                String name = option.getName(text);
+                cell.setCellValue(name == null ? text : name);
+            } else if (value instanceof String) {
+                cell.setCellValue((String) value);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                cell.setCellValue(((Number) value).intValue());
+            } else if (value instanceof Long) {
+                long number = (Long) value;
+                if (Math.abs(number) <= MAX_NUMERIC_LONG) {
+                    cell.setCellValue(number);
+                } else {
+                    cell.setCellValue(value.toString());
+                }
+            } else if (value instanceof Double || value instanceof Float) {
+                // float 按十进制的显示值转换，避免写入 1.100000023841858 这样的值
+                double number = value instanceof Float ? Double.parseDouble(value.toString()) : (Double) value;
+                if (Double.isNaN(number) || Double.isInfinite(number)) {
+                    cell.setCellValue(value.toString());
+                } else {
+                    cell.setCellValue(number);
+                }
+            } else if (value instanceof BigDecimal) {
+                BigDecimal number = (BigDecimal) value;
+                if (number.precision() <= MAX_NUMERIC_PRECISION) {
+                    cell.setCellValue(number.doubleValue());
+                } else {
+                    cell.setCellValue(number.toPlainString());
+                }
+            } else if (value instanceof Boolean) {
+                cell.setCellValue((Boolean) value);
+            } else if (value instanceof LocalDate) {
+                setDateValue(cell, ((LocalDate) value).atStartOfDay(), getDateStyle());
+            } else if (value instanceof LocalDateTime) {
+                setDateValue(cell, (LocalDateTime) value, getDateTimeStyle());
+            } else if (value instanceof Date) {
+                setDateValue(cell, LocalDateTime.ofInstant(((Date) value).toInstant(), zoneId), getDateTimeStyle());
+            } else if (value instanceof Instant) {
+                setDateValue(cell, LocalDateTime.ofInstant((Instant) value, zoneId), getDateTimeStyle());
+            } else if (value instanceof Enum) {
+                cell.setCellValue(((Enum<?>) value).name());
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+
+        /**
+         * excel 无法表示 1900 年之前的日期，以字符串写入
+         */
+        private void setDateValue(Cell cell, LocalDateTime dateTime, CellStyle style) {
+            double date = utils.localDateTimeToExcelDate(dateTime);
+            if (date < 0) {
+                cell.setCellValue(utils.DATE_TIME_FORMATTER.format(dateTime));
+                return;
+            }
+            cell.setCellValue(date);
+            cell.setCellStyle(style);
+        }
+
+        private CellStyle getDateStyle() {
+            if (dateStyle == null) {
+                dateStyle = createDateStyle(DATE_FORMAT);
+            }
+            return dateStyle;
+        }
+
+        private CellStyle getDateTimeStyle() {
+            if (dateTimeStyle == null) {
+                dateTimeStyle = createDateStyle(DATE_TIME_FORMAT);
+            }
+            return dateTimeStyle;
+        }
+
+        private CellStyle createDateStyle(String format) {
+            CellStyle style = workbook.createCellStyle();
+            style.setDataFormat(workbook.createDataFormat().getFormat(format));
+            return style;
+        }
+    }
+}
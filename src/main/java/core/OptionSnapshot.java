@@ -0,0 +1,104 @@
+package core;
+
+import binding.OptionDictionary;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 某一时刻的全部下拉框，创建后不可变
+ * 每次解析开始时取一次快照，刷新下拉框只会替换快照，不会影响正在进行的解析
+ */
+public final class OptionSnapshot {
+
+    static final OptionSnapshot EMPTY = new OptionSnapshot(0, Collections.<String, OptionDictionary>emptyMap());
+
+    /**
+     * 版本号，每次刷新下拉框加1
+     */
+    private final long version;
+
+    /**
+     * 下拉框名称 与 建立了索引的下拉框 的映射map
+     */
+    private final Map<String, OptionDictionary> dictionaryMap;
+
+    /**
+     * 全部下拉框内容的 SHA-256，第一次使用时计算
+     */
+    private volatile String contentHash;
+
+    private OptionSnapshot(long version, Map<String, OptionDictionary> dictionaryMap) {
+        this.version = version;
+        this.dictionaryMap = dictionaryMap;
+    }
+
+    /**
+     * 以新的下拉框替换全部下拉框，版本号加1
+     */
+    OptionSnapshot replaceAll(Map<String, OptionDictionary> dictionaryMap) {
+        return new OptionSnapshot(version + 1, dictionaryMap);
+    }
+
+    /**
+     * 替换或新增一个下拉框，其他下拉框保持不变，版本号加1
+     *
+     * @param dictionary 为 null 时删除该下拉框
+     */
+    OptionSnapshot replace(String optionName, OptionDictionary dictionary) {
+        Map<String, OptionDictionary> map = new HashMap<>(dictionaryMap);
+        if (dictionary == null) {
+            map.remove(optionName);
+        } else {
+            map.put(optionName, dictionary);
+        }
+        return new OptionSnapshot(version + 1, Collections.unmodifiableMap(map));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 全部下拉框内容的 SHA-256，与版本号不同，内容相同的快照在不同的 ExcelToObject 和不同的进程中都相同
+     * 按下拉框名称排序后依次计算名称和下拉框内容的 SHA-256，每个快照只计算一次
+     */
+    String getContentHash() {
+        String hash = contentHash;
+        if (hash == null) {
+            List<String> names = new ArrayList<>(dictionaryMap.keySet());
+            Collections.sort(names);
+            MessageDigest digest = ExcelSource.newSha256();
+            for (String name : names) {
+                // 名称前加上长度，不同的名称不会拼接出相同的输入
+                digest.update((name.length() + ":" + name).getBytes(StandardCharsets.UTF_8));
+                digest.update(dictionaryMap.get(name).getDigest());
+            }
+            StringBuilder builder = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                builder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            hash = builder.toString();
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    public Map<String, OptionDictionary> getDictionaryMap() {
+        return dictionaryMap;
+    }
+
+    /**
+     * 获取下拉框
+     *
+     * @return 下拉框不存在时返回 null
+     */
+    public OptionDictionary getDictionary(String optionName) {
+        return dictionaryMap.get(optionName);
+    }
+}
@@ -0,0 +1,88 @@
+package core;
+
+import binding.BindingPlan;
+import org.apache.poi.ss.usermodel.CellType;
+import reader.ExcelRow;
+
+import java.time.LocalDateTime;
+
+/**
+ * 传给 ImportOptions.rowFilter 的数据行，按列名读取单元格的原始值
+ * 在创建实体之前使用，只读取过滤条件用到的单元格，可以读取没有绑定属性的列
+ */
+public final class RawRow {
+
+    private final ExcelRow row;
+
+    private final BindingPlan bindingPlan;
+
+    RawRow(ExcelRow row, BindingPlan bindingPlan) {
+        this.row = row;
+        this.bindingPlan = bindingPlan;
+    }
+
+    /**
+     * excel行号，从1开始计数，与 ResultObject.getRow 一致
+     */
+    public int getRow() {
+        return row.getRowNum() + 1;
+    }
+
+    /**
+     * 列名所在的行中是否有该列
+     */
+    public boolean hasColumn(String columnName) {
+        return bindingPlan.getColumnIndex(columnName) >= 0;
+    }
+
+    /**
+     * 单元格去除空格和特殊符号后是否为空，列不存在时返回 true
+     */
+    public boolean isBlank(String columnName) {
+        int index = bindingPlan.getColumnIndex(columnName);
+        return index < 0 || row.isCellBlank(index);
+    }
+
+    /**
+     * 单元格的值转成的字符串，与转换属性时使用的值一致
+     *
+     * @return 列不存在时返回 null
+     */
+    public String getString(String columnName) {
+        int index = bindingPlan.getColumnIndex(columnName);
+        return index < 0 ? null : row.getCellValue(index);
+    }
+
+    /**
+     * 数值型单元格的值，不经过字符串
+     *
+     * @return 列不存在，或单元格不是数值型时返回 null
+     */
+    public Double getNumber(String columnName) {
+        int index = bindingPlan.getColumnIndex(columnName);
+        if (index < 0 || row.getCellType(index) != CellType.NUMERIC) {
+            return null;
+        }
+        return row.getNumericCellValue(index);
+    }
+
+    /**
+     * 日期格式的单元格的值，不经过字符串和时区转换
+     *
+     * @return 列不存在，或单元格不是日期格式时返回 null
+     */
+    public LocalDateTime getDate(String columnName) {
+        int index = bindingPlan.getColumnIndex(columnName);
+        if (index < 0 || !row.isCellDateFormatted(index)) {
+            return null;
+        }
+        return row.getLocalDateTimeCellValue(index);
+    }
+
+    /**
+     * 底层的数据行，可以按列下标读取
+     */
+    public ExcelRow getExcelRow() {
+        return row;
+    }
+}
@@ -0,0 +1,534 @@
+package core;
+
+import entity.ExcelToObjectError;
+import entity.ExcelToObjectResult;
+import entity.PackedErrorList;
+import entity.ResultObject;
+import entity.StopReason;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 解析结果的缓存，通过 ExcelToObject.Builder.resultCache 使用，同一个文件再次解析时只需要计算一次文件的 SHA-256
+ * 键由文件内容的 SHA-256、实体类、列名行、数据开始行、下拉框内容的 SHA-256 和解析选项组成；
+ * 结果以压缩后的序列化形式保存，每次命中都反序列化出新的对象，调用方修改结果不会影响缓存
+ * 内存中按最近使用的顺序淘汰，总字节数不超过 maxBytes；超过 expireAfterWrite 的结果不再使用
+ * 实体类需要实现 Serializable，否则不使用缓存；设置了 rowFilter 的解析不使用缓存
+ * 读取时只允许反序列化实体类、实体类属性的类型、String、基本类型及其数组、包装类、BigDecimal、BigInteger 和 java.time 中的类，
+ * 其他的类视为数据损坏，不会被加载；属性的类型为接口或父类时，实际的类型不在允许的范围内，这样的结果不会命中缓存
+ * 下拉框的内容不同时键也不同，多个 ExcelToObject 可以共享一个 ResultCache，磁盘上的结果在进程重启后仍然可以读取
+ */
+public final class ResultCache {
+
+    private static final String FILE_SUFFIX = ".e2o";
+
+    /**
+     * 与实体类无关、总是允许反序列化的类
+     */
+    private static final Set<String> COMMON_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            String.class.getName(), Boolean.class.getName(), Character.class.getName(), Byte.class.getName(),
+            Short.class.getName(), Integer.class.getName(), Long.class.getName(), Float.class.getName(),
+            Double.class.getName(), Number.class.getName(), BigDecimal.class.getName(), BigInteger.class.getName(),
+            Enum.class.getName(), ExcelToObjectError.class.getName(),
+            // BigInteger 以 byte[] 保存数值
+            byte[].class.getName(), char[].class.getName(), short[].class.getName(), int[].class.getName(),
+            long[].class.getName(), float[].class.getName(), double[].class.getName(), boolean[].class.getName())));
+
+    /**
+     * 每个实体类允许反序列化的类名：实体类及其父类，以及它们的实例属性的类型
+     */
+    private static final ClassValue<Set<String>> ALLOWED_CLASSES = new ClassValue<Set<String>>() {
+        @Override
+        protected Set<String> computeValue(Class<?> objectClass) {
+            Set<String> names = new HashSet<>(COMMON_CLASSES);
+            for (Class<?> c = objectClass; c != null && c != Object.class; c = c.getSuperclass()) {
+                names.add(c.getName());
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    // 数组同时允许数组本身和元素的类型
+                    for (Class<?> type = field.getType(); type != null; type = type.getComponentType()) {
+                        names.add(type.getName());
+                    }
+                }
+            }
+            return Collections.unmodifiableSet(names);
+        }
+    };
+
+    private final long maxBytes;
+
+    private final long expireAfterWriteNanos;
+
+    /**
+     * 磁盘缓存所在的目录，为 null 时只使用内存
+     */
+    private final Path diskDirectory;
+
+    /**
+     * 按访问顺序排列，最久没有使用的在最前面
+     */
+    private final LinkedHashMap<String, Entry> entryMap = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder diskHitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private ResultCache(Builder builder) {
+        this.maxBytes = builder.maxBytes;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.diskDirectory = builder.diskDirectory;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 实体类是否可以缓存
+     */
+    static boolean isCacheable(Class<?> objectClass) {
+        return Serializable.class.isAssignableFrom(objectClass);
+    }
+
+    /**
+     * 组成缓存的键
+     *
+     * @param sha256     文件内容的 SHA-256
+     * @param optionHash 下拉框快照内容的 SHA-256
+     */
+    static String key(byte[] sha256, Class<?> objectClass, int columnNameRow, int startDataRow, String optionHash,
+                      ImportOptions importOptions) {
+        StringBuilder key = new StringBuilder(128);
+        appendHex(key, sha256);
+        return key.append('|').append(objectClass.getName())
+                .append('|').append(columnNameRow)
+                .append('|').append(startDataRow)
+                .append('|').append(optionHash)
+                .append('|').append(importOptions.cacheKey())
+                .toString();
+    }
+
+    /**
+     * 获取缓存的结果，内存中没有时读取磁盘
+     *
+     * @return 没有缓存、已经过期或无法读取时返回 null
+     */
+    <O> ExcelToObjectResult<O> get(String key, Class<O> objectClass) {
+        byte[] data = getFromMemory(key);
+        if (data != null) {
+            ExcelToObjectResult<O> result = decode(data, objectClass);
+            if (result != null) {
+                hitCount.increment();
+                return result;
+            }
+        }
+        data = getFromDisk(key);
+        if (data != null) {
+            ExcelToObjectResult<O> result = decode(data, objectClass);
+            if (result != null) {
+                putToMemory(key, data, System.nanoTime());
+                diskHitCount.increment();
+                return result;
+            }
+        }
+        missCount.increment();
+        return null;
+    }
+
+    /**
+     * 保存解析结果，结果中有无法序列化的对象时不保存
+     */
+    <O> void put(String key, ExcelToObjectResult<O> result) {
+        byte[] data = encode(result);
+        if (data == null) {
+            return;
+        }
+        putToMemory(key, data, System.nanoTime());
+        putToDisk(key, data);
+    }
+
+    /**
+     * 清空内存和磁盘中的所有结果
+     */
+    public void clear() {
+        synchronized (this) {
+            entryMap.clear();
+            bytes = 0;
+        }
+        if (diskDirectory == null || !Files.isDirectory(diskDirectory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(diskDirectory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            // 磁盘缓存只是优化，删除失败时忽略
+        }
+    }
+
+    /**
+     * 内存中命中的次数
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 内存中没有，从磁盘中命中的次数
+     */
+    public long getDiskHitCount() {
+        return diskHitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 因超过 maxBytes 或过期而从内存中淘汰的结果数
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 命中率，包括磁盘中命中的次数；没有任何请求时为0
+     */
+    public double getHitRate() {
+        long hits = getHitCount() + getDiskHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * 内存中的结果数
+     */
+    public synchronized int size() {
+        return entryMap.size();
+    }
+
+    /**
+     * 内存中的结果占用的字节数
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    private synchronized byte[] getFromMemory(String key) {
+        Entry entry = entryMap.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.createdNanos > expireAfterWriteNanos) {
+            entryMap.remove(key);
+            bytes -= entry.data.length;
+            evictionCount.increment();
+            return null;
+        }
+        return entry.data;
+    }
+
+    private synchronized void putToMemory(String key, byte[] data, long createdNanos) {
+        if (data.length > maxBytes) {
+            return;
+        }
+        Entry old = entryMap.put(key, new Entry(data, createdNanos));
+        if (old != null) {
+            bytes -= old.data.length;
+        }
+        bytes += data.length;
+        // 淘汰最久没有使用的结果
+        Iterator<Entry> iterator = entryMap.values().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            bytes -= eldest.data.length;
+            evictionCount.increment();
+        }
+    }
+
+    private byte[] getFromDisk(String key) {
+        if (diskDirectory == null) {
+            return null;
+        }
+        Path file = diskFile(key);
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            long age = System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis();
+            if (TimeUnit.MILLISECONDS.toNanos(age) > expireAfterWriteNanos) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void putToDisk(String key, byte[] data) {
+        if (diskDirectory == null) {
+            return;
+        }
+        Path file = diskFile(key);
+        try {
+            Files.createDirectories(diskDirectory);
+            // 先写入临时文件再移动，其他线程或进程不会读到写了一半的文件
+            Path temp = Files.createTempFile(diskDirectory, "e2o", ".tmp");
+            try {
+                Files.write(temp, data);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // 磁盘缓存只是优化，写入失败时只使用内存
+        }
+    }
+
+    /**
+     * 键中包含类名等任意字符，文件名使用键的 SHA-256
+     */
+    private Path diskFile(String key) {
+        StringBuilder name = new StringBuilder(64 + FILE_SUFFIX.length());
+        appendHex(name, ExcelSource.newSha256().digest(key.getBytes(StandardCharsets.UTF_8)));
+        return diskDirectory.resolve(name.append(FILE_SUFFIX).toString());
+    }
+
+    /**
+     * 序列化解析结果，错误以压缩后的 long 保存，不创建 ExcelToObjectError
+     *
+     * @return 有无法序列化的对象时返回 null
+     */
+    private static <O> byte[] encode(ExcelToObjectResult<O> result) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeInt(result.getStopReason().ordinal());
+            out.writeInt(result.getStopRow());
+
+            List<Integer> repetitionRowList = result.getRepetitionRowList();
+            out.writeInt(repetitionRowList.size());
+            for (Integer row : repetitionRowList) {
+                out.writeInt(row);
+            }
+
+            List<ExcelToObjectError> errorList = result.getErrorlList();
+            PackedErrorList packedErrorList = errorList instanceof PackedErrorList ? (PackedErrorList) errorList : null;
+            out.writeInt(errorList.size());
+            for (int i = 0; i < errorList.size(); i++) {
+                long packed = packedErrorList == null ? -1 : packedErrorList.getPacked(i);
+                out.writeLong(packed);
+                if (packed == -1) {
+                    ExcelToObjectError error = errorList.get(i);
+                    out.writeInt(error.getRow());
+                    out.writeObject(error.getColumn());
+                    out.writeObject(error.getMsg());
+                }
+            }
+
+            List<ResultObject<O>> resultObjectList = result.getResultObjectList();
+            out.writeInt(resultObjectList.size());
+            for (ResultObject<O> resultObject : resultObjectList) {
+                out.writeInt(resultObject.getRow());
+                out.writeObject(resultObject.getObject());
+            }
+        } catch (IOException e) {
+            return null;
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return 数据损坏或实体类已经改变时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    private static <O> ExcelToObjectResult<O> decode(byte[] data, Class<O> objectClass) {
+        try (ObjectInputStream in = new ClassLoaderObjectInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(data)), objectClass)) {
+            StopReason stopReason = StopReason.values()[in.readInt()];
+            int stopRow = in.readInt();
+
+            int repetitionSize = in.readInt();
+            List<Integer> repetitionRowList = new ArrayList<>(repetitionSize);
+            for (int i = 0; i < repetitionSize; i++) {
+                repetitionRowList.add(in.readInt());
+            }
+
+            int errorSize = in.readInt();
+            PackedErrorList errorList = new PackedErrorList();
+            for (int i = 0; i < errorSize; i++) {
+                long packed = in.readLong();
+                if (packed == -1) {
+                    errorList.add(new ExcelToObjectError(in.readInt(), (String) in.readObject(),
+                            (String) in.readObject()));
+                } else {
+                    errorList.addPacked(packed);
+                }
+            }
+
+            int resultSize = in.readInt();
+            List<ResultObject<O>> resultObjectList = new ArrayList<>(resultSize);
+            for (int i = 0; i < resultSize; i++) {
+                int row = in.readInt();
+                resultObjectList.add(new ResultObject<>(objectClass.cast(in.readObject()), row));
+            }
+
+            ExcelToObjectResult<O> result = new ExcelToObjectResult<>(errorList, resultObjectList, stopReason,
+                    stopRow);
+            if (repetitionSize > 0) {
+                result.setRepetitionRowList(repetitionRowList);
+            }
+            return result;
+        } catch (IOException | ClassNotFoundException | ClassCastException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static void appendHex(StringBuilder builder, byte[] bytes) {
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+    }
+
+    private static final class Entry {
+
+        private final byte[] data;
+
+        private final long createdNanos;
+
+        Entry(byte[] data, long createdNanos) {
+            this.data = data;
+            this.createdNanos = createdNanos;
+        }
+    }
+
+    /**
+     * 优先使用实体类的类加载器反序列化，实体类由应用服务器等自定义的类加载器加载时同样可以读取
+     * 磁盘上的文件可能被其他人写入，只加载允许的类，其他的类在加载之前就抛出异常
+     */
+    private static final class ClassLoaderObjectInputStream extends ObjectInputStream {
+
+        private final ClassLoader classLoader;
+
+        private final Set<String> allowedClasses;
+
+        ClassLoaderObjectInputStream(InputStream in, Class<?> objectClass) throws IOException {
+            super(in);
+            this.classLoader = objectClass.getClassLoader();
+            this.allowedClasses = ALLOWED_CLASSES.get(objectClass);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+            if (!allowedClasses.contains(name) && !name.startsWith("java.time.")) {
+                throw new InvalidClassException(name, "不允许反序列化");
+            }
+            if (classLoader != null) {
+                try {
+                    return Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    // 基本类型等交给默认的实现
+                }
+            }
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("不允许反序列化动态代理");
+        }
+    }
+
+    public static final class Builder {
+
+        private long maxBytes = 64L * 1024 * 1024;
+
+        private long expireAfterWriteNanos = TimeUnit.MINUTES.toNanos(10);
+
+        private Path diskDirectory;
+
+        private Builder() {
+        }
+
+        /**
+         * 内存中的结果压缩后占用的字节数的上限，默认64MB
+         */
+        public Builder maxBytes(long maxBytes) {
+            if (maxBytes <= 0) {
+                throw new IllegalArgumentException("maxBytes 必须大于0");
+            }
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * 结果保存后的有效时间，内存和磁盘中的结果都适用，默认10分钟
+         */
+        public Builder expireAfterWrite(long duration, TimeUnit unit) {
+            if (duration <= 0) {
+                throw new IllegalArgumentException("duration 必须大于0");
+            }
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * 同时将结果保存在本地目录中，内存中淘汰的结果可以从磁盘读取
+         *
+         * @param diskDirectory 目录不存在时自动创建，为 null 时只使用内存
+         */
+        public Builder diskDirectory(Path diskDirectory) {
+            this.diskDirectory = diskDirectory;
+            return this;
+        }
+
+        public ResultCache build() {
+            return new ResultCache(this);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package core;
+
+import entity.ResultObject;
+import entity.SinkError;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 解析线程与写入线程之间的批次队列
+ * 解析线程将对象凑成固定大小的批次放入有界队列，写入线程按顺序取出并交给 BatchSink；
+ * 队列已满时解析线程等待，写入跟不上解析时不会堆积更多的对象
+ *
+ * @param <O> 实体类型
+ */
+final class SinkPipeline<O> {
+
+    /**
+     * 为每次导入创建一个写入线程
+     */
+    static final Executor NEW_THREAD = command -> {
+        Thread thread = new Thread(command, "e2o-sink-writer");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    /**
+     * 结束标记，写入线程取到后退出
+     */
+    private final List<ResultObject<O>> end = Collections.emptyList();
+
+    private final BatchSink<O> sink;
+
+    private final int batchSize;
+
+    private final BlockingQueue<List<ResultObject<O>>> queue;
+
+    /**
+     * 写入线程退出时计数归零
+     */
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    /**
+     * 写入失败的行，只在写入线程中修改，写入线程退出后读取
+     */
+    private final List<SinkError> sinkErrorList = new ArrayList<>();
+
+    private long writtenCount;
+
+    /**
+     * 写入线程中抛出的 Error，写入线程因此提前退出
+     */
+    private volatile Throwable failure;
+
+    /**
+     * 正在凑的批次
+     */
+    private List<ResultObject<O>> batch;
+
+    SinkPipeline(BatchSink<O> sink, int batchSize, int queueCapacity) {
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * 在 executor 中启动写入线程
+     */
+    void start(Executor executor) {
+        executor.execute(this::drain);
+    }
+
+    /**
+     * 加入一个对象，批次已满时放入队列，队列已满时等待
+     */
+    void add(ResultObject<O> resultObject) throws InterruptedIOException {
+        batch.add(resultObject);
+        if (batch.size() >= batchSize) {
+            put(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * 放入最后一个批次，并等待写入线程写完所有批次
+     */
+    void finish() throws InterruptedIOException {
+        if (!batch.isEmpty()) {
+            put(batch);
+            batch = null;
+        }
+        put(end);
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待写入完成时被中断");
+        }
+        rethrowFailure();
+    }
+
+    /**
+     * 解析失败时放弃还未写入的批次，不等待正在写入的批次
+     */
+    void abort() {
+        queue.clear();
+        queue.offer(end);
+    }
+
+    long getWrittenCount() {
+        return writtenCount;
+    }
+
+    List<SinkError> getSinkErrorList() {
+        return sinkErrorList;
+    }
+
+    private void put(List<ResultObject<O>> items) throws InterruptedIOException {
+        try {
+            // 写入线程提前退出后不再等待队列的空位
+            while (!queue.offer(items, 100, TimeUnit.MILLISECONDS)) {
+                if (finished.getCount() == 0) {
+                    rethrowFailure();
+                    throw new IllegalStateException("写入线程已经退出");
+                }
+            }
+        } catch (InterruptedException e) {
+            abort();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待写入队列时被中断");
+        }
+    }
+
+    private void rethrowFailure() {
+        Throwable throwable = failure;
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        if (throwable != null) {
+            throw new IllegalStateException(throwable);
+        }
+    }
+
+    /**
+     * 写入线程，按顺序写入每个批次，直到取到结束标记
+     */
+    private void drain() {
+        try {
+            List<ResultObject<O>> items;
+            while ((items = queue.take()) != end) {
+                write(items);
+            }
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    /**
+     * 写入一个批次，BatchSink 抛出异常时整批都记录为写入失败
+     */
+    private void write(List<ResultObject<O>> items) {
+        List<SinkError> errors;
+        try {
+            errors = sink.write(items);
+        } catch (Exception e) {
+            errors = new ArrayList<>(items.size());
+            for (ResultObject<O> resultObject : items) {
+                errors.add(new SinkError(resultObject.getRow(), e));
+            }
+        }
+        if (errors != null) {
+            sinkErrorList.addAll(errors);
+        }
+        writtenCount += items.size() - (errors == null ? 0 : errors.size());
+    }
+}
@@ -0,0 +1,73 @@
+package entity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+/**
+ * 批量导入中的一个文件
+ */
+public class BatchImportInput {
+
+    /**
+     * 文件的名称，用于在结果中区分文件
+     */
+    private final String name;
+
+    /**
+     * 打开文件流，在导入开始时才调用
+     */
+    private final Callable<InputStream> inputStreamSupplier;
+
+    /**
+     * 文件的大小（字节），用于估算导入时占用的内存，未知时为 -1
+     */
+    private final long size;
+
+    /**
+     * 磁盘上的文件路径，从文件路径创建时不为 null，导入时直接读取文件而不经过文件流
+     */
+    private final Path path;
+
+    public BatchImportInput(String name, Callable<InputStream> inputStreamSupplier, long size) {
+        this(name, inputStreamSupplier, size, null);
+    }
+
+    private BatchImportInput(String name, Callable<InputStream> inputStreamSupplier, long size, Path path) {
+        this.name = name;
+        this.inputStreamSupplier = inputStreamSupplier;
+        this.size = size;
+        this.path = path;
+    }
+
+    /**
+     * 从文件路径创建，文件大小在导入开始前读取
+     */
+    public static BatchImportInput of(Path path) {
+        long size;
+        try {
+            size = Files.size(path);
+        } catch (IOException e) {
+            size = -1;
+        }
+        return new BatchImportInput(path.toString(), () -> Files.newInputStream(path), size, path);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Callable<InputStream> getInputStreamSupplier() {
+        return inputStreamSupplier;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
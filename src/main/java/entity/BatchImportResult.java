@@ -0,0 +1,76 @@
+package entity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量导入中一个文件的导入结果
+ *
+ * @param <O> 实体类型
+ */
+public class BatchImportResult<O> {
+
+    /**
+     * 文件的名称
+     */
+    private final String name;
+
+    /**
+     * 解析结果，导入失败或列名所在的行不合法时为 null
+     */
+    private final ExcelToObjectResult<O> result;
+
+    /**
+     * 导入过程中抛出的异常，导入成功时为 null
+     */
+    private final Throwable error;
+
+    /**
+     * 等待并发许可和内存许可的时间（纳秒）
+     */
+    private final long waitNanos;
+
+    /**
+     * 打开文件并解析的时间（纳秒）
+     */
+    private final long importNanos;
+
+    public BatchImportResult(String name, ExcelToObjectResult<O> result, Throwable error, long waitNanos,
+                             long importNanos) {
+        this.name = name;
+        this.result = result;
+        this.error = error;
+        this.waitNanos = waitNanos;
+        this.importNanos = importNanos;
+    }
+
+    /**
+     * 导入过程中是否没有抛出异常，不代表文件中的数据没有错误
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ExcelToObjectResult<O> getResult() {
+        return result;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    public long getImportNanos() {
+        return importNanos;
+    }
+
+    public long getImportMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(importNanos);
+    }
+}
@@ -0,0 +1,33 @@
+package entity;
+
+/**
+ * 转换过程中的错误类型，对应 ExcelToObjectError 中的错误信息
+ */
+public enum ErrorCode {
+
+    NOT_NULL(ExcelToObjectError.NOT_NULL),
+
+    DATA_ILLEGALITY(ExcelToObjectError.DATA_ILLEGALITY),
+
+    TYPE_ILLEGALITY(ExcelToObjectError.TYPE_ILLEGALITY),
+
+    ILLEGAL_ACCESS(ExcelToObjectError.ILLEGAL_ACCESS),
+
+    FORMAT(ExcelToObjectError.FORMAT);
+
+    private static final ErrorCode[] VALUES = values();
+
+    private final String msg;
+
+    ErrorCode(String msg) {
+        this.msg = msg;
+    }
+
+    public String getMsg() {
+        return msg;
+    }
+
+    static ErrorCode valueOf(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -15,6 +15,11 @@ public class ExcelToObjectError {
 
     public static final String NOT_NULL = "不能为空";
 
+    /**
+     * 不可变类的构造器拒绝了该行的值，错误没有列号
+     */
+    public static final String CONSTRUCTOR_REJECTED = "构造器校验不通过";
+
     /**
      * excel的行号
      */
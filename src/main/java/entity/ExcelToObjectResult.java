@@ -1,5 +1,7 @@
 package entity;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class ExcelToObjectResult<O> {
@@ -14,10 +16,39 @@ public class ExcelToObjectResult<O> {
      */
     private List<ResultObject<O>> resultObjectList;
 
+    /**
+     * 解析结束的原因，提前停止时结果中只包含停止之前的数据行
+     */
+    private StopReason stopReason;
+
+    /**
+     * 提前停止时，最后解析的 excel 行号，从1开始计数；全部解析时为0
+     */
+    private int stopRow;
+
+    /**
+     * 唯一键重复的行号，这些行不在 resultObjectList 中；没有指定唯一键时为空
+     */
+    private List<Integer> repetitionRowList = Collections.emptyList();
+
 
     public ExcelToObjectResult(List<ExcelToObjectError> errorlList, List<ResultObject<O>> resultObjectList) {
+        this(errorlList, resultObjectList, StopReason.COMPLETED, 0);
+    }
+
+    public ExcelToObjectResult(List<ExcelToObjectError> errorlList, List<ResultObject<O>> resultObjectList,
+                               StopReason stopReason, int stopRow) {
         this.errorlList = errorlList;
         this.resultObjectList = resultObjectList;
+        this.stopReason = stopReason;
+        this.stopRow = stopRow;
+    }
+
+    /**
+     * 是否解析了全部数据行
+     */
+    public boolean isCompleted() {
+        return stopReason == StopReason.COMPLETED;
     }
 
     public List<ExcelToObjectError> getErrorlList() {
@@ -35,4 +66,53 @@ public class ExcelToObjectResult<O> {
     public void setResultObjectList(List<ResultObject<O>> resultObjectList) {
         this.resultObjectList = resultObjectList;
     }
+
+    /**
+     * 转换成 ExcelImportResult，成功、失败、重复的行号都来自解析时已经得到的结果，不需要再次读取文件
+     * 失败的行号按错误列表的顺序去重，错误列表需要按行号排列
+     */
+    public ExcelImportResult toExcelImportResult() {
+        List<Integer> successRow = new ArrayList<>(resultObjectList.size());
+        for (ResultObject<O> resultObject : resultObjectList) {
+            successRow.add(resultObject.getRow());
+        }
+        List<Integer> failRow = new ArrayList<>();
+        int lastRow = -1;
+        for (int i = 0; i < errorlList.size(); i++) {
+            int row = errorlList instanceof PackedErrorList
+                    ? ((PackedErrorList) errorlList).getRow(i) : errorlList.get(i).getRow();
+            if (row != lastRow) {
+                failRow.add(row);
+                lastRow = row;
+            }
+        }
+        ExcelImportResult excelImportResult = new ExcelImportResult(successRow.size(), successRow, failRow.size(),
+                failRow, repetitionRowList.size(), new ArrayList<>(repetitionRowList));
+        excelImportResult.setErrorList(errorlList);
+        return excelImportResult;
+    }
+
+    public List<Integer> getRepetitionRowList() {
+        return repetitionRowList;
+    }
+
+    public void setRepetitionRowList(List<Integer> repetitionRowList) {
+        this.repetitionRowList = repetitionRowList;
+    }
+
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    public void setStopReason(StopReason stopReason) {
+        this.stopReason = stopReason;
+    }
+
+    public int getStopRow() {
+        return stopRow;
+    }
+
+    public void setStopRow(int stopRow) {
+        this.stopRow = stopRow;
+    }
 }
@@ -0,0 +1,208 @@
+package entity;
+
+import util.utils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 以紧凑的方式保存错误的列表，每个错误只占一个 long：行号、列下标、错误类型
+ * ExcelToObjectError 和列字母只在读取时才创建，创建后缓存，多次读取得到同一个对象
+ * 可以追加和替换自定义的 ExcelToObjectError，不支持删除；不是线程安全的
+ */
+public class PackedErrorList extends AbstractList<ExcelToObjectError> {
+
+    /**
+     * 自定义的错误，只保存在 errors 中
+     */
+    private static final long CUSTOM = -1L;
+
+    private long[] packed;
+
+    private int size;
+
+    /**
+     * 已经创建的错误对象，第一次读取时才分配
+     */
+    private ExcelToObjectError[] errors;
+
+    public PackedErrorList() {
+        this(new long[16], 0);
+    }
+
+    /**
+     * 使用已经填充好的数组，不会复制
+     *
+     * @param packed 由 pack 得到的错误
+     * @param size   有效的错误数
+     */
+    public PackedErrorList(long[] packed, int size) {
+        this.packed = packed;
+        this.size = size;
+    }
+
+    /**
+     * 将一个错误压缩成一个 long
+     *
+     * @param row         excel 行号，从1开始计数
+     * @param columnIndex 列下标，从0开始计数
+     * @param errorCode   错误类型
+     */
+    public static long pack(int row, int columnIndex, ErrorCode errorCode) {
+        return ((long) row << 32) | ((long) columnIndex << 8) | errorCode.ordinal();
+    }
+
+    /**
+     * 追加一个压缩后的错误
+     */
+    public void addPacked(long error) {
+        ensureCapacity(size + 1);
+        packed[size++] = error;
+    }
+
+    /**
+     * excel 行号，不创建错误对象
+     */
+    public int getRow(int index) {
+        checkIndex(index);
+        if (packed[index] == CUSTOM) {
+            return errors[index].getRow();
+        }
+        return (int) (packed[index] >>> 32);
+    }
+
+    /**
+     * 列字母，不创建错误对象，同一列的字母只生成一次
+     */
+    public String getColumn(int index) {
+        checkIndex(index);
+        if (packed[index] == CUSTOM) {
+            return errors[index].getColumn();
+        }
+        return utils.intToAlphabet(getColumnIndex(packed[index]) + 1);
+    }
+
+    /**
+     * 错误信息，不创建错误对象
+     */
+    public String getMsg(int index) {
+        checkIndex(index);
+        if (packed[index] == CUSTOM) {
+            return errors[index].getMsg();
+        }
+        return getErrorCode(packed[index]).getMsg();
+    }
+
+    /**
+     * 压缩后的错误，可以通过 addPacked 加入另一个列表
+     *
+     * @return 自定义的错误返回 -1
+     */
+    public long getPacked(int index) {
+        checkIndex(index);
+        return packed[index];
+    }
+
+    /**
+     * 错误类型，自定义的错误返回 null
+     */
+    public ErrorCode getErrorCode(int index) {
+        checkIndex(index);
+        return packed[index] == CUSTOM ? null : getErrorCode(packed[index]);
+    }
+
+    @Override
+    public ExcelToObjectError get(int index) {
+        checkIndex(index);
+        if (errors == null) {
+            errors = new ExcelToObjectError[packed.length];
+        }
+        ExcelToObjectError error = errors[index];
+        if (error == null) {
+            long value = packed[index];
+            error = new ExcelToObjectError((int) (value >>> 32), utils.intToAlphabet(getColumnIndex(value) + 1),
+                    getErrorCode(value).getMsg());
+            errors[index] = error;
+        }
+        return error;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(int index, ExcelToObjectError error) {
+        if (index != size) {
+            throw new UnsupportedOperationException("只能在末尾追加错误");
+        }
+        ensureCapacity(size + 1);
+        if (errors == null) {
+            errors = new ExcelToObjectError[packed.length];
+        }
+        packed[size] = CUSTOM;
+        errors[size] = error;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public ExcelToObjectError set(int index, ExcelToObjectError error) {
+        ExcelToObjectError previous = get(index);
+        packed[index] = CUSTOM;
+        errors[index] = error;
+        return previous;
+    }
+
+    /**
+     * 另一个 PackedErrorList 直接复制压缩后的错误，不会创建错误对象
+     */
+    @Override
+    public boolean addAll(Collection<? extends ExcelToObjectError> collection) {
+        if (!(collection instanceof PackedErrorList)) {
+            return super.addAll(collection);
+        }
+        PackedErrorList other = (PackedErrorList) collection;
+        if (other.size == 0) {
+            return false;
+        }
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.packed, 0, packed, size, other.size);
+        if (other.errors != null) {
+            if (errors == null) {
+                errors = new ExcelToObjectError[packed.length];
+            }
+            System.arraycopy(other.errors, 0, errors, size, other.size);
+        }
+        size += other.size;
+        modCount++;
+        return true;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= packed.length) {
+            return;
+        }
+        int length = Math.max(packed.length * 2, capacity);
+        packed = Arrays.copyOf(packed, length);
+        if (errors != null) {
+            errors = Arrays.copyOf(errors, length);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static int getColumnIndex(long value) {
+        return (int) (value >>> 8) & 0xFFFFFF;
+    }
+
+    private static ErrorCode getErrorCode(long value) {
+        return ErrorCode.valueOf((int) value & 0xFF);
+    }
+}
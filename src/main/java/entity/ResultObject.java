@@ -1,5 +1,8 @@
 package entity;
 
+import java.util.Collections;
+import java.util.List;
+
 public class ResultObject<O> {
     /**
      * excel行号
@@ -11,9 +14,33 @@ public class ResultObject<O> {
      */
     private O object;
 
+    /**
+     * 该行转换过程中的错误列表，为空表示转换成功
+     */
+    private List<ExcelToObjectError> errorList;
+
+    /**
+     * 唯一键是否与之前的某一行重复，只有指定了唯一键时才会判断
+     */
+    private boolean repetition;
+
     public ResultObject(O object, int row) {
         this.row = row;
         this.object = object;
+        this.errorList = Collections.emptyList();
+    }
+
+    public ResultObject(O object, int row, List<ExcelToObjectError> errorList) {
+        this.row = row;
+        this.object = object;
+        this.errorList = errorList;
+    }
+
+    /**
+     * 该行是否转换成功，转换失败时不创建实体，object 为 null
+     */
+    public boolean isSuccess() {
+        return errorList == null || errorList.isEmpty();
     }
 
     public int getRow() {
@@ -31,4 +58,20 @@ public class ResultObject<O> {
     public void setObject(O object) {
         this.object = object;
     }
+
+    public boolean isRepetition() {
+        return repetition;
+    }
+
+    public void setRepetition(boolean repetition) {
+        this.repetition = repetition;
+    }
+
+    public List<ExcelToObjectError> getErrorList() {
+        return errorList;
+    }
+
+    public void setErrorList(List<ExcelToObjectError> errorList) {
+        this.errorList = errorList;
+    }
 }
@@ -0,0 +1,123 @@
+package entity;
+
+/**
+ * sheet 与实体类的映射，可以按 sheet 名称、sheet 下标匹配，或者匹配所有 sheet
+ *
+ * @param <O> 实体类型
+ */
+public class SheetMapping<O> {
+
+    /**
+     * sheet 的名称，为 null 时不按名称匹配
+     */
+    private final String sheetName;
+
+    /**
+     * sheet 的下标，从0开始计数，为 -1 时不按下标匹配
+     */
+    private final int sheetIndex;
+
+    /**
+     * 是否匹配所有 sheet
+     */
+    private final boolean allSheets;
+
+    /**
+     * 实体类 class
+     */
+    private final Class<O> objectClass;
+
+    /**
+     * 列名所在的行号，从0开始计数
+     */
+    private final int columnNameRow;
+
+    /**
+     * 数据开始的行号，从0开始计数
+     */
+    private final int startDataRow;
+
+    private SheetMapping(String sheetName, int sheetIndex, boolean allSheets, Class<O> objectClass,
+                         int columnNameRow, int startDataRow) {
+        this.sheetName = sheetName;
+        this.sheetIndex = sheetIndex;
+        this.allSheets = allSheets;
+        this.objectClass = objectClass;
+        this.columnNameRow = columnNameRow;
+        this.startDataRow = startDataRow;
+    }
+
+    /**
+     * 按 sheet 名称匹配
+     *
+     * @throws IllegalArgumentException sheet 名称为 null
+     */
+    public static <O> SheetMapping<O> byName(String sheetName, Class<O> objectClass, int columnNameRow,
+                                             int startDataRow) {
+        if (sheetName == null) {
+            throw new IllegalArgumentException("sheetName 不能为空");
+        }
+        return new SheetMapping<>(sheetName, -1, false, objectClass, columnNameRow, startDataRow);
+    }
+
+    /**
+     * 按 sheet 下标匹配，下标从0开始计数
+     *
+     * @throws IllegalArgumentException 下标小于0，例如按名称查找下标失败时得到的 -1
+     */
+    public static <O> SheetMapping<O> byIndex(int sheetIndex, Class<O> objectClass, int columnNameRow,
+                                              int startDataRow) {
+        if (sheetIndex < 0) {
+            throw new IllegalArgumentException("sheetIndex 不能小于0");
+        }
+        return new SheetMapping<>(null, sheetIndex, false, objectClass, columnNameRow, startDataRow);
+    }
+
+    /**
+     * 匹配所有 sheet
+     */
+    public static <O> SheetMapping<O> allSheets(Class<O> objectClass, int columnNameRow, int startDataRow) {
+        return new SheetMapping<>(null, -1, true, objectClass, columnNameRow, startDataRow);
+    }
+
+    /**
+     * 是否匹配指定的 sheet
+     *
+     * @param index sheet 的下标
+     * @param name  sheet 的名称
+     * @return
+     */
+    public boolean matches(int index, String name) {
+        if (allSheets) {
+            return true;
+        }
+        if (sheetName != null) {
+            return sheetName.equals(name);
+        }
+        return sheetIndex == index;
+    }
+
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    public int getSheetIndex() {
+        return sheetIndex;
+    }
+
+    public boolean isAllSheets() {
+        return allSheets;
+    }
+
+    public Class<O> getObjectClass() {
+        return objectClass;
+    }
+
+    public int getColumnNameRow() {
+        return columnNameRow;
+    }
+
+    public int getStartDataRow() {
+        return startDataRow;
+    }
+}
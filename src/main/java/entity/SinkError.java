@@ -0,0 +1,47 @@
+package entity;
+
+/**
+ * 转换成功的对象在写入 BatchSink 时的错误
+ */
+public class SinkError {
+
+    /**
+     * excel的行号
+     */
+    private final int row;
+
+    /**
+     * 错误信息
+     */
+    private final String msg;
+
+    /**
+     * 写入时抛出的异常，没有异常时为 null
+     */
+    private final Throwable cause;
+
+    public SinkError(int row, String msg, Throwable cause) {
+        this.row = row;
+        this.msg = msg;
+        this.cause = cause;
+    }
+
+    /**
+     * 由写入时抛出的异常创建，异常没有信息时使用异常的类名
+     */
+    public SinkError(int row, Throwable cause) {
+        this(row, cause.getMessage() == null ? cause.getClass().getName() : cause.getMessage(), cause);
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public String getMsg() {
+        return msg;
+    }
+
+    public Throwable getCause() {
+        return cause;
+    }
+}
@@ -0,0 +1,80 @@
+package entity;
+
+import java.util.List;
+
+/**
+ * 边解析边写入 BatchSink 的结果，转换成功的对象已经写入，不保存在结果中
+ */
+public class SinkImportResult {
+
+    /**
+     * 成功写入的行数
+     */
+    private final long writtenCount;
+
+    /**
+     * 转换过程中的错误列表，这些行没有写入
+     */
+    private final List<ExcelToObjectError> errorList;
+
+    /**
+     * 写入失败的行
+     */
+    private final List<SinkError> sinkErrorList;
+
+    /**
+     * 唯一键重复的行号，这些行没有写入；没有指定唯一键时为空
+     */
+    private final List<Integer> repetitionRowList;
+
+    /**
+     * 解析结束的原因
+     */
+    private final StopReason stopReason;
+
+    /**
+     * 提前停止时，最后解析的 excel 行号，从1开始计数；全部解析时为0
+     */
+    private final int stopRow;
+
+    public SinkImportResult(long writtenCount, List<ExcelToObjectError> errorList, List<SinkError> sinkErrorList,
+                            List<Integer> repetitionRowList, StopReason stopReason, int stopRow) {
+        this.writtenCount = writtenCount;
+        this.errorList = errorList;
+        this.sinkErrorList = sinkErrorList;
+        this.repetitionRowList = repetitionRowList;
+        this.stopReason = stopReason;
+        this.stopRow = stopRow;
+    }
+
+    /**
+     * 是否解析了全部数据行，并且所有转换成功的对象都写入成功
+     */
+    public boolean isCompleted() {
+        return stopReason == StopReason.COMPLETED && sinkErrorList.isEmpty();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    public List<ExcelToObjectError> getErrorList() {
+        return errorList;
+    }
+
+    public List<SinkError> getSinkErrorList() {
+        return sinkErrorList;
+    }
+
+    public List<Integer> getRepetitionRowList() {
+        return repetitionRowList;
+    }
+
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    public int getStopRow() {
+        return stopRow;
+    }
+}
@@ -0,0 +1,32 @@
+package entity;
+
+/**
+ * 解析结束的原因
+ */
+public enum StopReason {
+
+    /**
+     * 所有数据行都已解析
+     */
+    COMPLETED("全部数据行解析完毕"),
+
+    /**
+     * 错误数达到了 ErrorPolicy 的上限，之后的数据行没有读取
+     */
+    ERROR_LIMIT("错误数达到上限"),
+
+    /**
+     * 前若干行中失败行的比例超过了 ErrorPolicy 的上限，之后的数据行没有读取
+     */
+    ERROR_RATE("失败行的比例超过上限");
+
+    private final String msg;
+
+    StopReason(String msg) {
+        this.msg = msg;
+    }
+
+    public String getMsg() {
+        return msg;
+    }
+}
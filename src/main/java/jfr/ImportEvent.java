@@ -0,0 +1,65 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 一次解析的 JFR 事件，持续时间为整个解析过程，可以与同一时间段的 GC 事件对照
+ */
+@Name("e2o.Import")
+@Label("Excel Import")
+@Category("e2o")
+@Description("一次 excel 解析的各阶段耗时和计数")
+@StackTrace(false)
+public class ImportEvent extends jdk.jfr.Event {
+
+    @Label("Object Class")
+    public Class<?> objectClass;
+
+    @Label("Sheet Name")
+    public String sheetName;
+
+    @Label("Open Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long openDuration;
+
+    @Label("Header Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long headerDuration;
+
+    @Label("Read Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long readDuration;
+
+    @Label("Convert Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long convertDuration;
+
+    @Label("Bytes Read")
+    @DataAmount
+    public long bytesRead;
+
+    @Label("Rows")
+    public long rowCount;
+
+    @Label("Error Rows")
+    public long errorRowCount;
+
+    @Label("Errors")
+    public long errorCount;
+
+    @Label("Rows Per Second")
+    public double rowsPerSecond;
+
+    @Label("Stop Reason")
+    public String stopReason;
+
+    @Label("Failure")
+    @Description("解析没有得到结果的原因，成功时为空")
+    public String failure;
+}
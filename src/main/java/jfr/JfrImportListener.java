@@ -0,0 +1,64 @@
+package jfr;
+
+import core.ImportFailure;
+import core.ImportListener;
+import core.ImportMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 将每次解析记录为一个 ImportEvent 的监听器，需要运行在支持 JFR 的 JDK 上
+ * 通过 ExcelToObject.Builder.jfrEvents 注册，没有开启 JFR 录制时几乎没有开销
+ */
+public class JfrImportListener implements ImportListener {
+
+    /**
+     * 正在进行的解析 与 对应事件 的映射map，ImportMetrics 没有重写 equals，按对象本身区分
+     */
+    private final Map<ImportMetrics, ImportEvent> eventMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void onImportStarted(ImportMetrics metrics) {
+        ImportEvent event = new ImportEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.begin();
+        eventMap.put(metrics, event);
+    }
+
+    @Override
+    public void onImportFinished(ImportMetrics metrics) {
+        commit(metrics, null);
+    }
+
+    @Override
+    public void onImportFailed(ImportMetrics metrics, ImportFailure failure, Throwable cause) {
+        commit(metrics, failure);
+    }
+
+    private void commit(ImportMetrics metrics, ImportFailure failure) {
+        ImportEvent event = eventMap.remove(metrics);
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.objectClass = metrics.getObjectClass();
+            event.sheetName = metrics.getSheetName();
+            event.openDuration = metrics.getOpenNanos();
+            event.headerDuration = metrics.getHeaderNanos();
+            event.readDuration = metrics.getReadNanos();
+            event.convertDuration = metrics.getConvertNanos();
+            event.bytesRead = metrics.getBytesRead();
+            event.rowCount = metrics.getRowCount();
+            event.errorRowCount = metrics.getErrorRowCount();
+            event.errorCount = metrics.getErrorCount();
+            event.rowsPerSecond = metrics.getRowsPerSecond();
+            event.stopReason = metrics.getStopReason().name();
+            event.failure = failure == null ? null : failure.name();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package reader;
+
+import org.apache.poi.ss.usermodel.CellType;
+import util.utils;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * excel 中的一行数据
+ * 屏蔽了 HSSFRow（整表加载）与事件流解析出的行之间的差异，转换逻辑只依赖该接口
+ */
+public interface ExcelRow {
+
+    /**
+     * 行号，从0开始计数
+     */
+    int getRowNum();
+
+    /**
+     * 该行中非空单元格的数量
+     */
+    int getPhysicalNumberOfCells();
+
+    /**
+     * 获取单元格中值的类型，公式返回其缓存结果的类型，单元格不存在时返回 BLANK
+     *
+     * @param index 列下标，从0开始计数
+     * @return
+     */
+    CellType getCellType(int index);
+
+    /**
+     * 数值型单元格是否使用了日期格式
+     *
+     * @param index 列下标，从0开始计数
+     * @return
+     */
+    boolean isCellDateFormatted(int index);
+
+    /**
+     * 读取数值型单元格的值，调用前需要确认单元格的类型为 NUMERIC
+     *
+     * @param index 列下标，从0开始计数
+     * @return
+     */
+    double getNumericCellValue(int index);
+
+    /**
+     * 读取布尔型单元格的值，调用前需要确认单元格的类型为 BOOLEAN
+     *
+     * @param index 列下标，从0开始计数
+     * @return
+     */
+    boolean getBooleanCellValue(int index);
+
+    /**
+     * 获取单元格中的值,并转成 String 类型，单元格不存在时返回空字符串
+     *
+     * @param index 列下标，从0开始计数
+     * @return
+     */
+    String getCellValue(int index);
+
+    /**
+     * 单元格去除空格和特殊符号后是否为空，单元格不存在时返回 true
+     * 只有文本需要逐个字符检查，不会创建去除空格后的字符串
+     *
+     * @param index 列下标，从0开始计数
+     * @return
+     */
+    default boolean isCellBlank(int index) {
+        return utils.textIsBlank(getCellValue(index));
+    }
+
+    /**
+     * 以日期的方式读取数值型单元格，单元格不是数值型时返回 null
+     *
+     * @param index 列下标，从0开始计数
+     * @return
+     */
+    Date getDateCellValue(int index);
+
+    /**
+     * 以日期的方式读取数值型单元格，不经过时区转换，单元格不是数值型时返回 null
+     *
+     * @param index 列下标，从0开始计数
+     * @return
+     */
+    LocalDateTime getLocalDateTimeCellValue(int index);
+}
@@ -0,0 +1,280 @@
+package reader;
+
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FormulaError;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+
+/**
+ * 基于 POI 事件模型（HSSFListener）的 xls 读取器
+ * 直接从 Workbook 流中逐条读取记录并组装成行，不会在内存中构建 HSSFWorkbook 对象树，
+ * 内存占用只与单行的数据量有关，与文件的总行数无关。
+ * 目前只读取第一个 sheet
+ */
+public class HSSFEventRowReader implements RowReader, HSSFListener {
+
+    /**
+     * FormulaRecord 中缓存结果的类型，取值与 BIFF8 格式相同
+     * POI 3.17 中按类型代码取 CellType 的方法都已过时，这里直接比较类型代码
+     */
+    private static final int CACHED_RESULT_STRING = 1;
+
+    private static final int CACHED_RESULT_BOOLEAN = 4;
+
+    private static final int CACHED_RESULT_ERROR = 5;
+
+    private final NPOIFSFileSystem poifsFileSystem;
+
+    private final InputStream documentInputStream;
+
+    private final RecordFactoryInputStream recordStream;
+
+    /**
+     * 负责记录单元格格式，用于判断数值型单元格是否为日期
+     */
+    private final FormatTrackingHSSFListener formatListener;
+
+    /**
+     * 共享字符串表，LabelSSTRecord 中只保存了字符串在该表中的下标
+     */
+    private SSTRecord sstRecord;
+
+    private boolean date1904;
+
+    /**
+     * 已经读到的 sheet 的下标
+     */
+    private int sheetIndex = -1;
+
+    /**
+     * 当前是否处于要读取的 sheet 中
+     */
+    private boolean inTargetSheet;
+
+    /**
+     * 要读取的 sheet 已经读取完毕
+     */
+    private boolean finished;
+
+    /**
+     * 正在组装的行
+     */
+    private StreamingExcelRow currentRow;
+
+    /**
+     * 已经组装完毕，等待返回的行
+     */
+    private StreamingExcelRow completedRow;
+
+    /**
+     * 结果为字符串的公式，其值保存在紧随其后的 StringRecord 中
+     */
+    private FormulaRecord pendingFormula;
+
+    public HSSFEventRowReader(InputStream inputStream) throws IOException {
+        this(new POIFSFileSystem(inputStream));
+    }
+
+    /**
+     * 直接读取磁盘上的文件，以只读方式打开，按需将用到的块读入堆中的缓冲区，不会将整个文件复制到堆中
+     */
+    public HSSFEventRowReader(File file) throws IOException {
+        this(new POIFSFileSystem(file, true));
+    }
+
+    /**
+     * 以只读方式读取已经打开的文件通道，读取方式与 HSSFEventRowReader(File) 相同，关闭时同时关闭通道
+     */
+    public HSSFEventRowReader(FileChannel channel) throws IOException {
+        this(new NPOIFSFileSystem(channel, true));
+    }
+
+    private HSSFEventRowReader(NPOIFSFileSystem poifsFileSystem) throws IOException {
+        this.poifsFileSystem = poifsFileSystem;
+        DirectoryNode root = poifsFileSystem.getRoot();
+        try {
+            this.documentInputStream = root.createDocumentInputStream(HSSFWorkbook.getWorkbookDirEntryName(root));
+        } catch (IOException | RuntimeException e) {
+            // 以文件打开时需要释放文件句柄
+            poifsFileSystem.close();
+            throw e;
+        }
+        this.recordStream = new RecordFactoryInputStream(documentInputStream, false);
+        this.formatListener = new FormatTrackingHSSFListener(this);
+    }
+
+    @Override
+    public ExcelRow nextRow() {
+        while (completedRow == null && !finished) {
+            Record record = recordStream.nextRecord();
+            if (record == null) {
+                finishRow();
+                finished = true;
+                break;
+            }
+            formatListener.processRecord(record);
+        }
+        StreamingExcelRow row = completedRow;
+        completedRow = null;
+        return row;
+    }
+
+    @Override
+    public void processRecord(Record record) {
+        switch (record.getSid()) {
+            case BOFRecord.sid:
+                if (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+                    sheetIndex++;
+                    inTargetSheet = sheetIndex == 0;
+                }
+                break;
+            case EOFRecord.sid:
+                if (inTargetSheet) {
+                    finishRow();
+                    inTargetSheet = false;
+                    finished = true;
+                }
+                break;
+            case SSTRecord.sid:
+                sstRecord = (SSTRecord) record;
+                break;
+            case DateWindow1904Record.sid:
+                date1904 = ((DateWindow1904Record) record).getWindowing() == 1;
+                break;
+            default:
+                if (inTargetSheet) {
+                    processCellRecord(record);
+                }
+        }
+    }
+
+    /**
+     * 处理单元格记录
+     */
+    private void processCellRecord(Record record) {
+        switch (record.getSid()) {
+            case LabelSSTRecord.sid:
+                LabelSSTRecord labelSSTRecord = (LabelSSTRecord) record;
+                setCell(labelSSTRecord, StreamingExcelRow.STRING, 0,
+                        sstRecord.getString(labelSSTRecord.getSSTIndex()).getString());
+                break;
+            case LabelRecord.sid:
+                LabelRecord labelRecord = (LabelRecord) record;
+                setCell(labelRecord, StreamingExcelRow.STRING, 0, labelRecord.getValue());
+                break;
+            case NumberRecord.sid:
+                NumberRecord numberRecord = (NumberRecord) record;
+                double value = numberRecord.getValue();
+                byte type = isDateFormatted(numberRecord, value) ? StreamingExcelRow.DATE : StreamingExcelRow.NUMERIC;
+                setCell(numberRecord, type, value, null);
+                break;
+            case BoolErrRecord.sid:
+                BoolErrRecord boolErrRecord = (BoolErrRecord) record;
+                if (boolErrRecord.isBoolean()) {
+                    setCell(boolErrRecord, StreamingExcelRow.BOOLEAN, boolErrRecord.getBooleanValue() ? 1 : 0, null);
+                } else {
+                    setCell(boolErrRecord, StreamingExcelRow.ERROR, 0, errorText(boolErrRecord.getErrorValue()));
+                }
+                break;
+            case FormulaRecord.sid:
+                processFormulaRecord((FormulaRecord) record);
+                break;
+            case StringRecord.sid:
+                if (pendingFormula != null) {
+                    setCell(pendingFormula, StreamingExcelRow.FORMULA_STRING, 0, ((StringRecord) record).getString());
+                    pendingFormula = null;
+                }
+                break;
+            case BlankRecord.sid:
+                setCell((BlankRecord) record, StreamingExcelRow.BLANK, 0, null);
+                break;
+            default:
+        }
+    }
+
+    /**
+     * 处理公式记录，只取公式的缓存结果
+     */
+    private void processFormulaRecord(FormulaRecord formulaRecord) {
+        if (formulaRecord.hasCachedResultString()) {
+            pendingFormula = formulaRecord;
+            return;
+        }
+        switch (formulaRecord.getCachedResultType()) {
+            case CACHED_RESULT_STRING:
+                // 结果为空字符串的公式没有 StringRecord
+                setCell(formulaRecord, StreamingExcelRow.FORMULA_STRING, 0, "");
+                break;
+            case CACHED_RESULT_BOOLEAN:
+                setCell(formulaRecord, StreamingExcelRow.FORMULA_BOOLEAN, formulaRecord.getCachedBooleanValue() ? 1 : 0, null);
+                break;
+            case CACHED_RESULT_ERROR:
+                setCell(formulaRecord, StreamingExcelRow.FORMULA_ERROR, 0, errorText(formulaRecord.getCachedErrorValue()));
+                break;
+            default:
+                setCell(formulaRecord, StreamingExcelRow.FORMULA_NUMERIC, formulaRecord.getValue(), null);
+        }
+    }
+
+    /**
+     * 将单元格的值放入所在的行，遇到新的行号时，之前的行组装完毕
+     */
+    private void setCell(CellValueRecordInterface record, byte type, double number, String string) {
+        int rowNum = record.getRow();
+        if (currentRow == null || currentRow.getRowNum() != rowNum) {
+            finishRow();
+            currentRow = new StreamingExcelRow(rowNum, date1904);
+        }
+        currentRow.setCell(record.getColumn(), type, number, string);
+    }
+
+    private void finishRow() {
+        if (currentRow != null) {
+            completedRow = currentRow;
+            currentRow = null;
+        }
+    }
+
+    /**
+     * 与 HSSFDateUtil.isCellDateFormatted 的判断方式一致
+     */
+    private boolean isDateFormatted(CellValueRecordInterface record, double value) {
+        if (!DateUtil.isValidExcelDate(value)) {
+            return false;
+        }
+        return DateUtil.isADateFormat(formatListener.getFormatIndex(record), formatListener.getFormatString(record));
+    }
+
+    private String errorText(int errorCode) {
+        return FormulaError.isValidCode(errorCode) ? FormulaError.forInt(errorCode).getString() : "";
+    }
+
+    @Override
+    public void close() throws IOException {
+        documentInputStream.close();
+        poifsFileSystem.close();
+    }
+}
@@ -0,0 +1,140 @@
+package reader;
+
+import org.apache.poi.hssf.usermodel.HSSFCell;
+import org.apache.poi.hssf.usermodel.HSSFDateUtil;
+import org.apache.poi.hssf.usermodel.HSSFRow;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import util.utils;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * 对 HSSFRow 的包装，只读取单元格，不会修改工作簿
+ */
+public class HSSFExcelRow implements ExcelRow {
+
+    private final HSSFRow hssfRow;
+
+    public HSSFExcelRow(HSSFRow hssfRow) {
+        this.hssfRow = hssfRow;
+    }
+
+    @Override
+    public int getRowNum() {
+        return hssfRow.getRowNum();
+    }
+
+    @Override
+    public int getPhysicalNumberOfCells() {
+        return hssfRow.getPhysicalNumberOfCells();
+    }
+
+    @Override
+    public CellType getCellType(int index) {
+        HSSFCell hssfCell = hssfRow.getCell(index);
+        if (hssfCell == null) {
+            return CellType.BLANK;
+        }
+        CellType cellType = hssfCell.getCellTypeEnum();
+        if (cellType == CellType.FORMULA) {
+            return hssfCell.getCachedFormulaResultTypeEnum();
+        }
+        return cellType;
+    }
+
+    @Override
+    public boolean isCellDateFormatted(int index) {
+        HSSFCell hssfCell = hssfRow.getCell(index);
+        return hssfCell != null && hssfCell.getCellTypeEnum() == CellType.NUMERIC
+                && HSSFDateUtil.isCellDateFormatted(hssfCell);
+    }
+
+    @Override
+    public double getNumericCellValue(int index) {
+        return hssfRow.getCell(index).getNumericCellValue();
+    }
+
+    @Override
+    public boolean getBooleanCellValue(int index) {
+        return hssfRow.getCell(index).getBooleanCellValue();
+    }
+
+    @Override
+    public String getCellValue(int index) {
+        HSSFCell hssfCell = hssfRow.getCell(index);
+        // 如果是空
+        if (hssfCell == null || hssfCell.getCellTypeEnum() == CellType.BLANK) {
+            return "";
+        }
+
+        // 如果是布尔类型的值
+        if (hssfCell.getCellTypeEnum() == CellType.BOOLEAN) {
+            return String.valueOf(hssfCell.getBooleanCellValue());
+        }
+
+        // 如果是数字类型的值
+        if (hssfCell.getCellTypeEnum() == CellType.NUMERIC) {
+            // 如果是时间类型的值
+            if (HSSFDateUtil.isCellDateFormatted(hssfCell)) {
+                return utils.DATE_TIME_FORMATTER.format(getLocalDateTimeCellValue(index));
+            }
+            // 与 excel 中显示的数值一致，整数不带小数点
+            return NumberToTextConverter.toText(hssfCell.getNumericCellValue());
+        }
+
+        //如果是公式
+        if (hssfCell.getCellTypeEnum() == CellType.FORMULA) {
+            String value;
+            try {
+                value = String.valueOf(hssfCell.getNumericCellValue());
+            } catch (IllegalStateException e) {
+                value = String.valueOf(hssfCell.getRichStringCellValue());
+            }
+            return value;
+        }
+
+        // 返回字符串类型的值
+        return String.valueOf(hssfCell.getStringCellValue());
+    }
+
+    @Override
+    public boolean isCellBlank(int index) {
+        HSSFCell hssfCell = hssfRow.getCell(index);
+        if (hssfCell == null) {
+            return true;
+        }
+        switch (hssfCell.getCellTypeEnum()) {
+            case BLANK:
+                return true;
+            case STRING:
+                return utils.textIsBlank(hssfCell.getStringCellValue());
+            case NUMERIC:
+            case BOOLEAN:
+                return false;
+            default:
+                // 公式和错误与 getCellValue 的结果保持一致
+                return utils.textIsBlank(getCellValue(index));
+        }
+    }
+
+    @Override
+    public Date getDateCellValue(int index) {
+        HSSFCell hssfCell = hssfRow.getCell(index);
+        if (hssfCell == null || getCellType(index) != CellType.NUMERIC) {
+            return null;
+        }
+        return hssfCell.getDateCellValue();
+    }
+
+    @Override
+    public LocalDateTime getLocalDateTimeCellValue(int index) {
+        HSSFCell hssfCell = hssfRow.getCell(index);
+        if (hssfCell == null || getCellType(index) != CellType.NUMERIC) {
+            return null;
+        }
+        boolean date1904 = hssfRow.getSheet().getWorkbook().getInternalWorkbook().isUsing1904DateWindowing();
+        return utils.excelDateToLocalDateTime(hssfCell.getNumericCellValue(), date1904);
+    }
+}
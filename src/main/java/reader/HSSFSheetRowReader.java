@@ -0,0 +1,56 @@
+package reader;
+
+import org.apache.poi.hssf.usermodel.HSSFRow;
+import org.apache.poi.hssf.usermodel.HSSFSheet;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 遍历已经加载到内存中的 HSSFSheet
+ */
+public class HSSFSheetRowReader implements RowReader {
+
+    private final HSSFSheet hssfSheet;
+
+    /**
+     * 关闭时一起关闭的资源，为 null 时关闭不做任何事
+     */
+    private final Closeable owner;
+
+    /**
+     * 下一个要读取的行号
+     */
+    private int next;
+
+    public HSSFSheetRowReader(HSSFSheet hssfSheet) {
+        this(hssfSheet, null);
+    }
+
+    /**
+     * @param owner 关闭时一起关闭的资源，如 sheet 所在的工作簿
+     */
+    public HSSFSheetRowReader(HSSFSheet hssfSheet, Closeable owner) {
+        this.hssfSheet = hssfSheet;
+        this.owner = owner;
+        this.next = hssfSheet.getFirstRowNum();
+    }
+
+    @Override
+    public ExcelRow nextRow() {
+        while (next <= hssfSheet.getLastRowNum()) {
+            HSSFRow hssfRow = hssfSheet.getRow(next++);
+            if (hssfRow != null) {
+                return new HSSFExcelRow(hssfRow);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (owner != null) {
+            owner.close();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package reader;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+
+/**
+ * 整个加载到内存中的 xls 文件，所有 sheet 共享同一个 HSSFWorkbook
+ * HSSFSheetRowReader 只读取单元格，不会修改工作簿，所以可以同时读取多个 sheet
+ */
+public class HSSFWorkbookReader implements WorkbookReader {
+
+    private final HSSFWorkbook hssfWorkbook;
+
+    /**
+     * 以文件打开时的文件系统，需要在关闭时释放文件句柄；以文件流打开时为 null
+     */
+    private final NPOIFSFileSystem poifsFileSystem;
+
+    public HSSFWorkbookReader(InputStream inputStream) throws IOException {
+        this.hssfWorkbook = new HSSFWorkbook(inputStream);
+        this.poifsFileSystem = null;
+    }
+
+    /**
+     * 直接读取磁盘上的文件，以只读方式打开，按需将用到的块读入堆中的缓冲区，不需要先将整个文件读入字节数组
+     */
+    public HSSFWorkbookReader(File file) throws IOException {
+        this(new POIFSFileSystem(file, true));
+    }
+
+    /**
+     * 以只读方式读取已经打开的文件通道，读取方式与 HSSFWorkbookReader(File) 相同，关闭时同时关闭通道
+     */
+    public HSSFWorkbookReader(FileChannel channel) throws IOException {
+        this(new NPOIFSFileSystem(channel, true));
+    }
+
+    private HSSFWorkbookReader(NPOIFSFileSystem poifsFileSystem) throws IOException {
+        this.poifsFileSystem = poifsFileSystem;
+        try {
+            this.hssfWorkbook = new HSSFWorkbook(poifsFileSystem.getRoot(), true);
+        } catch (IOException | RuntimeException e) {
+            poifsFileSystem.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getNumberOfSheets() {
+        return hssfWorkbook.getNumberOfSheets();
+    }
+
+    @Override
+    public String getSheetName(int index) {
+        return hssfWorkbook.getSheetName(index);
+    }
+
+    @Override
+    public RowReader openSheet(int index) {
+        return new HSSFSheetRowReader(hssfWorkbook.getSheetAt(index));
+    }
+
+    /**
+     * 打开第一个 sheet，关闭返回的 RowReader 时同时关闭工作簿
+     *
+     * @return 没有 sheet 时关闭工作簿并返回 null
+     */
+    public RowReader openFirstSheet() throws IOException {
+        if (hssfWorkbook.getNumberOfSheets() == 0) {
+            close();
+            return null;
+        }
+        return new HSSFSheetRowReader(hssfWorkbook.getSheetAt(0), this);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            hssfWorkbook.close();
+        } finally {
+            if (poifsFileSystem != null) {
+                poifsFileSystem.close();
+            }
+        }
+    }
+}
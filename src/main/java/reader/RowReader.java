@@ -0,0 +1,18 @@
+package reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 按行号递增的顺序逐行读取 sheet 中的数据，没有任何单元格的行不会返回
+ */
+public interface RowReader extends Closeable {
+
+    /**
+     * 读取下一行
+     *
+     * @return 下一行数据，读取完毕时返回 null
+     * @throws IOException
+     */
+    ExcelRow nextRow() throws IOException;
+}
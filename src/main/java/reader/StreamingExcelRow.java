@@ -0,0 +1,181 @@
+package reader;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import util.utils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * 事件流解析过程中组装出来的一行数据，只保存单元格的原始值，不依赖 POI 的对象模型
+ */
+public class StreamingExcelRow implements ExcelRow {
+
+    static final byte BLANK = 0;
+    static final byte STRING = 1;
+    static final byte NUMERIC = 2;
+    static final byte DATE = 3;
+    static final byte BOOLEAN = 4;
+    static final byte ERROR = 5;
+    static final byte FORMULA_NUMERIC = 6;
+    static final byte FORMULA_STRING = 7;
+    static final byte FORMULA_BOOLEAN = 8;
+    static final byte FORMULA_ERROR = 9;
+
+    private final int rowNum;
+
+    /**
+     * 日期是否使用 1904 日期系统
+     */
+    private final boolean date1904;
+
+    /**
+     * 非空单元格的数量
+     */
+    private int physicalNumberOfCells;
+
+    private byte[] types = new byte[8];
+
+    /**
+     * 已填充的单元格标记，用于区分空白单元格和不存在的单元格
+     */
+    private boolean[] present = new boolean[8];
+
+    private double[] numbers = new double[8];
+
+    private String[] strings = new String[8];
+
+    StreamingExcelRow(int rowNum, boolean date1904) {
+        this.rowNum = rowNum;
+        this.date1904 = date1904;
+    }
+
+    void setCell(int index, byte type, double number, String string) {
+        if (index >= types.length) {
+            int length = Math.max(types.length * 2, index + 1);
+            types = Arrays.copyOf(types, length);
+            present = Arrays.copyOf(present, length);
+            numbers = Arrays.copyOf(numbers, length);
+            strings = Arrays.copyOf(strings, length);
+        }
+        if (!present[index]) {
+            present[index] = true;
+            physicalNumberOfCells++;
+        }
+        types[index] = type;
+        numbers[index] = number;
+        strings[index] = string;
+    }
+
+    @Override
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    @Override
+    public int getPhysicalNumberOfCells() {
+        return physicalNumberOfCells;
+    }
+
+    @Override
+    public CellType getCellType(int index) {
+        if (index < 0 || index >= types.length) {
+            return CellType.BLANK;
+        }
+        switch (types[index]) {
+            case STRING:
+            case FORMULA_STRING:
+                return CellType.STRING;
+            case NUMERIC:
+            case DATE:
+            case FORMULA_NUMERIC:
+                return CellType.NUMERIC;
+            case BOOLEAN:
+            case FORMULA_BOOLEAN:
+                return CellType.BOOLEAN;
+            case ERROR:
+            case FORMULA_ERROR:
+                return CellType.ERROR;
+            default:
+                return CellType.BLANK;
+        }
+    }
+
+    @Override
+    public boolean isCellDateFormatted(int index) {
+        return index >= 0 && index < types.length && types[index] == DATE;
+    }
+
+    @Override
+    public double getNumericCellValue(int index) {
+        return numbers[index];
+    }
+
+    @Override
+    public boolean getBooleanCellValue(int index) {
+        return numbers[index] != 0;
+    }
+
+    @Override
+    public String getCellValue(int index) {
+        if (index < 0 || index >= types.length) {
+            return "";
+        }
+        switch (types[index]) {
+            case STRING:
+            case ERROR:
+            case FORMULA_STRING:
+            case FORMULA_ERROR:
+                return strings[index];
+            case NUMERIC:
+                return NumberToTextConverter.toText(numbers[index]);
+            case DATE:
+                return utils.DATE_TIME_FORMATTER.format(getLocalDateTimeCellValue(index));
+            case BOOLEAN:
+            case FORMULA_BOOLEAN:
+                return String.valueOf(numbers[index] != 0);
+            case FORMULA_NUMERIC:
+                return String.valueOf(numbers[index]);
+            default:
+                return "";
+        }
+    }
+
+    @Override
+    public boolean isCellBlank(int index) {
+        if (index < 0 || index >= types.length) {
+            return true;
+        }
+        switch (types[index]) {
+            case STRING:
+            case ERROR:
+            case FORMULA_STRING:
+            case FORMULA_ERROR:
+                return utils.textIsBlank(strings[index]);
+            case BLANK:
+                return true;
+            default:
+                // 数值、日期、布尔值转换成字符串后都不为空
+                return false;
+        }
+    }
+
+    @Override
+    public Date getDateCellValue(int index) {
+        if (getCellType(index) != CellType.NUMERIC) {
+            return null;
+        }
+        return DateUtil.getJavaDate(numbers[index], date1904);
+    }
+
+    @Override
+    public LocalDateTime getLocalDateTimeCellValue(int index) {
+        if (getCellType(index) != CellType.NUMERIC) {
+            return null;
+        }
+        return utils.excelDateToLocalDateTime(numbers[index], date1904);
+    }
+}
@@ -0,0 +1,33 @@
+package reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 只解析一次的 excel 文件，可以从中打开多个 sheet 的 RowReader
+ * 不同的 sheet 可以在不同的线程中同时读取，但同一个 RowReader 只能在一个线程中使用
+ */
+public interface WorkbookReader extends Closeable {
+
+    /**
+     * sheet 的数量
+     */
+    int getNumberOfSheets();
+
+    /**
+     * sheet 的名称
+     *
+     * @param index sheet 的下标，从0开始计数
+     * @return
+     */
+    String getSheetName(int index);
+
+    /**
+     * 打开指定 sheet 的 RowReader，关闭 WorkbookReader 时所有打开的 RowReader 都不能再使用
+     *
+     * @param index sheet 的下标，从0开始计数
+     * @return
+     * @throws IOException
+     */
+    RowReader openSheet(int index) throws IOException;
+}
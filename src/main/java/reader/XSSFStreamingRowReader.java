@@ -0,0 +1,237 @@
+package reader;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 基于 StAX 的 xlsx 读取器
+ * 逐个读取 sheet xml 中的 row 元素并组装成行，共享字符串使用只读的 ReadOnlySharedStringsTable，
+ * 不会构建 XSSFWorkbook，内存占用与文件的总行数无关。
+ * 通过文件流创建时只读取第一个 sheet，其他 sheet 通过 XSSFStreamingWorkbookReader 打开
+ */
+public class XSSFStreamingRowReader implements RowReader {
+
+    private final XSSFStreamingWorkbookReader workbookReader;
+
+    /**
+     * 关闭时是否同时关闭 workbookReader
+     */
+    private final boolean ownWorkbook;
+
+    private final InputStream sheetInputStream;
+
+    private final XMLStreamReader xmlReader;
+
+    private final boolean date1904;
+
+    /**
+     * 上一个读取到的行号，用于处理没有 r 属性的 row 元素
+     */
+    private int lastRowNum = -1;
+
+    private boolean finished;
+
+    public XSSFStreamingRowReader(InputStream inputStream) throws IOException {
+        this(new XSSFStreamingWorkbookReader(inputStream), 0, true);
+    }
+
+    /**
+     * 直接读取磁盘上的文件，不复制到临时文件
+     */
+    public XSSFStreamingRowReader(File file) throws IOException {
+        this(new XSSFStreamingWorkbookReader(file), 0, true);
+    }
+
+    /**
+     * @param workbookReader 已经打开的 xlsx 文件
+     * @param sheetIndex     sheet 的下标，从0开始计数
+     * @param ownWorkbook    关闭时是否同时关闭 workbookReader
+     */
+    XSSFStreamingRowReader(XSSFStreamingWorkbookReader workbookReader, int sheetIndex, boolean ownWorkbook)
+            throws IOException {
+        this.workbookReader = workbookReader;
+        this.ownWorkbook = ownWorkbook;
+        this.date1904 = workbookReader.isDate1904();
+        InputStream sheetData = null;
+        try {
+            sheetData = workbookReader.getSheetData(sheetIndex);
+            this.xmlReader = XSSFStreamingWorkbookReader.XML_INPUT_FACTORY.createXMLStreamReader(sheetData);
+        } catch (XMLStreamException e) {
+            closeOnFailure(sheetData);
+            throw new IOException(e);
+        } catch (IOException | RuntimeException e) {
+            closeOnFailure(sheetData);
+            throw e;
+        }
+        this.sheetInputStream = sheetData;
+    }
+
+    private void closeOnFailure(InputStream sheetData) throws IOException {
+        try {
+            if (sheetData != null) {
+                sheetData.close();
+            }
+        } finally {
+            if (ownWorkbook) {
+                workbookReader.close();
+            }
+        }
+    }
+
+    @Override
+    public ExcelRow nextRow() throws IOException {
+        try {
+            while (!finished && xmlReader.hasNext()) {
+                int event = xmlReader.next();
+                if (event == XMLStreamConstants.START_ELEMENT && "row".equals(xmlReader.getLocalName())) {
+                    return readRow();
+                }
+                if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(xmlReader.getLocalName())) {
+                    finished = true;
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 读取一个 row 元素，读取完毕后 xmlReader 位于 row 的结束标签
+     */
+    private ExcelRow readRow() throws XMLStreamException {
+        String r = xmlReader.getAttributeValue(null, "r");
+        int rowNum = r == null ? lastRowNum + 1 : Integer.parseInt(r) - 1;
+        lastRowNum = rowNum;
+        StreamingExcelRow row = new StreamingExcelRow(rowNum, date1904);
+
+        int column = -1;
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xmlReader.getLocalName())) {
+                String reference = xmlReader.getAttributeValue(null, "r");
+                column = reference == null ? column + 1 : columnIndex(reference);
+                readCell(row, column);
+            } else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xmlReader.getLocalName())) {
+                break;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * 读取一个 c 元素，读取完毕后 xmlReader 位于 c 的结束标签
+     */
+    private void readCell(StreamingExcelRow row, int column) throws XMLStreamException {
+        String type = xmlReader.getAttributeValue(null, "t");
+        String style = xmlReader.getAttributeValue(null, "s");
+        boolean formula = false;
+        String value = null;
+
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = xmlReader.getLocalName();
+                if ("v".equals(name)) {
+                    value = xmlReader.getElementText();
+                } else if ("is".equals(name)) {
+                    value = readInlineString();
+                } else if ("f".equals(name)) {
+                    formula = true;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "c".equals(xmlReader.getLocalName())) {
+                break;
+            }
+        }
+
+        if (value == null) {
+            row.setCell(column, StreamingExcelRow.BLANK, 0, null);
+            return;
+        }
+        if ("s".equals(type)) {
+            row.setCell(column, StreamingExcelRow.STRING, 0, workbookReader.getSharedString(Integer.parseInt(value.trim())));
+        } else if ("inlineStr".equals(type) || "d".equals(type)) {
+            row.setCell(column, StreamingExcelRow.STRING, 0, value);
+        } else if ("str".equals(type)) {
+            row.setCell(column, formula ? StreamingExcelRow.FORMULA_STRING : StreamingExcelRow.STRING, 0, value);
+        } else if ("b".equals(type)) {
+            double bool = "1".equals(value.trim()) || "true".equalsIgnoreCase(value.trim()) ? 1 : 0;
+            row.setCell(column, formula ? StreamingExcelRow.FORMULA_BOOLEAN : StreamingExcelRow.BOOLEAN, bool, null);
+        } else if ("e".equals(type)) {
+            row.setCell(column, formula ? StreamingExcelRow.FORMULA_ERROR : StreamingExcelRow.ERROR, 0, value);
+        } else {
+            double number = Double.parseDouble(value);
+            byte numberType;
+            if (formula) {
+                numberType = StreamingExcelRow.FORMULA_NUMERIC;
+            } else if (style != null && DateUtil.isValidExcelDate(number) && workbookReader.isDateStyle(Integer.parseInt(style))) {
+                numberType = StreamingExcelRow.DATE;
+            } else {
+                numberType = StreamingExcelRow.NUMERIC;
+            }
+            row.setCell(column, numberType, number, null);
+        }
+    }
+
+    /**
+     * 读取内联字符串，忽略注音（rPh）中的文字
+     */
+    private String readInlineString() throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int phoneticDepth = 0;
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = xmlReader.getLocalName();
+                if ("rPh".equals(name)) {
+                    phoneticDepth++;
+                } else if ("t".equals(name) && phoneticDepth == 0) {
+                    text.append(xmlReader.getElementText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = xmlReader.getLocalName();
+                if ("rPh".equals(name)) {
+                    phoneticDepth--;
+                } else if ("is".equals(name)) {
+                    break;
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * 将单元格引用（如 AB12）中的列字母转换成从0开始的列下标
+     */
+    private static int columnIndex(String reference) {
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xmlReader.close();
+            sheetInputStream.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            if (ownWorkbook) {
+                workbookReader.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package reader;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 以流式的方式读取的 xlsx 文件
+ * 共享字符串、日期样式和 sheet 列表只读取一次，每个 sheet 由各自的 XSSFStreamingRowReader 读取，
+ * 共享的部分创建后只读，所以可以同时读取多个 sheet
+ */
+public class XSSFStreamingWorkbookReader implements WorkbookReader {
+
+    static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        // 禁止解析 DTD 和外部实体
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private static final String RELATIONSHIPS_NAMESPACE =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    /**
+     * OPCPackage 需要随机访问 zip 中的各个部分，先将文件流写入临时文件，关闭时删除；直接读取文件时为 null
+     */
+    private final File tempFile;
+
+    private final OPCPackage opcPackage;
+
+    private final XSSFReader xssfReader;
+
+    private final ReadOnlySharedStringsTable sharedStringsTable;
+
+    /**
+     * 样式是否为日期格式，下标为样式的下标
+     */
+    private final boolean[] dateStyles;
+
+    private boolean date1904;
+
+    /**
+     * sheet 的名称，按 workbook.xml 中的顺序
+     */
+    private final List<String> sheetNames = new ArrayList<>();
+
+    /**
+     * sheet 对应的关系 id，与 sheetNames 一一对应
+     */
+    private final List<String> sheetRelationIds = new ArrayList<>();
+
+    public XSSFStreamingWorkbookReader(InputStream inputStream) throws IOException {
+        this(copyToTempFile(inputStream), true);
+    }
+
+    /**
+     * 直接以只读方式读取磁盘上的文件，不复制到临时文件
+     */
+    public XSSFStreamingWorkbookReader(File file) throws IOException {
+        this(file, false);
+    }
+
+    private XSSFStreamingWorkbookReader(File file, boolean temporary) throws IOException {
+        this.tempFile = temporary ? file : null;
+        try {
+            this.opcPackage = OPCPackage.open(file, PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            deleteTempFile();
+            throw new IOException(e);
+        }
+        try {
+            this.xssfReader = new XSSFReader(opcPackage);
+            this.sharedStringsTable = new ReadOnlySharedStringsTable(opcPackage);
+            this.dateStyles = readDateStyles(xssfReader.getStylesTable());
+            readWorkbook();
+        } catch (OpenXML4JException | SAXException | XMLStreamException e) {
+            close();
+            throw new IOException(e);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getNumberOfSheets() {
+        return sheetNames.size();
+    }
+
+    @Override
+    public String getSheetName(int index) {
+        return sheetNames.get(index);
+    }
+
+    @Override
+    public RowReader openSheet(int index) throws IOException {
+        return new XSSFStreamingRowReader(this, index, false);
+    }
+
+    /**
+     * 打开 sheet 的 xml 流，OPCPackage 不保证线程安全，所以打开的过程是同步的
+     */
+    synchronized InputStream getSheetData(int index) throws IOException {
+        if (index < 0 || index >= sheetRelationIds.size()) {
+            throw new IOException("sheet 不存在：" + index);
+        }
+        try {
+            return xssfReader.getSheet(sheetRelationIds.get(index));
+        } catch (InvalidFormatException e) {
+            throw new IOException(e);
+        }
+    }
+
+    boolean isDate1904() {
+        return date1904;
+    }
+
+    String getSharedString(int index) {
+        return sharedStringsTable.getEntryAt(index);
+    }
+
+    /**
+     * 判断样式是否为日期格式
+     */
+    boolean isDateStyle(int styleIndex) {
+        return styleIndex >= 0 && styleIndex < dateStyles.length && dateStyles[styleIndex];
+    }
+
+    private static boolean[] readDateStyles(StylesTable stylesTable) {
+        if (stylesTable == null) {
+            return new boolean[0];
+        }
+        boolean[] dateStyles = new boolean[stylesTable.getNumCellStyles()];
+        for (int i = 0; i < dateStyles.length; i++) {
+            XSSFCellStyle cellStyle = stylesTable.getStyleAt(i);
+            dateStyles[i] = cellStyle != null
+                    && DateUtil.isADateFormat(cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+        }
+        return dateStyles;
+    }
+
+    /**
+     * 读取 workbook.xml 中 workbookPr 元素的 date1904 属性，以及 sheets 中的 sheet 列表
+     */
+    private void readWorkbook() throws IOException, OpenXML4JException, XMLStreamException {
+        try (InputStream workbookData = xssfReader.getWorkbookData()) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(workbookData);
+            try {
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT && "sheets".equals(reader.getLocalName())) {
+                        return;
+                    }
+                    if (event != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    String name = reader.getLocalName();
+                    if ("workbookPr".equals(name)) {
+                        String date1904 = reader.getAttributeValue(null, "date1904");
+                        this.date1904 = "1".equals(date1904) || "true".equalsIgnoreCase(date1904);
+                    } else if ("sheet".equals(name)) {
+                        sheetNames.add(reader.getAttributeValue(null, "name"));
+                        sheetRelationIds.add(reader.getAttributeValue(RELATIONSHIPS_NAMESPACE, "id"));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    private static File copyToTempFile(InputStream inputStream) throws IOException {
+        File file = File.createTempFile("e2o", ".xlsx");
+        try {
+            Files.copy(inputStream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        } finally {
+            inputStream.close();
+        }
+        return file;
+    }
+
+    private void deleteTempFile() {
+        if (tempFile != null) {
+            tempFile.delete();
+        }
+    }
+
+    @Override
+    public void close() {
+        opcPackage.revert();
+        deleteTempFile();
+    }
+}
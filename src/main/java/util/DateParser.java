@@ -0,0 +1,309 @@
+package util;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Date;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 日期解析器，创建后不可变，可以在多个线程之间共享
+ * 未指定格式时，通过一次字符扫描识别 utils.autoDate 支持的格式并直接解析数字，除少见的英文格式外不使用正则和 SimpleDateFormat；
+ * 指定格式时，只使用预先编译好的 DateTimeFormatter 依次尝试，不再识别格式
+ */
+public final class DateParser {
+
+    /**
+     * 自动识别格式的解析器
+     */
+    public static final DateParser AUTO = new DateParser(null);
+
+    /**
+     * Wed Mar 21 18:11:43 CST 2012 格式中的时区缩写需要区分标准时间和夏令时，java.time 不支持，
+     * 这种格式很少出现，每个线程缓存一个 SimpleDateFormat
+     */
+    private static final ThreadLocal<SimpleDateFormat> ENGLISH_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat("EEE MMM d H:m:s z yyyy", Locale.ENGLISH);
+        }
+    };
+
+    private static final Pattern ENGLISH_PATTERN =
+            Pattern.compile("([A-Z][a-z]{2} ){2}\\d{1,2} \\d{1,2}(:\\d{1,2}){2} [A-Z]{3} \\d{4}");
+
+    /**
+     * 指定的格式，为 null 时自动识别格式
+     */
+    private final DateTimeFormatter[] formatters;
+
+    private DateParser(DateTimeFormatter[] formatters) {
+        this.formatters = formatters;
+    }
+
+    /**
+     * 创建只使用指定格式的解析器
+     *
+     * @param patterns DateTimeFormatter 格式，如 yyyy/MM/dd HH:mm，缺少的月、日默认为1，缺少的时间默认为0点
+     * @return 未指定任何格式时返回 AUTO
+     */
+    public static DateParser ofPatterns(String... patterns) {
+        if (patterns == null || patterns.length == 0) {
+            return AUTO;
+        }
+        DateTimeFormatter[] formatters = new DateTimeFormatter[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            formatters[i] = new DateTimeFormatterBuilder()
+                    .appendPattern(patterns[i])
+                    .parseDefaulting(ChronoField.MONTH_OF_YEAR, 1)
+                    .parseDefaulting(ChronoField.DAY_OF_MONTH, 1)
+                    .toFormatter(Locale.ENGLISH);
+        }
+        return new DateParser(formatters);
+    }
+
+    /**
+     * 解析日期字符串
+     *
+     * @param text 日期字符串
+     * @return 无法解析时返回 null
+     */
+    public LocalDateTime parse(String text) {
+        if (utils.stringIsBlank(text)) {
+            return null;
+        }
+        if (formatters == null) {
+            return autoParse(text);
+        }
+        for (DateTimeFormatter formatter : formatters) {
+            try {
+                TemporalAccessor temporal = formatter.parse(text);
+                LocalDate date = temporal.query(TemporalQueries.localDate());
+                LocalTime time = temporal.query(TemporalQueries.localTime());
+                if (date != null) {
+                    return time == null ? date.atStartOfDay() : date.atTime(time);
+                }
+            } catch (DateTimeParseException e) {
+                // 尝试下一个格式
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 解析日期字符串，并转换成系统默认时区的 Date
+     *
+     * @param text 日期字符串
+     * @return 无法解析时返回 null
+     */
+    public Date parseDate(String text) {
+        if (formatters == null && !utils.stringIsBlank(text)) {
+            // 带时区和毫秒数的格式本身就是一个时刻，不经过 LocalDateTime，避免夏令时切换时的偏差
+            char first = text.charAt(0);
+            if (first >= 'A' && first <= 'Z') {
+                return englishParseDate(text);
+            }
+            if (utils.isNumeric(text) && !(text.length() == 4 || text.length() == 8) || digitEnd(text, 0) == 0) {
+                return epochParseDate(text);
+            }
+        }
+        LocalDateTime localDateTime = parse(text);
+        return localDateTime == null ? null : Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * 自动识别格式，支持的格式见 utils.autoDate
+     * 月、日、时、分、秒超出范围时与 SimpleDateFormat 的宽松模式一样向前进位
+     */
+    private static LocalDateTime autoParse(String text) {
+        int length = text.length();
+        char first = text.charAt(0);
+        if (first >= 'A' && first <= 'Z') {
+            return englishParse(text);
+        }
+
+        // 第一组数字
+        int position = digitEnd(text, 0);
+        int firstDigits = position;
+        if (firstDigits == 0) {
+            return epochParse(text);
+        }
+        if (position == length) {
+            if (firstDigits == 4) {
+                // 2012
+                return of(number(text, 0, 4), 1, 1, 0, 0, 0, 0);
+            }
+            if (firstDigits == 8) {
+                // 20120321
+                return of(number(text, 0, 4), number(text, 4, 6), number(text, 6, 8), 0, 0, 0, 0);
+            }
+            // 1332324703000
+            return epochParse(text);
+        }
+
+        char separator = text.charAt(position);
+        if (firstDigits == 4 && (separator == '-' || separator == '/' || separator == '.')) {
+            int year = number(text, 0, 4);
+            // 月
+            int start = position + 1;
+            position = digitEnd(text, start);
+            if (position - start < 1 || position - start > 2) {
+                return null;
+            }
+            int month = number(text, start, position);
+            if (position == length) {
+                // 2012-03
+                return separator == '-' ? of(year, month, 1, 0, 0, 0, 0) : null;
+            }
+            // 日
+            if (text.charAt(position) != separator) {
+                return null;
+            }
+            start = position + 1;
+            position = digitEnd(text, start);
+            if (position - start < 1 || position - start > 2) {
+                return null;
+            }
+            int day = number(text, start, position);
+            if (position == length) {
+                // 2012-03-21
+                return of(year, month, day, 0, 0, 0, 0);
+            }
+            return timeParse(text, position, year, month, day);
+        }
+
+        if (firstDigits <= 2 && separator == '/') {
+            // 21/03/2012
+            int day = number(text, 0, position);
+            int start = position + 1;
+            position = digitEnd(text, start);
+            if (position - start < 1 || position - start > 2 || position == length || text.charAt(position) != '/') {
+                return null;
+            }
+            int month = number(text, start, position);
+            start = position + 1;
+            position = digitEnd(text, start);
+            if (position - start != 4 || position != length) {
+                return null;
+            }
+            return of(number(text, start, position), month, day, 0, 0, 0, 0);
+        }
+        return epochParse(text);
+    }
+
+    /**
+     * 解析日期之后的时间部分，如 " 18:11:43" 或 " 18:11:43.567"
+     */
+    private static LocalDateTime timeParse(String text, int position, int year, int month, int day) {
+        int length = text.length();
+        if (text.charAt(position) != ' ') {
+            return null;
+        }
+        int[] time = new int[3];
+        for (int i = 0; i < 3; i++) {
+            int start = position + 1;
+            position = digitEnd(text, start);
+            if (position - start < 1 || position - start > 2) {
+                return null;
+            }
+            time[i] = number(text, start, position);
+            if (i < 2 && (position == length || text.charAt(position) != ':')) {
+                return null;
+            }
+        }
+        if (position == length) {
+            // 2012-03-21 18:11:43
+            return of(year, month, day, time[0], time[1], time[2], 0);
+        }
+        if (text.charAt(position) != '.') {
+            return null;
+        }
+        int start = position + 1;
+        position = digitEnd(text, start);
+        if (position - start < 1 || position - start > 3 || position != length) {
+            return null;
+        }
+        // 2012-03-21 18:11:43.567，与 SimpleDateFormat 一致，S 表示毫秒数而不是小数
+        return of(year, month, day, time[0], time[1], time[2], number(text, start, position));
+    }
+
+    private static LocalDateTime englishParse(String text) {
+        return toLocalDateTime(englishParseDate(text));
+    }
+
+    private static Date englishParseDate(String text) {
+        if (!ENGLISH_PATTERN.matcher(text).matches()) {
+            return null;
+        }
+        try {
+            return ENGLISH_FORMAT.get().parse(text);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime epochParse(String text) {
+        return toLocalDateTime(epochParseDate(text));
+    }
+
+    private static Date epochParseDate(String text) {
+        if (!utils.isNumeric(text)) {
+            return null;
+        }
+        try {
+            return new Date(Long.parseLong(text));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return date == null ? null : LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    /**
+     * 与 SimpleDateFormat 的宽松模式一致，超出范围的月、日、时、分、秒向前进位
+     */
+    private static LocalDateTime of(int year, int month, int day, int hour, int minute, int second, int millisecond) {
+        return LocalDateTime.of(year, 1, 1, 0, 0)
+                .plusMonths(month - 1L)
+                .plusDays(day - 1L)
+                .plusHours(hour)
+                .plusMinutes(minute)
+                .plusSeconds(second)
+                .plusNanos(millisecond * 1000000L);
+    }
+
+    /**
+     * 从 start 开始的连续 ASCII 数字的结束位置
+     */
+    private static int digitEnd(String text, int start) {
+        int position = start;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    private static int number(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,90 @@
+package util;
+
+/**
+ * long 的集合，使用线性探测的开放寻址表，不装箱，每个元素只占一个 long
+ * 0 用来表示空位，保存在单独的标记中；不是线程安全的
+ */
+public final class LongHashSet {
+
+    private long[] table;
+
+    private int size;
+
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预计的元素数
+     */
+    public LongHashSet(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        this.table = new long[capacity];
+    }
+
+    /**
+     * 添加一个元素
+     *
+     * @return 元素已经存在时返回 false
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int slot = indexOf(table, value);
+        if (table[slot] == value) {
+            return false;
+        }
+        table[slot] = value;
+        size++;
+        // 装载因子不超过 0.5
+        if (size * 2 > table.length) {
+            resize();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        return table[indexOf(table, value)] == value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] newTable = new long[table.length * 2];
+        for (long value : table) {
+            if (value != 0) {
+                newTable[indexOf(newTable, value)] = value;
+            }
+        }
+        table = newTable;
+    }
+
+    /**
+     * 查找 value 所在的位置，不存在时返回探测到的第一个空位
+     */
+    private static int indexOf(long[] table, long value) {
+        int mask = table.length - 1;
+        int slot = (int) (value ^ (value >>> 32)) & mask;
+        long current;
+        while ((current = table[slot]) != 0 && current != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
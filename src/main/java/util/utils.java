@@ -1,16 +1,55 @@
 package util;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
-import java.util.Locale;
 
 public class utils {
 
+    /**
+     * 日期型单元格转换成字符串时使用的格式
+     */
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final long DAY_MILLISECONDS = 24L * 60 * 60 * 1000;
+
+    /**
+     * 1899-12-31 的 epochDay，excel 中 1900-01-01 的日期数值为 1
+     */
+    private static final long EXCEL_EPOCH_DAY = LocalDate.of(1899, 12, 31).toEpochDay();
+
+    /**
+     * xlsx 的最大列数
+     */
+    private static final int MAX_COLUMNS = 16384;
+
+    /**
+     * 列号 与 列字母 的缓存，下标为列号，按需填充；String 不可变，多个线程同时填充同一个位置也没有问题
+     */
+    private static final String[] COLUMN_LETTERS = new String[MAX_COLUMNS + 1];
+
     public static boolean stringIsBlank(String str) {
         return (str == null || "".equals(str));
     }
 
+    /**
+     * 去除空格、换行符等特殊符号后是否为空，遇到第一个有效字符就返回，不会创建新的字符串
+     * 控制字符和空格都被视为空白，\u0085、\u2028、\u2029 这几种换行符也被视为空白
+     */
+    public static boolean textIsBlank(String str) {
+        if (str == null) {
+            return true;
+        }
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c > ' ' && c != '\u0085' && c != '\u2028' && c != '\u2029') {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * 自动分析字符串并尝试转换为日期对象<br>
      * 可转换示例
@@ -36,37 +75,7 @@ public class utils {
      * @author Jesse Lu
      */
     public static Date autoDate(String dateTime) {
-        if (stringIsBlank(dateTime)) {
-            return null;
-        }
-        String[][] patterns = {{"\\d{4}(-\\d{1,2}){2}", "yyyy-M-d", "zh"}, // 2012-03-21, 2012-3-21
-                {"\\d{4}(-\\d{1,2}){2} \\d{1,2}(:\\d{1,2}){2}", "yyyy-M-d H:m:s", "zh"}, // 2012-03-21 18:11:43
-                {"\\d{4}(-\\d{1,2}){2} \\d{1,2}(:\\d{1,2}){2}\\.\\d{1,3}", "yyyy-M-d H:m:s.S", "zh"}, // 2012-03-21 18:11:43.567
-                {"([A-Z][a-z]{2} ){2}\\d{1,2} \\d{1,2}(:\\d{1,2}){2} [A-Z]{3} \\d{4}", "EEE MMM d H:m:s z yyyy", "en"}, // Wed Mar 21 18:11:43 CST 2012
-                {"\\d{4}(/\\d{1,2}){2}", "yyyy/M/d", "zh"}, // 2012/03/21, 2012/3/21
-                {"\\d{4}(/\\d{1,2}){2} \\d{1,2}(:\\d{1,2}){2}", "yyyy/M/d H:m:s", "zh"}, // 2012/03/21 18:11:43
-                {"\\d{4}(/\\d{1,2}){2} \\d{1,2}(:\\d{1,2}){2}\\.\\d{1,3}", "yyyy/M/d H:m:s.S", "zh"}, // 2012/03/21 18:11:43.567
-                {"\\d{4}(\\.\\d{1,2}){2}", "yyyy.M.d", "zh"}, // 2012.03.21, 2012.3.21
-                {"\\d{4}(\\.\\d{1,2}){2} \\d{1,2}(:\\d{1,2}){2}", "yyyy.M.d H:m:s", "zh"}, // 2012.03.21 18:11:43
-                {"\\d{4}(\\.\\d{1,2}){2} \\d{1,2}(:\\d{1,2}){2}\\.\\d{1,3}", "yyyy.M.d H:m:s.S", "zh"}, // 2012.03.21 18:11:43.567
-                {"(\\d{1,2}/){2}\\d{4}", "d/M/yyyy", "zh"}, // 21/03/2012, 21/3/2012
-                {"\\d{8}", "yyyyMMdd", "zh"}, // 20120321
-                {"\\d{4}(-\\d{1,2}){1}", "yyyy-M", "zh"},// 2012-03, 2012-3
-                {"\\d{4}", "yyyy", "zh"},// 2012
-        };
-        for (int i = 0; i < patterns.length; i++) {
-            if (dateTime.matches(patterns[i][0])) {
-                SimpleDateFormat format = new SimpleDateFormat(patterns[i][1], new Locale(patterns[i][2]));
-                try {
-                    return format.parse(dateTime);
-                } catch (ParseException e) {
-                    // logger.warn("日期格式[" + dateTime + "]自动转换错误");
-                    return null;
-                }
-            }
-        }
-        if (isNumeric(dateTime)) return new Date(Long.valueOf(dateTime)); // 1332324703000
-        return null;
+        return DateParser.AUTO.parseDate(dateTime);
     }
 
     public static boolean isNumeric(final CharSequence cs) {
@@ -85,4 +94,99 @@ public class utils {
     public static boolean isEmpty(final CharSequence cs) {
         return cs == null || cs.length() == 0;
     }
+
+    /**
+     * 将 excel 中的日期数值转换成 LocalDateTime，与 POI 的 DateUtil.getJavaDate 算法一致，但不经过时区转换
+     *
+     * @param date     excel 中的日期数值，整数部分为天数，小数部分为一天中的时间
+     * @param use1904  是否使用 1904 日期系统
+     * @return
+     */
+    public static LocalDateTime excelDateToLocalDateTime(double date, boolean use1904) {
+        int wholeDays = (int) Math.floor(date);
+        long millisecondsInDay = (long) ((date - wholeDays) * DAY_MILLISECONDS + 0.5);
+        int startYear = 1900;
+        // excel 错误的将 1900 年当作闰年，60 天之后需要减去一天
+        int dayAdjust = -1;
+        if (use1904) {
+            startYear = 1904;
+            dayAdjust = 1;
+        } else if (wholeDays < 61) {
+            dayAdjust = 0;
+        }
+        return LocalDate.of(startYear, 1, 1).plusDays(wholeDays + dayAdjust - 1L).atStartOfDay()
+                .plusNanos(millisecondsInDay * 1000000L);
+    }
+
+    /**
+     * 将日期转换成 excel 中的日期数值（1900 日期系统），excelDateToLocalDateTime 的逆运算
+     *
+     * @param dateTime 日期
+     * @return 早于 1900-01-01 的日期 excel 无法表示，返回 -1
+     */
+    public static double localDateTimeToExcelDate(LocalDateTime dateTime) {
+        long days = dateTime.toLocalDate().toEpochDay() - EXCEL_EPOCH_DAY;
+        if (days < 1) {
+            return -1;
+        }
+        // excel 错误的将 1900 年当作闰年，1900-03-01 及之后需要加上一天
+        if (days >= 60) {
+            days++;
+        }
+        return days + dateTime.toLocalTime().toNanoOfDay() / (DAY_MILLISECONDS * 1000000.0);
+    }
+
+    /**
+     * 将指定的自然数转换为26进制表示。映射关系：[1-26] ->[A-Z]，即 excel 的列字母
+     * 不超过 xlsx 最大列数的结果会被缓存，同一列只生成一次字符串
+     *
+     * @param n 列号，从1开始计数
+     * @return
+     */
+    public static String intToAlphabet(int n) {
+        if (n > 0 && n <= MAX_COLUMNS) {
+            String letters = COLUMN_LETTERS[n];
+            if (letters == null) {
+                letters = toAlphabet(n);
+                COLUMN_LETTERS[n] = letters;
+            }
+            return letters;
+        }
+        return toAlphabet(n);
+    }
+
+    private static String toAlphabet(int n) {
+        char[] chars = new char[8];
+        int position = chars.length;
+        while (n > 0) {
+            int m = n % 26;
+            if (m == 0) {
+                m = 26;
+            }
+            chars[--position] = (char) (64 + m);
+            n = (n - m) / 26;
+        }
+        return new String(chars, position, chars.length - position);
+    }
+
+    /**
+     * 将 excel 的列字母转换为列号，intToAlphabet 的逆运算
+     *
+     * @param letters 列字母，如 A、AB，忽略大小写
+     * @return 列号，从1开始计数；letters 为空或包含字母以外的字符时返回 0
+     */
+    public static int alphabetToInt(String letters) {
+        if (isEmpty(letters)) {
+            return 0;
+        }
+        int n = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            char c = Character.toUpperCase(letters.charAt(i));
+            if (c < 'A' || c > 'Z') {
+                return 0;
+            }
+            n = n * 26 + (c - 'A' + 1);
+        }
+        return n;
+    }
 }
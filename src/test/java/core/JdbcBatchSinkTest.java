@@ -0,0 +1,168 @@
+package core;
+
+import entity.ResultObject;
+import entity.SinkError;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 使用 H2 内存数据库测试 JdbcBatchSink 的批量写入、逐行回退和事务边界
+ */
+public class JdbcBatchSinkTest {
+
+    private static final String SQL = "insert into person (id, name) values (?, ?)";
+
+    private JdbcDataSource dataSource;
+
+    /**
+     * 保持内存数据库在测试期间存在
+     */
+    private Connection keepAlive;
+
+    @Before
+    public void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sink" + System.nanoTime());
+        keepAlive = dataSource.getConnection();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("create table person (id int primary key, name varchar(20) not null)");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        keepAlive.close();
+    }
+
+    @Test
+    public void writesWholeBatch() throws SQLException {
+        JdbcBatchSink<String[]> sink = new JdbcBatchSink<>(dataSource, SQL, JdbcBatchSinkTest::bind);
+
+        List<SinkError> errors = sink.write(batch(new String[]{"1", "a"}, new String[]{"2", "b"}));
+
+        assertTrue(errors.isEmpty());
+        assertEquals(2, count());
+    }
+
+    @Test
+    public void reportsFailedRowsOneByOne() throws SQLException {
+        JdbcBatchSink<String[]> sink = new JdbcBatchSink<>(dataSource, SQL, JdbcBatchSinkTest::bind);
+
+        // 第二行主键重复，第四行 name 为空
+        List<SinkError> errors = sink.write(batch(new String[]{"1", "a"}, new String[]{"1", "b"},
+                new String[]{"3", "c"}, new String[]{"4", null}));
+
+        assertEquals(2, errors.size());
+        assertEquals(3, errors.get(0).getRow());
+        assertEquals(5, errors.get(1).getRow());
+        assertEquals(2, count());
+    }
+
+    @Test
+    public void reportsBinderRuntimeExceptionPerRow() throws SQLException {
+        JdbcBatchSink<String[]> sink = new JdbcBatchSink<>(dataSource, SQL, JdbcBatchSinkTest::bind);
+
+        // 第二行的 id 不是数字，binder 抛出 NumberFormatException
+        List<SinkError> errors = sink.write(batch(new String[]{"1", "a"}, new String[]{"x", "b"},
+                new String[]{"3", "c"}));
+
+        assertEquals(1, errors.size());
+        assertEquals(3, errors.get(0).getRow());
+        assertTrue(errors.get(0).getCause() instanceof NumberFormatException);
+        assertEquals(2, count());
+    }
+
+    @Test
+    public void commitFailureDoesNotPersistRows() throws SQLException {
+        JdbcBatchSink<String[]> sink = new JdbcBatchSink<>(failingCommit(dataSource), SQL, JdbcBatchSinkTest::bind);
+
+        List<SinkError> errors = sink.write(batch(new String[]{"1", "a"}, new String[]{"2", "b"}));
+
+        // 提交总是失败，每一行都回滚并记录错误，恢复自动提交时不会提交执行过的行
+        assertEquals(2, errors.size());
+        assertEquals(0, count());
+    }
+
+    @Test
+    public void failureOutsideRowsRollsBackAndThrows() {
+        JdbcBatchSink<String[]> sink = new JdbcBatchSink<>(dataSource, "insert into missing (id) values (?)",
+                (statement, object) -> statement.setInt(1, Integer.parseInt(object[0])));
+        try {
+            sink.write(batch(new String[]{"1", "a"}));
+            fail();
+        } catch (SQLException e) {
+            // 表不存在，整个批次失败
+        }
+    }
+
+    private static void bind(PreparedStatement statement, String[] object) throws SQLException {
+        statement.setInt(1, Integer.parseInt(object[0]));
+        statement.setString(2, object[1]);
+    }
+
+    /**
+     * 行号从2开始，与数据从第二行开始的 excel 相同
+     */
+    private static List<ResultObject<String[]>> batch(String[]... objects) {
+        List<ResultObject<String[]>> batch = new ArrayList<>();
+        for (int i = 0; i < objects.length; i++) {
+            batch.add(new ResultObject<>(objects[i], i + 2));
+        }
+        return batch;
+    }
+
+    private int count() throws SQLException {
+        try (Statement statement = keepAlive.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from person")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    /**
+     * 连接的 commit 总是抛出 SQLException，其余方法交给原来的连接
+     */
+    private static DataSource failingCommit(JdbcDataSource dataSource) {
+        return (DataSource) Proxy.newProxyInstance(JdbcBatchSinkTest.class.getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    Object result = invoke(method, dataSource, args);
+                    if (!"getConnection".equals(method.getName())) {
+                        return result;
+                    }
+                    Connection connection = (Connection) result;
+                    return Proxy.newProxyInstance(JdbcBatchSinkTest.class.getClassLoader(),
+                            new Class<?>[]{Connection.class}, (p, m, a) -> {
+                                if ("commit".equals(m.getName())) {
+                                    throw new SQLException("commit failed");
+                                }
+                                return invoke(m, connection, a);
+                            });
+                });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}